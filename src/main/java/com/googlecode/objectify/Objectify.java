@@ -157,6 +157,39 @@ public interface Objectify
 	 */
 	Objectify mandatoryTransactions(boolean value);
 
+	/**
+	 * <p>Provides a new Objectify instance which flushes deferred operations early, as soon as this many have
+	 * accumulated, rather than holding them all until the end of the request or transaction. Large deferred
+	 * workloads then stream out while work continues, instead of all landing on the commit. A value of 0
+	 * (the default) disables early flushing.</p>
+	 *
+	 * <p>Early flushes do not block, except that each one waits for the previous one to complete. Deferring
+	 * another write to a key which has already been flushed early simply writes it again.</p>
+	 *
+	 * <p><b>All command objects are immutable; this method returns a new object rather than modifying the
+	 * current command object.</b></p>
+	 *
+	 * @return a new immutable Objectify instance which will flush deferred operations at the threshold
+	 */
+	Objectify deferredFlushThreshold(int value);
+
+	/**
+	 * <p>Provides a new Objectify instance which remembers the raw form of every entity it loads, and skips
+	 * the datastore write when a save() translates to exactly the same data. This saves write operations and
+	 * index churn for the common "load, maybe change a field, save" pattern. Skipped saves still complete
+	 * normally and are counted in {@code ObjectifyFactory.getWriteStats()}.</p>
+	 *
+	 * <p>Be aware that a skipped save does not overwrite changes that someone else made to the entity after
+	 * you loaded it; use a transaction if that matters. Snapshots are kept in the session, so they cost
+	 * memory for as long as the session lives. Objectify instances are dirtyChecking(false) by default.</p>
+	 *
+	 * <p><b>All command objects are immutable; this method returns a new object rather than modifying the
+	 * current command object.</b></p>
+	 *
+	 * @return a new immutable Objectify instance which will (or won't) skip unchanged saves
+	 */
+	Objectify dirtyChecking(boolean value);
+
 	/**
 	 * <p>Get the underlying transaction object associated with this Objectify instance.  You typically
 	 * do not need to use this; use transact() instead.</p>
@@ -204,8 +237,9 @@ public interface Objectify
 	 * <p>Within {@code Work.run()}, obtain the correct transactional {@code Objectify} instance by calling
 	 * {@code ObjectifyService.ofy()}</p>
 	 *
-	 * <p>ConcurrentModificationExceptions will cause the transaction to repeat as many times as necessary to
-	 * finish the job. Work <b>MUST</b> idempotent.</p>
+	 * <p>ConcurrentModificationExceptions will cause the transaction to repeat as the factory's {@code RetryPolicy}
+	 * allows; by default, as many times as necessary to finish the job, backing off exponentially between
+	 * attempts. Work <b>MUST</b> idempotent.</p>
 	 *
 	 * @param work defines the work to be done in a transaction.  If this method started a new transaction, it
 	 * will be committed when work is complete.  If transactional context was inherited, no commit is issued
@@ -220,11 +254,30 @@ public interface Objectify
 	 */
 	void transact(Runnable work);
 
+	/**
+	 * <p>Like {@link #transact(Work)}, but does not wait for the commit. The work runs immediately on this
+	 * thread and any deferred operations are flushed; then the commit is issued and this method returns,
+	 * so you can get on with something else while the commit is in flight.</p>
+	 *
+	 * <p>The returned result completes when the commit does, giving the result of the work. Commit listeners
+	 * run when the commit completes; that is, when you call now() or at the latest at the end of the request.
+	 * If the commit fails with a ConcurrentModificationException, the work runs again in new, synchronous
+	 * transactions, as far as the factory's {@code RetryPolicy} allows; so (as always) the work <b>MUST</b> be
+	 * idempotent.</p>
+	 *
+	 * <p>Note that if you never call now(), any retry runs while the request's pending futures are completed,
+	 * as the Objectify context closes at the end of the request. A failure at that point is only logged.</p>
+	 *
+	 * <p>If a transaction is already in progress, the work simply joins it and the result is immediately available.</p>
+	 */
+	<R> Result<R> transactAsync(Work<R> work);
+
 	/**
 	 * <p>Executes work in a new transaction.  Note that this is equivalent to {@code transactNew(Integer.MAX_VALUE, work);}</p>
 	 *
-	 * <p>ConcurrentModificationExceptions will cause the transaction to repeat as many times as necessary to
-	 * finish the job. Work <b>MUST</b> idempotent.</p>
+	 * <p>ConcurrentModificationExceptions will cause the transaction to repeat as the factory's {@code RetryPolicy}
+	 * allows; by default, as many times as necessary to finish the job, backing off exponentially between
+	 * attempts. Work <b>MUST</b> idempotent.</p>
 	 *
 	 * <p>Within {@code Work.run()}, obtain the new transactional {@code Objectify} instance by calling {@code ObjectifyService.ofy()}</p>
 	 *
@@ -241,7 +294,8 @@ public interface Objectify
 
 	/**
 	 * <p>Executes the work in a new transaction, repeating up to limitTries times when a ConcurrentModificationException
-	 * is thrown.  This requires your Work to be idempotent; otherwise limit tries to 1.
+	 * is thrown.  This requires your Work to be idempotent; otherwise limit tries to 1. The delay between tries
+	 * comes from the factory's {@code RetryPolicy}, which may also give up sooner.
 	 *
 	 * <p>Within {@code Work.run()}, obtain the new transactional {@code Objectify} instance by calling {@code ObjectifyService.ofy()}</p>
 	 *
@@ -257,6 +311,35 @@ public interface Objectify
 	 */
 	void transactNew(int limitTries, Runnable work);
 
+	/**
+	 * <p>Executes the work in a new transaction, retrying after a ConcurrentModificationException for as long
+	 * and as often as the policy says. This requires your Work to be idempotent.</p>
+	 *
+	 * <p>Within {@code Work.run()}, obtain the new transactional {@code Objectify} instance by calling {@code ObjectifyService.ofy()}</p>
+	 *
+	 * @param policy decides whether and when to try again, overriding the factory's default policy
+	 * @param work defines the work to be done in a transaction.  After the method exits, the transaction will commit.
+	 * @return the result of the work
+	 */
+	<R> R transactNew(RetryPolicy policy, Work<R> work);
+
+	/**
+	 * <p>Executes work in a new transaction which only reads. This gives you a consistent snapshot across
+	 * entity groups without paying for a commit: there is nothing to flush or write, so the transaction is
+	 * simply released (without waiting) when the work is done. There are no ConcurrentModificationExceptions
+	 * and no retries.</p>
+	 *
+	 * <p>Any attempt to save or delete (immediate or deferred) within the work throws an IllegalStateException.
+	 * Entities loaded in the transaction are added to the session when it completes, just as they would be
+	 * after a commit.</p>
+	 *
+	 * <p>If a transaction is already in progress, the work simply joins it.</p>
+	 *
+	 * @param work defines the work to be done in a read-only transaction.
+	 * @return the result of the work
+	 */
+	<R> R transactReadOnly(Work<R> work);
+
 	/**
 	 * <p>Executes the work with the transactional behavior defined by the parameter txnType.  This is very similar
 	 * to EJB semantics.  The work can inherit a transaction, create a new transaction, prevent transactions, etc.</p>
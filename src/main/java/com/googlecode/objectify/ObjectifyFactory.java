@@ -1,5 +1,6 @@
 package com.googlecode.objectify;
 
+import com.google.appengine.api.NamespaceManager;
 import com.google.appengine.api.datastore.AsyncDatastoreService;
 import com.google.appengine.api.datastore.DatastoreService.KeyRangeState;
 import com.google.appengine.api.datastore.DatastoreServiceConfig;
@@ -7,8 +8,11 @@ import com.google.appengine.api.datastore.DatastoreServiceFactory;
 import com.googlecode.objectify.cache.CachingAsyncDatastoreService;
 import com.googlecode.objectify.cache.EntityMemcache;
 import com.googlecode.objectify.impl.CacheControlImpl;
+import com.googlecode.objectify.impl.ContentionStats;
+import com.googlecode.objectify.impl.CountCache;
 import com.googlecode.objectify.impl.EntityMemcacheStats;
 import com.googlecode.objectify.impl.EntityMetadata;
+import com.googlecode.objectify.impl.IdPool;
 import com.googlecode.objectify.impl.Forge;
 import com.googlecode.objectify.impl.Keys;
 import com.googlecode.objectify.impl.ObjectifyImpl;
@@ -16,7 +20,10 @@ import com.googlecode.objectify.impl.ObjectifyOptions;
 import com.googlecode.objectify.impl.Registrar;
 import com.googlecode.objectify.impl.TransactorSupplier;
 import com.googlecode.objectify.impl.TypeUtils;
+import com.googlecode.objectify.impl.WriteBehindBuffer;
+import com.googlecode.objectify.impl.WriteStats;
 import com.googlecode.objectify.impl.translate.Translators;
+import com.googlecode.objectify.util.ExponentialBackoff;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayDeque;
@@ -64,9 +71,27 @@ public class ObjectifyFactory implements Forge
 	/** Tracks stats */
 	protected EntityMemcacheStats memcacheStats = new EntityMemcacheStats();
 
+	/** Tracks written and skipped saves */
+	protected WriteStats writeStats = new WriteStats();
+
+	/** Tracks transaction conflicts and retries */
+	protected ContentionStats contentionStats = new ContentionStats();
+
+	/** How transactNew() retries after a ConcurrentModificationException */
+	protected RetryPolicy retryPolicy = ExponentialBackoff.DEFAULT;
+
 	/** Manages caching of entities at a low level */
 	protected EntityMemcache entityMemcache = new EntityMemcache(MEMCACHE_NAMESPACE, new CacheControlImpl(this), this.memcacheStats);
 
+	/** Optional cache of query counts; null if counts are not cached */
+	protected CountCache countCache;
+
+	/** Optional JVM-wide buffer of coalesced writes; null if not in use */
+	protected WriteBehindBuffer writeBehindBuffer;
+
+	/** Optional local supply of preallocated ids; null if ids are allocated on demand */
+	protected IdPool idPool;
+
 	/**
 	 * <p>Construct an instance of the specified type.  Objectify uses this method whenever possible to create
 	 * instances of entities, condition classes, or other types; by overriding this method you can substitute Guice or other
@@ -182,11 +207,40 @@ public class ObjectifyFactory implements Forge
 		this.registrar.register(clazz);
 	}
 
+	/**
+	 * <p>Registers many classes at once, the same as calling {@code register()} on each of them but faster
+	 * on a multicore machine. The reflection for each class (finding and examining its fields and their
+	 * annotations) is done in parallel up front; the translators are then assembled from the results. Like
+	 * {@code register()}, this should be called sometime around application initialization.</p>
+	 *
+	 * @param classes must each be annotated with either @Entity or @Subclass, in any order
+	 */
+	public void registerAll(final Collection<Class<?>> classes) {
+		try {
+			classes.parallelStream().forEach(translators::prepare);
+
+			for (Class<?> clazz: classes)
+				this.registrar.register(clazz);
+		} finally {
+			translators.clearPrepared();
+		}
+	}
+
 	/**
 	 * Get the object that tracks memcache stats.
 	 */
 	public EntityMemcacheStats getMemcacheStats() { return this.memcacheStats; }
 
+	/**
+	 * Get the object that counts entity writes, including saves skipped by dirty checking.
+	 */
+	public WriteStats getWriteStats() { return this.writeStats; }
+
+	/**
+	 * Get the object that tracks transaction conflicts and retries, by entity group.
+	 */
+	public ContentionStats getContentionStats() { return this.contentionStats; }
+
 	/**
 	 * Sets the error handler for the main memcache object.
 	 */
@@ -195,6 +249,61 @@ public class ObjectifyFactory implements Forge
 		this.entityMemcache.setErrorHandler(handler);
 	}
 
+	/**
+	 * Enables caching of query counts, or disables it if null. Off by default.
+	 */
+	public void setCountCache(final CountCache countCache) {
+		this.countCache = countCache;
+	}
+
+	/**
+	 * @return the cache of query counts, or null if counts are not cached
+	 */
+	public CountCache getCountCache() { return this.countCache; }
+
+	/**
+	 * Installs a write-behind buffer, which the ObjectifyFilter will flush when it is due. Null removes it;
+	 * flush the old buffer yourself if you do that.
+	 */
+	public void setWriteBehindBuffer(final WriteBehindBuffer writeBehindBuffer) {
+		this.writeBehindBuffer = writeBehindBuffer;
+	}
+
+	/**
+	 * @return the write-behind buffer, or null if there isn't one
+	 */
+	public WriteBehindBuffer getWriteBehindBuffer() { return this.writeBehindBuffer; }
+
+	/**
+	 * Installs a pool of preallocated ids, or removes it if null. With a pool, saves of entities with null
+	 * Long ids get their ids from the pool instead of from the put, and allocateId() rarely blocks.
+	 * Off by default.
+	 */
+	public void setIdPool(final IdPool idPool) {
+		this.idPool = idPool;
+	}
+
+	/**
+	 * @return the pool of preallocated ids, or null if there isn't one
+	 */
+	public IdPool getIdPool() { return this.idPool; }
+
+	/**
+	 * Sets the default policy for retrying transactions which fail with a ConcurrentModificationException.
+	 * The default is {@code ExponentialBackoff.DEFAULT}.
+	 */
+	public void setRetryPolicy(final RetryPolicy retryPolicy) {
+		if (retryPolicy == null)
+			throw new IllegalArgumentException("RetryPolicy cannot be null");
+
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * @return the default policy for retrying transactions
+	 */
+	public RetryPolicy getRetryPolicy() { return this.retryPolicy; }
+
 	//
 	// Stuff which should only be necessary internally, but might be useful to others.
 	//
@@ -245,18 +354,23 @@ public class ObjectifyFactory implements Forge
 
 	/**
 	 * Allocates a single id from the allocator for the specified kind.  Safe to use in concert
-	 * with the automatic generator.  This is just a convenience method for allocateIds().
+	 * with the automatic generator.  This is just a convenience method for allocateIds(), unless
+	 * an IdPool is installed, in which case the id comes from the pool.
 	 *
 	 * @param clazz must be a registered entity class with a Long or long id field.
 	 * @return a key with an id that is unique to the kind
 	 */
 	public <T> Key<T> allocateId(final Class<T> clazz) {
+		if (idPool != null)
+			return Key.create(clazz, idPool.next(NamespaceManager.get(), null, Key.getKind(clazz)));
+
 		return allocateIds(clazz, 1).iterator().next();
 	}
 
 	/**
 	 * Allocates a single id from the allocator for the specified kind.  Safe to use in concert
-	 * with the automatic generator.  This is just a convenience method for allocateIds().
+	 * with the automatic generator.  This is just a convenience method for allocateIds(), unless
+	 * an IdPool is installed, in which case the id comes from the pool.
 	 *
 	 * Note that the id is only unique within the parent, not across the entire kind.
 	 *
@@ -267,6 +381,11 @@ public class ObjectifyFactory implements Forge
 	 * @return a key with a new id unique to the kind and parent
 	 */
 	public <T> Key<T> allocateId(final Object parentKeyOrEntity, final Class<T> clazz) {
+		if (idPool != null) {
+			final Key<?> parent = keys().anythingToKey(parentKeyOrEntity);
+			return Key.create(parent, clazz, idPool.next(parent.getRaw().getNamespace(), parent.getRaw(), Key.getKind(clazz)));
+		}
+
 		return allocateIds(parentKeyOrEntity, clazz, 1).iterator().next();
 	}
 
@@ -3,8 +3,10 @@
 
 package com.googlecode.objectify;
 
+import com.googlecode.objectify.impl.WriteBehindBuffer;
 import com.googlecode.objectify.util.AbstractFilter;
 import com.googlecode.objectify.util.Closeable;
+import lombok.extern.slf4j.Slf4j;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -33,11 +35,16 @@ import java.io.IOException;
  *      filter("/*").through(ObjectifyFilter.class);
  *</pre>
  *
+ * <p>If the factory has a {@code WriteBehindBuffer}, the filter flushes it at the end of each request
+ * once its window has passed. A failed flush is logged rather than failing the request; the failed writes
+ * stay in the buffer for the next flush.</p>
+ *
  * <p>If you use the Objectify outside of the context of a request (say, using the remote
  * API or from a unit test), then you should use the ObjectifyService.run() method.</p>
  * 
  * @author Jeff Schnitzer
  */
+@Slf4j
 public class ObjectifyFilter extends AbstractFilter
 {
 	/** */
@@ -45,7 +52,24 @@ public class ObjectifyFilter extends AbstractFilter
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
 
 		try (Closeable closeable = ObjectifyService.begin()) {
-			chain.doFilter(request, response);
+			try {
+				chain.doFilter(request, response);
+			} finally {
+				flushWriteBehind();
+			}
+		}
+	}
+
+	/** Flushes the write-behind buffer if it is due, while the request's Objectify context is still open */
+	private void flushWriteBehind() {
+		final WriteBehindBuffer writeBehind = ObjectifyService.factory().getWriteBehindBuffer();
+		if (writeBehind == null)
+			return;
+
+		try {
+			writeBehind.flushIfDue();
+		} catch (RuntimeException ex) {
+			log.error("Error flushing the write-behind buffer", ex);
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.googlecode.objectify;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * <p>Thrown when a large save or delete was split into several datastore calls and some, but not all, of
+ * them failed. Everything outside the failed ranges was written. For saves, generated ids have been
+ * assigned to the entities that were written, so retrying the whole batch does not create duplicates.</p>
+ *
+ * <p>If every call fails, or the write is part of a transaction, the original exception is thrown instead.</p>
+ */
+public class PartialWriteException extends RuntimeException
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * One failed datastore call, covering {@code [fromIndex, toIndex)} of the items passed to save() or delete().
+	 */
+	public static class BatchFailure
+	{
+		private final int fromIndex;
+		private final int toIndex;
+		private final Throwable cause;
+
+		public BatchFailure(int fromIndex, int toIndex, Throwable cause) {
+			this.fromIndex = fromIndex;
+			this.toIndex = toIndex;
+			this.cause = cause;
+		}
+
+		/** @return the index of the first item in the failed call, inclusive */
+		public int getFromIndex() { return fromIndex; }
+
+		/** @return the index after the last item in the failed call */
+		public int getToIndex() { return toIndex; }
+
+		/** @return why the call failed */
+		public Throwable getCause() { return cause; }
+
+		@Override
+		public String toString() {
+			return "[" + fromIndex + ", " + toIndex + "): " + cause;
+		}
+	}
+
+	/** */
+	private final int total;
+
+	/** */
+	private final List<BatchFailure> failures;
+
+	/** */
+	public PartialWriteException(int total, List<BatchFailure> failures) {
+		super(failures.size() + " datastore calls failed while writing " + total + " items: " + failures, failures.get(0).getCause());
+		this.total = total;
+		this.failures = Collections.unmodifiableList(failures);
+	}
+
+	/** @return how many items were passed to the write */
+	public int getTotal() {
+		return total;
+	}
+
+	/** @return each failed datastore call, in order */
+	public List<BatchFailure> getFailures() {
+		return failures;
+	}
+}
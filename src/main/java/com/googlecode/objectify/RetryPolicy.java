@@ -0,0 +1,18 @@
+package com.googlecode.objectify;
+
+
+/**
+ * Decides whether, and after how long, a transaction which failed with a ConcurrentModificationException
+ * should be tried again. Set the default with {@code ObjectifyFactory.setRetryPolicy()}, or pass one to
+ * {@code Objectify.transactNew(RetryPolicy, Work)}.
+ */
+public interface RetryPolicy
+{
+	/**
+	 * @param failures is how many attempts have failed so far, starting at 1
+	 * @param elapsedMillis is how long ago the first attempt started
+	 * @return how many milliseconds to wait before trying again, or a negative number to give up
+	 *  and let the ConcurrentModificationException propagate
+	 */
+	long backoff(int failures, long elapsedMillis);
+}
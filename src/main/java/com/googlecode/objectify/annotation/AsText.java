@@ -0,0 +1,21 @@
+package com.googlecode.objectify.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>When placed on a String field (or a collection of Strings), values are always stored as Text, no matter
+ * how short they are. Normally Objectify measures every long-ish String to decide whether it fits in a String
+ * property; for fields which hold descriptions, comments, and other prose that is often long anyway, this
+ * skips the measuring.</p>
+ *
+ * <p>Text is never indexed, so {@code @AsText} fields can't be used in queries. Loading is unaffected;
+ * values stored as String or Text are both fine.</p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface AsText
+{
+}
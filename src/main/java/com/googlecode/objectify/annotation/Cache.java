@@ -20,4 +20,17 @@ public @interface Cache
 	 * time due to memory pressure or the whim of Google's operations team.
 	 */
 	int expirationSeconds() default 0;
+
+	/**
+	 * <p>Normally reads inside a transaction always go to the datastore, because only the datastore can
+	 * provide a consistent snapshot. Set this to true for kinds whose entities never (or practically never)
+	 * change - reference data, immutable records - to let transactional reads be served from the memcache
+	 * when the entity is there. Cache misses still read through the transaction, and the cache is not
+	 * populated from transactional reads.</p>
+	 *
+	 * <p>Keys which the transaction itself has saved or deleted are always read from the datastore. The
+	 * entity group of a cached entity does not become part of the transaction, so a concurrent change to
+	 * it will not cause a ConcurrentModificationException; that is the price of the shortcut.</p>
+	 */
+	boolean transactionalReads() default false;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.googlecode.objectify.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>When placed on a static method of an entity (or embedded) class, that method will be called once for
+ * each batch of loaded instances of the class, after all of their @OnLoad methods. A batch is everything
+ * loaded together: the entities of one load operation or one chunk of query results, plus anything they
+ * pulled in with @Load. This is the place for work which is much cheaper done for a whole page at once,
+ * such as fetching related data in a single call.</p>
+ *
+ * <p>The method must take a single parameter, a {@code List} of the class. Instances of subclasses are
+ * included. Don't hold on to the list; it belongs to Objectify.</p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+public @interface OnLoadBatch
+{
+}
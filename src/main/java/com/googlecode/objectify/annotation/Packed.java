@@ -0,0 +1,44 @@
+package com.googlecode.objectify.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.zip.Deflater;
+
+/**
+ * <p>When placed on an array or collection of numbers (long, int, short, double, float, or their wrappers),
+ * the field will be written as a single compact Blob property instead of a list property with one element
+ * per value. Entities with large numeric series get much smaller, and much faster to load.</p>
+ *
+ * <ul>
+ * <li>Integral values are stored as variable length integers; floating point values by their bits.</li>
+ * <li>The field cannot be indexed, so you will not be able to use it in queries.</li>
+ * <li>Null elements cannot be stored.</li>
+ * <li>Values which were saved as normal list properties (ie, before the field was {@code @Packed}) can still
+ * be loaded, so you can add this annotation to existing fields. They are rewritten packed on the next save.</li>
+ * <li>Like other collections, empty or null arrays and collections are not stored at all.</li>
+ * </ul>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Packed
+{
+	/**
+	 * If true, integral values are stored as the difference from the previous value. This makes sorted or
+	 * slowly changing series (timestamps, counters) much smaller. Has no effect on floating point values.
+	 * On read, Objectify understands both forms.
+	 */
+	boolean delta() default false;
+
+	/**
+	 * If true, the data will be compressed on write using a Deflater. On read, Objectify understands both
+	 * compressed and uncompressed data.
+	 */
+	boolean zip() default false;
+
+	/**
+	 * If zip is true, sets the compression level of the Deflater.
+	 */
+	int compressionLevel() default Deflater.DEFAULT_COMPRESSION;
+}
@@ -1,5 +1,8 @@
 package com.googlecode.objectify.annotation;
 
+import com.googlecode.objectify.serializer.JavaSerializer;
+import com.googlecode.objectify.serializer.Serializer;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -20,6 +23,10 @@ import java.util.zip.Deflater;
  * <li>{@code @Serialize} collections <em>can</em> be nested inside {@code @Embed} collections.</li>
  * <li>Java serialization is opaque to the datastore viewer and other languages (ie gae/python).</li>
  * </ul>
+ *
+ * <p>Java serialization is the default, but you can choose another {@code serializer}; for example the
+ * {@code CompactSerializer} is much smaller and faster for plain data like maps of numbers and strings.
+ * Values written with java serialization can still be read after switching to another serializer.</p>
  * 
  * <p>You are <strong>strongly</strong> advised to place {@code serialVersionUID} on all classes
  * that you intend to store as {@code @Serialize}.  Without this, <strong>any</strong> change to your
@@ -36,6 +43,11 @@ public @interface Serialize
 	 * writes; on read, Objectify will understand both compressed and uncompressed data. 
 	 */
 	boolean zip() default false;
+
+	/**
+	 * An instance of this class will be instantiated and used to convert the value to and from bytes.
+	 */
+	Class<? extends Serializer> serializer() default JavaSerializer.class;
 	
 	/**
 	 * If zip is true, sets the compression level of the Deflater.
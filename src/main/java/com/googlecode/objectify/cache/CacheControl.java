@@ -19,6 +19,14 @@ public interface CacheControl
 	 * @return null means DO NOT CACHE.  0 means "no limit".  Any other value is a # of seconds.
 	 */
 	public Integer getExpirySeconds(Key key);
+
+	/**
+	 * Determine whether reads of this key inside a transaction may be served from the cache. This is only
+	 * safe for entities which don't change, so by default nothing is.
+	 */
+	default boolean isTransactionalReadAllowed(Key key) {
+		return false;
+	}
 }
 
 
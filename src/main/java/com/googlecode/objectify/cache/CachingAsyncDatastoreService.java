@@ -167,6 +167,9 @@ public class CachingAsyncDatastoreService implements AsyncDatastoreService
 	@Override
 	public Future<Void> delete(final Transaction txn, final Iterable<Key> keys)
 	{
+		if (txn instanceof CachingTransaction)
+			((CachingTransaction)txn).wrote(keys);
+
 		// Always trigger, even on failure - the delete might have succeeded even though a timeout
 		// exception was thrown.  We will always be safe emptying the key from the cache.
 		Future<Void> future = new TriggerFuture<Void>(this.rawAsync.delete(txn, keys)) {
@@ -191,6 +194,35 @@ public class CachingAsyncDatastoreService implements AsyncDatastoreService
 		return future;
 	}
 
+	/**
+	 * Transactional reads bypass the cache, except for kinds which explicitly allow it and keys which this
+	 * transaction has not written.
+	 */
+	private Future<Map<Key, Entity>> getTransactional(Transaction txn, Iterable<Key> keys)
+	{
+		final List<Key> candidates = new ArrayList<>();
+		for (Key key: keys)
+			if (!(txn instanceof CachingTransaction) || !((CachingTransaction)txn).hasWritten(key))
+				candidates.add(key);
+
+		final Map<Key, Entity> peeked = candidates.isEmpty() ? Collections.<Key, Entity>emptyMap() : this.memcache.peekTransactional(candidates);
+		if (peeked.isEmpty())
+			return this.rawAsync.get(txn, keys);
+
+		final List<Key> uncached = new ArrayList<>();
+		for (Key key: keys)
+			if (!peeked.containsKey(key))
+				uncached.add(key);
+
+		final Map<Key, Entity> cached = new HashMap<>();
+		for (Map.Entry<Key, Entity> entry: peeked.entrySet())
+			if (entry.getValue() != null)
+				cached.put(entry.getKey(), entry.getValue());
+
+		final Future<Map<Key, Entity>> pending = uncached.isEmpty() ? null : this.rawAsync.get(txn, uncached);
+		return new MergeFuture<>(cached, pending);
+	}
+
 	/* (non-Javadoc)
 	 * @see com.google.appengine.api.datastore.AsyncDatastoreService#get(com.google.appengine.api.datastore.Key)
 	 */
@@ -243,7 +275,7 @@ public class CachingAsyncDatastoreService implements AsyncDatastoreService
 		if (txn != null)
 		{
 			// Must not populate the cache since we are looking at a frozen moment in time.
-			return this.rawAsync.get(txn, keys);
+			return this.getTransactional(txn, keys);
 		}
 		else
 		{
@@ -406,6 +438,9 @@ public class CachingAsyncDatastoreService implements AsyncDatastoreService
 		
 		final boolean hasAutoGenKeys = foundAutoGenKeys;
 
+		if (txn instanceof CachingTransaction)
+			((CachingTransaction)txn).wrote(inputKeys);
+
 		// Always trigger, even on failure - the delete might have succeeded even though a timeout
 		// exception was thrown.  We will always be safe emptying the key from the cache.
 		final Future<List<Key>> future = new TriggerFuture<List<Key>>(this.rawAsync.put(txn, entities)) {
@@ -21,11 +21,15 @@ class CachingTransaction extends TransactionWrapper
 	
 	/** Lazily constructed set of keys we will EMPTY if transaction commits */
 	private Set<Key> deferred;
+
+	/** Keys this transaction has put or deleted, as soon as the write is issued */
+	private Set<Key> written = new HashSet<>();
 	
 	/** 
 	 * All futures that have been enlisted in this transaction.  In the future, when we can
 	 * hook into the raw Future<?>, we shouldn't need this - the GAE SDK automatically calls
-	 * quietGet() on all the enlisted Futures before a transaction commits. 
+	 * quietGet() on all the raw Futures before a transaction commits, but our wrappers still
+	 * need to be completed so that their triggers run.
 	 */
 	private List<Future<?>> enlistedFutures = new ArrayList<>();
 	
@@ -42,17 +46,24 @@ class CachingTransaction extends TransactionWrapper
 
 	@Override
 	public Future<Void> commitAsync() {
-		// We need to ensure that any enlisted Futures are completed before we try
-		// to run the commit.  The GAE SDK does this itself, but unfortunately this
-		// doesn't help our wrapped Futures.  When we can hook into Futures natively
-		// we won't have to do this ourselves
-		for (Future<?> fut: this.enlistedFutures)
-			FutureHelper.quietGet(fut);
+		// The GAE SDK completes the raw enlisted Futures before it commits, so there is no need to
+		// block on our wrapped Futures one at a time here.  They only need to have run their triggers
+		// (which collect the deferred keys) before we touch the cache, so we complete them afterwards.
+		final List<Future<?>> enlisted = this.enlistedFutures;
+		this.enlistedFutures = new ArrayList<>();
 		
 		return new TriggerFuture<Void>(super.commitAsync()) {
 			@Override
 			protected void trigger()
 			{
+				for (Future<?> fut: enlisted) {
+					try {
+						fut.get();
+					} catch (Exception ex) {
+						// Whatever happened to the write, the commit reports it; we only need the trigger
+					}
+				}
+				
 				// Only after a commit should we modify the cache
 				if (deferred != null)
 				{
@@ -84,6 +95,21 @@ class CachingTransaction extends TransactionWrapper
 		this.deferred.add(key);
 	}
 	
+	/**
+	 * Notes that a write of these keys has been issued in this transaction.
+	 */
+	public void wrote(Iterable<Key> keys) {
+		for (Key key: keys)
+			this.written.add(key);
+	}
+
+	/**
+	 * @return true if this transaction has issued a put or delete of the key
+	 */
+	public boolean hasWritten(Key key) {
+		return this.written.contains(key);
+	}
+
 	/**
 	 * Adds a Future to our transaction; this Future will be completed before the transaction commits.
 	 * TODO:  remove this method when the GAE SDK provides a way to hook into Futures.
@@ -266,6 +266,43 @@ public class EntityMemcache
 		return result;
 	}
 
+	/**
+	 * <p>Gets whatever is already in the cache for the keys which may be read from the cache in a transaction
+	 * (per CacheControl), without setting up buckets for the others.  Nothing is ever written to the cache.</p>
+	 *
+	 * @return a map of key to entity, or to null for a negative cache result.  Keys which are not in the
+	 *  cache, or which may not be read from it in a transaction, are absent.
+	 */
+	public Map<Key, Entity> peekTransactional(Iterable<Key> keys)
+	{
+		final List<Key> allowed = new ArrayList<>();
+		for (Key key: keys)
+			if (cacheControl.getExpirySeconds(key) != null && cacheControl.isTransactionalReadAllowed(key))
+				allowed.add(key);
+
+		final Map<Key, Entity> result = new HashMap<>();
+		if (allowed.isEmpty())
+			return result;
+
+		final Map<Key, Object> cached = this.cacheGetAll(allowed);
+
+		for (Key key: allowed)
+		{
+			final Object value = cached.get(key);
+			if (value instanceof Entity)
+				result.put(key, (Entity)value);
+			else if (NEGATIVE.equals(value))
+				result.put(key, null);
+
+			if (result.containsKey(key))
+				this.stats.recordHit(key);
+			else
+				this.stats.recordMiss(key);
+		}
+
+		return result;
+	}
+
 	/**
 	 * Update a set of buckets with new values.  If collisions occur, resets the memcache value to null.
 	 *
@@ -3,6 +3,9 @@ package com.googlecode.objectify.cmd;
 import com.google.appengine.api.datastore.Cursor;
 import com.google.appengine.api.datastore.Query.Filter;
 
+import java.util.List;
+import java.util.Map;
+
 
 /**
  * The basic options for a typed Query.  In addition to adding a few methods that are only available for typed
@@ -151,4 +154,53 @@ public interface Query<T> extends SimpleQuery<T>
 	 */
 	@Override
 	public Query<T> distinct(boolean value);
+
+	/**
+	 * <p>Splits this query into (up to) {@code count} queries which each cover a contiguous, non-overlapping
+	 * range of the key space. Together the shards produce exactly the results of this query. Each shard is an
+	 * ordinary independent query which is sorted by key, so it can be handed to a separate thread or task queue
+	 * worker.</p>
+	 *
+	 * <p>Split points are computed immediately by sampling keys, preferably from the datastore's __scatter__
+	 * property, within this query's namespace and ancestor. Shards are only roughly even in size. You may get
+	 * fewer shards than requested if the kind is small. Sampling happens outside of any transaction, so
+	 * ancestor queries can be split inside one; the shards themselves run in it as usual.</p>
+	 *
+	 * <p>The query must not have a sort order (other than ascending by key), limit, offset, or cursors. Since
+	 * each shard filters on a range of __key__, the query must not have inequality filters on any other
+	 * property.</p>
+	 *
+	 * @param count is the desired number of shards, must be >= 1
+	 * @return a list of new immutable query objects, in key order
+	 */
+	public List<Query<T>> split(int count);
+
+	/**
+	 * <p>Executes this as a projection query, decoding each result directly into a new instance of a plain
+	 * class rather than a (partially populated) entity. Projected properties are matched to fields of the class
+	 * by name, honoring {@code @AlsoLoad}; values are converted exactly as they would be for entity fields.
+	 * A field annotated with {@code @Id} receives the id (or name, or key) of each result. The class needs a
+	 * no-arg constructor and must not have {@code Ref<?>} fields.</p>
+	 *
+	 * <p>You must call {@code project()} first, with the datastore names of indexed properties; fields of the
+	 * class which don't match a projected property are left alone. As with any projection query, entities
+	 * which lack a projected property are not returned.</p>
+	 *
+	 * <p>This is substantially cheaper than a normal projection: results bypass the session, @Load processing,
+	 * and lifecycle callbacks entirely.</p>
+	 *
+	 * @return an object which can execute the projection query
+	 */
+	public <P> QueryExecute<P> projectInto(Class<P> type);
+
+	/**
+	 * <p>Like {@code projectInto()}, but each result is a map of projected property name to value, in
+	 * projection order. If this query is for a registered entity class, values of its fields are converted to
+	 * the field type; other values (eg, embedded paths) are left as the raw datastore value.</p>
+	 *
+	 * <p>You must call {@code project()} first.</p>
+	 *
+	 * @return an object which can execute the projection query
+	 */
+	public QueryExecute<Map<String, Object>> projectIntoMap();
 }
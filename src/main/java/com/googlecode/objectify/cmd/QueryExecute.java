@@ -4,6 +4,7 @@ import com.google.appengine.api.datastore.QueryResultIterable;
 import com.googlecode.objectify.LoadResult;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 
 /**
@@ -33,6 +34,19 @@ public interface QueryExecute<T> extends QueryResultIterable<T>
 	 */
 	public List<T> list();
 
+	/**
+	 * <p>Execute the query and get the results as a lazy, sequential Stream. Results are fetched from the
+	 * datastore a chunk at a time as the stream is consumed, so the stream only pulls as much as the
+	 * downstream operations demand; a {@code limit()} or short-circuiting terminal operation stops fetching.</p>
+	 *
+	 * <p>Unlike {@code list()} and {@code iterator()}, entities pulled through the stream are dropped from
+	 * the session once the stream has moved past their chunk. This lets you walk an unbounded result set in
+	 * constant memory, at the price of a later {@code load()} of the same key going back to the datastore.</p>
+	 *
+	 * <p>If you need cursors, use {@code iterator()}; its {@code getCursor()} is cheap at chunk boundaries.</p>
+	 */
+	public Stream<T> stream();
+
 	/**
 	 * Gets the first entity in the result set.  Obeys the offset value.
 	 *
@@ -2,6 +2,9 @@
 
 import com.googlecode.objectify.Key;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 
 /**
  * <p>After you call Query.keys(), you are executing a keys-only query.  This is the command structure.
@@ -11,4 +14,21 @@ import com.googlecode.objectify.Key;
  */
 public interface QueryKeys<T> extends QueryExecute<Key<T>>
 {
+	/**
+	 * <p>Executes the query and hands the keys to the consumer in batches of the query's chunk size.
+	 * This is the cheapest way to walk a large number of keys.</p>
+	 *
+	 * <p>The same list instance is refilled and passed for every batch; if you want to hold on to the
+	 * keys after the consumer returns, copy them.</p>
+	 */
+	void forEachBatch(Consumer<List<Key<T>>> consumer);
+
+	/**
+	 * <p>Same as {@code forEachBatch()} but produces the raw datastore keys, avoiding the creation of
+	 * a {@code Key<?>} wrapper per result.</p>
+	 *
+	 * <p>The same list instance is refilled and passed for every batch; if you want to hold on to the
+	 * keys after the consumer returns, copy them.</p>
+	 */
+	void forEachRawBatch(Consumer<List<com.google.appengine.api.datastore.Key>> consumer);
 }
@@ -45,6 +45,26 @@ public interface Saver
 	 */
 	<E> Result<Map<Key<E>, E>> entities(E... entities);
 
+	/**
+	 * <p>Save a large, possibly lazily-produced, sequence of entities; meant for bulk imports. Entities are
+	 * translated in batches and each batch is sent as soon as it is ready, so translation overlaps with the
+	 * datastore calls. Up to four batches are in flight at once.</p>
+	 *
+	 * <p>Unlike {@link #entities(Iterable)}, this translates and dispatches everything before it returns,
+	 * and the saved entities are not added to the session; memory use is a few batches no matter how large
+	 * the input. Generated ids are populated on the entity objects as their batches complete.</p>
+	 *
+	 * @param entities must be registered entity types; iterated exactly once
+	 * @return an asynchronous result with the number of entities saved. If only some batches could be
+	 * written, now() throws a {@code PartialWriteException}.
+	 */
+	<E> Result<Integer> entitiesPipelined(Iterable<E> entities);
+
+	/**
+	 * Like {@link #entitiesPipelined(Iterable)}, with control over how many batches may be in flight at once.
+	 */
+	<E> Result<Integer> entitiesPipelined(Iterable<E> entities, int maxInFlight);
+
 	/**
 	 * Convert a POJO object to a native datastore Entity.  This is like a save() operation but without actually saving
 	 * the data to the datastore.
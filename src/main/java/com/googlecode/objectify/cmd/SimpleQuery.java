@@ -1,6 +1,7 @@
 package com.googlecode.objectify.cmd;
 
 import com.google.appengine.api.datastore.Cursor;
+import com.googlecode.objectify.Result;
 
 
 /**
@@ -233,13 +234,35 @@ public interface SimpleQuery<T> extends QueryExecute<T>
 	 * This is somewhat faster than fetching, but the time still grows with the number of results.
 	 * The datastore actually walks through the result set and counts for you.</p>
 	 *
-	 * <p>Immediately executes the query; there is no async version of this method.</p>
+	 * <p>Immediately executes the query; see {@link #countAsync()} for a version which does not block.</p>
+	 *
+	 * <p>If the factory has a {@code CountCache}, a cached count may be returned instead of executing the
+	 * query. Counts are never cached inside transactions.</p>
 	 *
 	 * <p>WARNING:  Each counted entity is billed as a "datastore minor operation".  Even though these
 	 * are free, they may take significant time because they require an index walk.</p>
 	 */
 	public int count();
 
+	/**
+	 * <p>Starts counting the results in the background; the count is available from the returned Result.
+	 * <em>limit</em> and <em>offset</em> are obeyed.</p>
+	 *
+	 * <p>The low-level API has no async count, so this runs the same count as {@link #count()} on a thread
+	 * belonging to the current request (see {@code ThreadManager}); each call costs one new thread. Where
+	 * request threads aren't available, such as under the remote API, the count runs synchronously instead.
+	 * Prefer {@link #countAsync(int)} when you only need to know whether there are "at least N" results.</p>
+	 */
+	public Result<Integer> countAsync();
+
+	/**
+	 * <p>A bounded version of {@link #countAsync()} which stops once {@code atMost} results have been counted.
+	 * Useful for "1000+ results" displays and existence checks, where the full count is not needed.</p>
+	 *
+	 * @param atMost must be positive; if the query already has a smaller limit, that limit is used
+	 */
+	public Result<Integer> countAsync(int atMost);
+
 	/**
 	 * <p>Generates a string that consistently and uniquely specifies this query.  There
 	 * is no way to convert this string back into a query and there is no guarantee that
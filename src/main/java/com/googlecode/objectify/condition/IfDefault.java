@@ -55,6 +55,11 @@ public class IfDefault extends ValueIf<Object> implements InitializeIf
 		this.defaultValue = TypeUtils.field_get(field, pojo);
 	}
 	
+	/** The value of the field in a freshly constructed instance of its class */
+	public Object getDefaultValue() {
+		return this.defaultValue;
+	}
+
 	@Override
 	public boolean matchesValue(Object value) {
 		if (this.defaultValue == null)
@@ -25,4 +25,12 @@ public class CacheControlImpl implements CacheControl
 		EntityMetadata<?> meta = fact.getMetadata(key.getKind());
 		return meta == null ? null : meta.getCacheExpirySeconds();
 	}
+
+	/** */
+	@Override
+	public boolean isTransactionalReadAllowed(Key key)
+	{
+		EntityMetadata<?> meta = fact.getMetadata(key.getKind());
+		return meta != null && meta.isCacheTransactionalReads();
+	}
 }
\ No newline at end of file
@@ -3,15 +3,17 @@ package com.googlecode.objectify.impl;
 import com.google.appengine.api.datastore.Cursor;
 import com.google.appengine.api.datastore.QueryResultIterator;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Iterators;
-import com.google.common.collect.Lists;
 import com.googlecode.objectify.Key;
 import com.googlecode.objectify.Result;
-import com.googlecode.objectify.util.IterateFunction;
 import com.googlecode.objectify.util.ResultNowFunction;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Splits a QueryResultIterator into a series of chunks which include the Cursor for
@@ -20,42 +22,93 @@ import java.util.List;
 public class ChunkIterator<T> implements Iterator<Chunk<T>> {
 
 	QueryResultIterator<Key<T>> allKeys;
-	Iterator<Iterator<Key<T>>> chunks;
+	int chunkSize;
 	LoadEngine engine;
 
+	/**
+	 * If true, whatever each chunk added to the session (including anything pulled in by @Load) is dropped
+	 * when the following chunk is fetched, or when the iteration ends.
+	 */
+	boolean releaseSession;
+	Collection<Key<?>> previousKeys = Collections.emptyList();
+
 	public ChunkIterator(QueryResultIterator<Key<T>> allKeys, int chunkSize, LoadEngine engine) {
+		this(allKeys, chunkSize, engine, false);
+	}
+
+	public ChunkIterator(QueryResultIterator<Key<T>> allKeys, int chunkSize, LoadEngine engine, boolean releaseSession) {
 		this.allKeys = allKeys;
+		this.releaseSession = releaseSession;
 
-		// Iterators.partition() allocates lists with capacity of whatever batch size you pass in; if batch
-		// size is unlimited, we end up trying to allocate maxint.
-		this.chunks = (chunkSize == Integer.MAX_VALUE)
-				? Iterators.<Iterator<Key<T>>>singletonIterator(allKeys)
-				: Iterators.transform(Iterators.partition(allKeys, chunkSize), IterateFunction.<Key<T>>instance());
+		this.chunkSize = chunkSize;
 		this.engine = engine;
 	}
 
 	@Override
 	public boolean hasNext() {
-		return chunks.hasNext();
+		if (allKeys.hasNext())
+			return true;
+
+		if (releaseSession)
+			release();
+
+		return false;
 	}
 
 	@Override
 	public Chunk<T> next() {
+		if (releaseSession)
+			release();
+
+		if (!allKeys.hasNext())
+			throw new NoSuchElementException();
+
 		Cursor cursor = allKeys.getCursor();
-		Iterator<Key<T>> keys = chunks.next();
-		List<Result<T>> results = Lists.newArrayList();
 
-		while (keys.hasNext()) {
-			results.add(engine.load(keys.next()));
+		// Entries which were already in the session are not ours to release, so only note what gets added
+		final Set<Key<?>> added = releaseSession ? engine.getSession().startRecording() : null;
+
+		// Pull keys straight off the source rather than partitioning. If chunk size is unlimited,
+		// don't try to preallocate maxint.
+		List<Result<T>> results = (chunkSize == Integer.MAX_VALUE) ? new ArrayList<>() : new ArrayList<>(chunkSize);
+
+		try {
+			while (results.size() < chunkSize && allKeys.hasNext()) {
+				Key<T> key = allKeys.next();
+				results.add(engine.load(key));
+			}
+
+			engine.execute();
+
+			if (releaseSession) {
+				// Finish any @Load rounds now, so that we know everything the chunk brought into the session
+				for (Result<T> result: results)
+					result.now();
+			}
+		} finally {
+			if (added != null)
+				engine.getSession().stopRecording(added);
 		}
 
-		engine.execute();
+		if (releaseSession)
+			previousKeys = added;
 
 		Iterable<T> materialized = Iterables.transform(results, ResultNowFunction.<T>instance());
 
 		return new Chunk<>(cursor, materialized);
 	}
 
+	/**
+	 * Forget what the previous chunk added to the session so that the session does not grow with the result
+	 * set. The caller has already been handed those values; anything else holding them is unaffected.
+	 */
+	private void release() {
+		for (Key<?> key: previousKeys)
+			engine.getSession().remove(key);
+
+		previousKeys = Collections.emptyList();
+	}
+
 	@Override
 	public void remove() {
 		throw new UnsupportedOperationException();
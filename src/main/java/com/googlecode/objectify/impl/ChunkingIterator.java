@@ -37,11 +37,24 @@ public class ChunkingIterator<T> implements QueryResultIterator<T> {
 			final PreparedQuery pq,
 			final QueryResultIterator<Key<T>> source,
 			final int chunkSize) {
+		this(loadEngine, pq, source, chunkSize, false);
+	}
+
+	/**
+	 * @param releaseSession if true, entities are dropped from the session one chunk after they have been
+	 *  iterated past. This keeps memory constant when walking very large result sets.
+	 */
+	public ChunkingIterator(
+			final LoadEngine loadEngine,
+			final PreparedQuery pq,
+			final QueryResultIterator<Key<T>> source,
+			final int chunkSize,
+			final boolean releaseSession) {
 
 		this.pq = pq;
 		this.source = source;
 
-		final ChunkIterator<T> chunkIt = new ChunkIterator<>(source, chunkSize, loadEngine);
+		final ChunkIterator<T> chunkIt = new ChunkIterator<>(source, chunkSize, loadEngine, releaseSession);
 		this.stream = Iterators.peekingIterator(Iterators.concat(chunkIt));
 
 		// Always start with a cursor; there might actually be any results
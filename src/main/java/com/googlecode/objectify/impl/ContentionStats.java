@@ -0,0 +1,112 @@
+package com.googlecode.objectify.impl;
+
+import com.google.common.cache.CacheBuilder;
+import com.googlecode.objectify.Key;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks transaction contention across the factory. Each ConcurrentModificationException is charged to
+ * the root of every entity group the failed transaction touched (loaded or saved), so the hot groups
+ * float to the top of {@link #getHottest(int)}.
+ *
+ * <p>Only a bounded number of groups are tracked; when there are more, the ones which conflicted least
+ * recently are forgotten. Hot groups keep conflicting, so they stay.</p>
+ */
+public class ContentionStats
+{
+	/** */
+	public static final long DEFAULT_MAX_GROUPS = 1000;
+
+	/** */
+	private final Map<Key<?>, AtomicLong> conflicts;
+
+	/** */
+	private final AtomicLong retries = new AtomicLong();
+	private final AtomicLong gaveUp = new AtomicLong();
+
+	/** */
+	public ContentionStats() {
+		this(DEFAULT_MAX_GROUPS);
+	}
+
+	/**
+	 * @param maxGroups is how many entity groups to keep conflict counts for
+	 */
+	public ContentionStats(long maxGroups) {
+		this.conflicts = CacheBuilder.newBuilder()
+				.maximumSize(maxGroups)
+				.<Key<?>, AtomicLong>build()
+				.asMap();
+	}
+
+	/**
+	 * Get the live conflict counts by entity group root.  You can clear it if you want.
+	 */
+	public Map<Key<?>, AtomicLong> getConflicts() { return this.conflicts; }
+
+	/** @return how many conflicts have been charged to the entity group with this root */
+	public long getConflicts(Key<?> root) {
+		final AtomicLong count = this.conflicts.get(root);
+		return count == null ? 0 : count.get();
+	}
+
+	/** @return how many times a transaction was retried after a conflict */
+	public long getRetries() { return this.retries.get(); }
+
+	/** @return how many transactions failed because the retry policy gave up */
+	public long getGaveUp() { return this.gaveUp.get(); }
+
+	/**
+	 * @return the roots of (at most) the n most contended entity groups, most contended first
+	 */
+	public List<Key<?>> getHottest(int n) {
+		final List<Map.Entry<Key<?>, AtomicLong>> entries = new ArrayList<>(this.conflicts.entrySet());
+		entries.sort(Comparator.comparingLong((Map.Entry<Key<?>, AtomicLong> entry) -> entry.getValue().get()).reversed());
+
+		final List<Key<?>> hottest = new ArrayList<>(Math.min(n, entries.size()));
+		for (Map.Entry<Key<?>, AtomicLong> entry: entries) {
+			if (hottest.size() >= n)
+				break;
+
+			hottest.add(entry.getKey());
+		}
+
+		return hottest;
+	}
+
+	/**
+	 * Record a conflict against the entity groups of all these keys; each group is counted once.
+	 */
+	public void conflict(Iterable<Key<?>> keys) {
+		final Set<Key<?>> roots = new HashSet<>();
+		for (Key<?> key: keys)
+			roots.add(key.getRoot());
+
+		for (Key<?> root: roots)
+			this.conflicts.computeIfAbsent(root, r -> new AtomicLong()).incrementAndGet();
+	}
+
+	/** */
+	public void retried() {
+		this.retries.incrementAndGet();
+	}
+
+	/** */
+	public void gaveUp() {
+		this.gaveUp.incrementAndGet();
+	}
+
+	/** Start counting again */
+	public void reset() {
+		this.conflicts.clear();
+		this.retries.set(0);
+		this.gaveUp.set(0);
+	}
+}
@@ -0,0 +1,102 @@
+package com.googlecode.objectify.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>An optional, per-factory cache of query counts. Entries are keyed by the namespace and normalized query
+ * string, and remember the write generation of the query's kind (in that namespace) at the time the count
+ * started. Every save or delete that passes through the WriteEngine bumps the generation of the kinds it
+ * touches, which makes any count cached for those kinds stale. Writes in a transaction bump it when the
+ * transaction commits.</p>
+ *
+ * <p>Generations are tracked in this JVM only; writes made by other instances are not seen. The maximum
+ * age bounds how stale a count can get in that case. Install with {@code ObjectifyFactory.setCountCache()}.</p>
+ */
+public class CountCache
+{
+	/** */
+	private static class Entry {
+		final long generation;
+		final int count;
+
+		Entry(long generation, int count) {
+			this.generation = generation;
+			this.count = count;
+		}
+	}
+
+	/** */
+	private final Cache<String, Entry> counts;
+
+	/** Namespace and kind to write generation */
+	private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+	/**
+	 * @param maxAgeMillis is how long a count may be served without being recomputed
+	 * @param maxEntries is how many distinct queries are remembered
+	 */
+	public CountCache(long maxAgeMillis, long maxEntries) {
+		this.counts = CacheBuilder.newBuilder()
+				.expireAfterWrite(maxAgeMillis, TimeUnit.MILLISECONDS)
+				.maximumSize(maxEntries)
+				.build();
+	}
+
+	/**
+	 * Namespaces can't contain '!', so this can't be confused with the key for another namespace.
+	 * The default namespace is the empty string.
+	 */
+	private static String key(String namespace, String value) {
+		return namespace + "!" + value;
+	}
+
+	/**
+	 * The current write generation of a kind in a namespace. Capture this <em>before</em> running a count
+	 * and pass it to put(), so that a write racing with the count leaves the result stale.
+	 */
+	public long generation(String namespace, String kind) {
+		final AtomicLong gen = generations.get(key(namespace, kind));
+		return gen == null ? 0 : gen.get();
+	}
+
+	/**
+	 * @return the cached count, or null if there is none or it has been invalidated by a write
+	 */
+	public Integer get(String namespace, String kind, String query) {
+		final String cacheKey = key(namespace, query);
+
+		final Entry entry = counts.getIfPresent(cacheKey);
+		if (entry == null)
+			return null;
+
+		if (entry.generation != generation(namespace, kind)) {
+			counts.invalidate(cacheKey);
+			return null;
+		}
+
+		return entry.count;
+	}
+
+	/** */
+	public void put(String namespace, String query, long generation, int count) {
+		counts.put(key(namespace, query), new Entry(generation, count));
+	}
+
+	/**
+	 * Invalidate every count of the kind in the namespace.
+	 */
+	public void invalidate(String namespace, String kind) {
+		generations.computeIfAbsent(key(namespace, kind), k -> new AtomicLong()).incrementAndGet();
+	}
+
+	/** Forget everything */
+	public void clear() {
+		counts.invalidateAll();
+	}
+}
@@ -1,14 +1,18 @@
 package com.googlecode.objectify.impl;
 
 import com.google.appengine.api.datastore.Entity;
+import com.google.common.collect.Lists;
 import com.googlecode.objectify.Key;
 import com.googlecode.objectify.Objectify;
 import com.googlecode.objectify.Result;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Manages all the logic of deferring operations
@@ -27,6 +31,9 @@ public class Deferrer {
 	/** Entities with autogenerated (null) ids can't be put in the map, they don't have keys */
 	private final List<Object> autogeneratedIdSaves = new ArrayList<>();
 
+	/** Results of the most recent early flush, if it hasn't been completed yet */
+	private List<Result<?>> earlyFlush;
+
 	/** */
 	public Deferrer(Objectify ofy, Session session) {
 		this.ofy = ofy;
@@ -46,9 +53,9 @@ public class Deferrer {
 			operations.remove(Key.create((com.google.appengine.api.datastore.Key)keyOrEntity));
 		else if (keyOrEntity instanceof Entity)
 			operations.remove(Key.create(((Entity)keyOrEntity).getKey()));
-		else if (ofy.factory().keys().requiresAutogeneratedId(keyOrEntity)) {
-			autogeneratedIdSaves.remove(keyOrEntity);
-		} else {
+		else if (autogeneratedIdSaves.remove(keyOrEntity)) {
+			// Deferred without an id; it might have been given one since, so don't go by its key
+		} else if (!ofy.factory().keys().requiresAutogeneratedId(keyOrEntity)) {
 			Key<?> key = ofy.factory().keys().keyOf(keyOrEntity);
 			operations.remove(key);
 		}
@@ -83,14 +90,61 @@ public class Deferrer {
 		operations.put(key, null);
 	}
 
+	/**
+	 * Write out every deferred operation and wait for all of them, including any early flushes still
+	 * in flight. Saves and deletes are sent concurrently in chunks that each fit in a datastore call.
+	 */
 	public void flush() {
+		// The early flush may hold older writes to the same keys; they must land before anything newer is sent
+		completeEarlyFlush();
+
+		// Complete any pending operations
+		for (final Result<?> future : dispatch()) {
+			future.now();
+		}
+	}
+
+	/**
+	 * Starts writing the deferred operations if there are at least {@code threshold} of them, without
+	 * waiting for them to finish; the previous early flush, if any, is completed first so that only one
+	 * is outstanding at a time. flush() completes whatever is left.
+	 *
+	 * @param threshold of 0 means never flush early
+	 */
+	public void flushIfOver(int threshold) {
+		if (threshold == 0 || operations.size() + autogeneratedIdSaves.size() < threshold)
+			return;
+
+		completeEarlyFlush();
+
+		earlyFlush = dispatch();
+	}
+
+	/**
+	 * Waits for the early flush in flight, if there is one.
+	 */
+	private void completeEarlyFlush() {
+		if (earlyFlush != null) {
+			final List<Result<?>> futures = earlyFlush;
+			earlyFlush = null;
+
+			for (final Result<?> future : futures)
+				future.now();
+		}
+	}
+
+	/**
+	 * Issues every deferred operation.
+	 * @return the results, not yet completed
+	 */
+	private List<Result<?>> dispatch() {
 		final List<Result<?>> futures = new ArrayList<>();
 
-		// Need to do this in a loop because @OnSave methods can enlist more deferred operations. Execution
-		// of save or delete will undefer() all the relevant items, so both lists empty mean we're done.
+		// Need to do this in a loop because @OnSave methods can enlist more deferred operations, so both
+		// lists empty mean we're done.
 		while (!operations.isEmpty() || !autogeneratedIdSaves.isEmpty()) {
 			// Sort into two batch operations: one for save, one for delete.
-			List<Object> saves = new ArrayList<>();
+			List<Object> saves = new ArrayList<>(operations.size() + autogeneratedIdSaves.size());
 			List<Key<?>> deletes = new ArrayList<>();
 
 			for (Map.Entry<Key<?>, Object> entry : operations.entrySet()) {
@@ -100,18 +154,27 @@ public class Deferrer {
 					saves.add(entry.getValue());
 			}
 
+			final Map<Key<?>, Object> handedOff = new HashMap<>(operations);
+			final Set<Object> autogeneratedHandedOff = Collections.newSetFromMap(new IdentityHashMap<>());
+			autogeneratedHandedOff.addAll(autogeneratedIdSaves);
+
 			saves.addAll(autogeneratedIdSaves);
 
-			if (!saves.isEmpty())
-				futures.add(ofy.save().entities(saves));
+			// Every chunk is in flight at the same time
+			for (List<Object> chunk : Lists.partition(saves, WriteBatches.MAX_ENTITIES))
+				futures.add(ofy.save().entities(chunk));
 
-			if (!deletes.isEmpty())
-				futures.add(ofy.delete().keys(deletes));
-		}
+			for (List<Key<?>> chunk : Lists.partition(deletes, WriteBatches.MAX_ENTITIES))
+				futures.add(ofy.delete().keys(chunk));
 
-		// Complete any pending operations
-		for (final Result<?> future : futures) {
-			future.now();
+			// Only now that they have been handed off; if that failed, they are still deferred. @OnSave methods
+			// might have deferred new operations in the meantime, which stay for the next pass.
+			for (Map.Entry<Key<?>, Object> entry : handedOff.entrySet())
+				operations.remove(entry.getKey(), entry.getValue());
+
+			autogeneratedIdSaves.removeIf(autogeneratedHandedOff::contains);
 		}
+
+		return futures;
 	}
 }
@@ -61,6 +61,13 @@ public class EntityMetadata<P>
 		return this.cached == null ? null : this.cached.expirationSeconds();
 	}
 
+	/**
+	 * @return true if the @Cache annotation allows reads in a transaction to be served from the cache
+	 */
+	public boolean isCacheTransactionalReads() {
+		return this.cached != null && this.cached.transactionalReads();
+	}
+
 	/**
 	 * Converts an entity to an object of the appropriate type for this metadata structure.
 	 * Does not check that the entity is appropriate; that should be done when choosing
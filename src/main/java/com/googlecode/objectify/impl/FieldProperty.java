@@ -4,12 +4,14 @@ import com.googlecode.objectify.ObjectifyFactory;
 import com.googlecode.objectify.annotation.IgnoreSave;
 import com.googlecode.objectify.annotation.Index;
 import com.googlecode.objectify.annotation.Unindex;
-import com.googlecode.objectify.condition.If;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.function.BiPredicate;
 
 /** 
  * Property which encapsulates a simple field. 
@@ -17,16 +19,19 @@ import java.lang.reflect.Type;
 public class FieldProperty extends AbstractProperty
 {
 	Field field;
+
+	/** Adapted to (Object)Object and (Object,Object)void so they can be called with invokeExact */
 	MethodHandle getter;
 	MethodHandle setter;
+
+	/** Generated at compile time; if present, used instead of the method handles */
+	GeneratedAccessors accessors;
+	int accessorIndex;
 	
-	/** These are authoritative */
-	If<?, ?>[] indexConditions;
-	If<?, ?>[] unindexConditions;
-	If<?, ?>[] ignoreSaveConditions;
-	
-	/** If we have an @IgnoreSave and it isn't Always */
-	boolean hasIgnoreSaveConditions;
+	/** Compiled from the @Index, @Unindex, and @IgnoreSave conditions; null if there are none */
+	BiPredicate<Object, Object> indexConditions;
+	BiPredicate<Object, Object> unindexConditions;
+	BiPredicate<Object, Object> ignoreSaveConditions;
 	
 	/**
 	 * @param examinedClass is the actual top level concrete class we are examining; the field might
@@ -37,12 +42,24 @@ public class FieldProperty extends AbstractProperty
 
 		field.setAccessible(true);
 		this.field = field;
-		try {
-			this.getter = MethodHandles.lookup().unreflectGetter(field);
-			this.setter = MethodHandles.lookup().unreflectSetter(field);
+
+		GeneratedAccessors generated = TypeUtils.getGeneratedAccessors(field.getDeclaringClass());
+		if (generated != null) {
+			int index = Arrays.asList(generated.getFieldNames()).indexOf(field.getName());
+			if (index >= 0 && generated.isAccessible(index)) {
+				this.accessors = generated;
+				this.accessorIndex = index;
+			}
 		}
-		catch (ReflectiveOperationException e) {
-			throw new IllegalStateException(e);
+
+		if (this.accessors == null) {
+			try {
+				this.getter = MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+				this.setter = MethodHandles.lookup().unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+			}
+			catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
 		}
 
 		IfConditionGenerator ifGenerator = new IfConditionGenerator(fact);
@@ -55,15 +72,15 @@ public class FieldProperty extends AbstractProperty
 			throw new IllegalStateException("Cannot have @Indexed and @Unindexed on the same field: " + field);
 		
 		if (indexedAnn != null)
-			this.indexConditions = ifGenerator.generateIfConditions(indexedAnn.value(), field);
+			this.indexConditions = IfConditionGenerator.compile(ifGenerator.generateIfConditions(indexedAnn.value(), field), field.getType());
 		
 		if (unindexedAnn != null)
-			this.unindexConditions = ifGenerator.generateIfConditions(unindexedAnn.value(), field);
+			this.unindexConditions = IfConditionGenerator.compile(ifGenerator.generateIfConditions(unindexedAnn.value(), field), field.getType());
 		
 		// Now watch out for @IgnoreSave conditions
 		IgnoreSave ignoreSave = field.getAnnotation(IgnoreSave.class);
 		if (ignoreSave != null)
-			ignoreSaveConditions = ifGenerator.generateIfConditions(ignoreSave.value(), field);
+			this.ignoreSaveConditions = IfConditionGenerator.compile(ifGenerator.generateIfConditions(ignoreSave.value(), field), field.getType());
 	}
 	
 	/** */
@@ -73,9 +90,14 @@ public class FieldProperty extends AbstractProperty
 	/** */
 	@Override
 	public void set(Object pojo, Object value) {
+		if (accessors != null) {
+			accessors.set(pojo, accessorIndex, value);
+			return;
+		}
+
 		try {
 			//this.field.set(pojo, value);
-			setter.invoke(pojo, value);
+			setter.invokeExact(pojo, value);
 		}
 		catch (RuntimeException ex) { throw ex; }
 		catch (Throwable ex) { throw new RuntimeException(ex); }
@@ -84,9 +106,12 @@ public class FieldProperty extends AbstractProperty
 	/** */
 	@Override
 	public Object get(Object pojo) {
+		if (accessors != null)
+			return accessors.get(pojo, accessorIndex);
+
 		try {
 			//return this.field.get(pojo);
-			return getter.invoke(pojo);
+			return (Object)getter.invokeExact(pojo);
 		}
 		catch (RuntimeException ex) { throw ex; }
 		catch (Throwable ex) { throw new RuntimeException(ex); }
@@ -100,43 +125,18 @@ public class FieldProperty extends AbstractProperty
 
 	/** */
 	@Override
-	public boolean isSaved(Object onPojo) {
-		return !this.matches(onPojo, ignoreSaveConditions);
+	public boolean isSaved(Object onPojo, Object value) {
+		return ignoreSaveConditions == null || !ignoreSaveConditions.test(value, onPojo);
 	}
 
 	/** */
 	@Override
-	public Boolean getIndexInstruction(Object onPojo) {
-		if (this.matches(onPojo, indexConditions))
+	public Boolean getIndexInstruction(Object onPojo, Object value) {
+		if (indexConditions != null && indexConditions.test(value, onPojo))
 			return true;
-		else if (this.matches(onPojo, unindexConditions))
+		else if (unindexConditions != null && unindexConditions.test(value, onPojo))
 			return false;
 		else
 			return null;
 	}
-	
-	/**
-	 * Tests whether a set of conditions match.
-	 * @param conditions can be null; this always matches false
-	 * @return true if we match the conditions, false if we do not 
-	 */
-	private boolean matches(Object onPojo, If<?, ?>[] conditions) {
-		if (conditions == null)
-			return false;
-		
-		Object value = this.get(onPojo);
-
-		for (If<?, ?> condition: conditions) {
-			@SuppressWarnings("unchecked")
-			If<Object, Object> cond = (If<Object, Object>)condition;
-
-			if (cond.matchesValue(value))
-				return true;
-
-			if (cond.matchesPojo(onPojo))
-				return true;
-		}
-
-		return false;
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.googlecode.objectify.impl;
+
+/**
+ * <p>Implemented by the classes which {@code com.googlecode.objectify.processor.AccessorProcessor} generates
+ * at compile time. For a class {@code com.example.Outer.Thing}, the generated class is
+ * {@code com.example.Outer_Thing_ObjectifyAccessors}; see {@link TypeUtils#getGeneratedAccessors(Class)}.</p>
+ *
+ * <p>When one is present, registration takes the list of persistent fields from it instead of working it out,
+ * and fields read and write through plain field access instead of reflection. Fields which the generated code
+ * can't reach (private fields, or fields of private classes) still use reflection.</p>
+ */
+public interface GeneratedAccessors
+{
+	/** Suffix of the generated class name */
+	String SUFFIX = "_ObjectifyAccessors";
+
+	/**
+	 * @return the names of the persistent fields declared on the class (not its superclasses), in declaration
+	 *  order. Fields are numbered by their position here.
+	 */
+	String[] getFieldNames();
+
+	/** @return true if get() and set() work for the numbered field */
+	boolean isAccessible(int field);
+
+	/** Read the numbered field */
+	Object get(Object pojo, int field);
+
+	/** Write the numbered field */
+	void set(Object pojo, int field, Object value);
+}
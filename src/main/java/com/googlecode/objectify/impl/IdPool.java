@@ -0,0 +1,209 @@
+package com.googlecode.objectify.impl;
+
+import com.google.appengine.api.NamespaceManager;
+import com.google.appengine.api.datastore.AsyncDatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceConfig;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyRange;
+import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.cache.TriggerFuture;
+import com.googlecode.objectify.util.FutureHelper;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+
+/**
+ * <p>A local supply of allocated ids, kept separately for each namespace, kind and parent, so that ids can be handed
+ * out without a datastore call. Each supply is refilled with a range of {@code batchSize} ids; the next
+ * range is requested asynchronously as soon as the current one runs low, so in steady state nobody waits.</p>
+ *
+ * <p>App Engine async calls belong to the request which made them, so a refill is only ever waited on by
+ * the thread which asked for it, and is completed along with the rest of that request's pending futures
+ * when its Objectify context closes. A request which runs out while somebody else's refill is in flight
+ * allocates synchronously instead.</p>
+ *
+ * <p>Allocated ids are safe to use in concert with autogenerated ids. Ids which are never used are simply
+ * wasted, which is harmless. If an asynchronous refill fails, the pool falls back to a synchronous
+ * allocation.</p>
+ *
+ * <p>Install with {@code ObjectifyFactory.setIdPool()}; from then on, saves of entities with null
+ * {@code Long} ids take their ids from the pool, as does {@code ObjectifyFactory.allocateId()}.</p>
+ */
+@Slf4j
+public class IdPool
+{
+	/** */
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	/** What a supply is for. The namespace is the parent's, if there is one; the default namespace is "" */
+	@Value
+	private static class Source {
+		String namespace;
+		Key parent;
+		String kind;
+	}
+
+	/** The ids for one namespace, kind and parent */
+	private class Supply {
+		private final Source source;
+
+		/** The next id to hand out, and the end (inclusive) of the current range */
+		private long next = 1;
+		private long end = 0;
+
+		/** A range which has arrived but not been started on */
+		private KeyRange ready;
+
+		/** The refill in flight, if any, and the thread whose request it belongs to */
+		private Future<KeyRange> refill;
+		private Thread refillThread;
+
+		Supply(Source source) {
+			this.source = source;
+		}
+
+		synchronized long take() {
+			if (next > end)
+				use(nextRange());
+
+			final long id = next++;
+
+			if (refill == null && ready == null && end - next < lowWater)
+				startRefill();
+
+			return id;
+		}
+
+		/** The range which arrived, or ours if it is in flight, or failing that a synchronous allocation */
+		private KeyRange nextRange() {
+			if (ready == null && refill != null && refillThread == Thread.currentThread()) {
+				try {
+					refill.get();	// triggers refilled()
+				} catch (Exception ex) {
+					// Already logged by the trigger
+				}
+			}
+
+			if (ready != null) {
+				final KeyRange range = ready;
+				ready = null;
+				return range;
+			}
+
+			return FutureHelper.quietGet(allocate());
+		}
+
+		/** */
+		private void startRefill() {
+			refillThread = Thread.currentThread();
+			refill = new TriggerFuture<KeyRange>(allocate()) {
+				@Override
+				protected void trigger() {
+					KeyRange range = null;
+					try {
+						range = raw.get();
+					} catch (Exception ex) {
+						log.warn("Asynchronous id allocation for {} failed; the next range will be allocated synchronously", source, ex);
+					}
+
+					refilled(range);
+				}
+			};
+		}
+
+		/** Called when a refill completes, by the thread of the request which started it */
+		private synchronized void refilled(KeyRange range) {
+			refill = null;
+			refillThread = null;
+
+			if (ready == null)
+				ready = range;
+		}
+
+		/**
+		 * Ids of root entities are allocated in the current namespace, which is not necessarily the one
+		 * the supply is for, so switch to that one while the request is made.
+		 */
+		private Future<KeyRange> allocate() {
+			if (source.getParent() != null)
+				return datastore().allocateIds(source.getParent(), source.getKind(), batchSize);
+
+			final String oldNamespace = NamespaceManager.get();
+			NamespaceManager.set(source.getNamespace());
+			try {
+				return datastore().allocateIds(source.getKind(), batchSize);
+			} finally {
+				NamespaceManager.set(oldNamespace);
+			}
+		}
+
+		private void use(KeyRange range) {
+			next = range.getStart().getId();
+			end = range.getEnd().getId();
+		}
+	}
+
+	/** */
+	private final ObjectifyFactory factory;
+
+	/** */
+	private final int batchSize;
+
+	/** When this few ids remain, the next range is requested */
+	private final int lowWater;
+
+	/** */
+	private final ConcurrentMap<Source, Supply> supplies = new ConcurrentHashMap<>();
+
+	/** */
+	public IdPool(ObjectifyFactory factory) {
+		this(factory, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Refills when a quarter of the batch remains.
+	 */
+	public IdPool(ObjectifyFactory factory, int batchSize) {
+		this(factory, batchSize, batchSize / 4);
+	}
+
+	/**
+	 * @param factory provides the datastore service which ids are allocated through
+	 * @param batchSize is how many ids to allocate at a time
+	 * @param lowWater is how few ids may remain before the next batch is requested
+	 */
+	public IdPool(ObjectifyFactory factory, int batchSize, int lowWater) {
+		if (batchSize < 1)
+			throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+
+		if (lowWater < 0 || lowWater >= batchSize)
+			throw new IllegalArgumentException("lowWater must be between 0 and batchSize: " + lowWater);
+
+		this.factory = factory;
+		this.batchSize = batchSize;
+		this.lowWater = lowWater;
+	}
+
+	/** allocateIds() is optionless, so any configuration will do */
+	private AsyncDatastoreService datastore() {
+		return factory.createAsyncDatastoreService(DatastoreServiceConfig.Builder.withDefaults(), false);
+	}
+
+	/**
+	 * @param namespace is the namespace of the entity; null means the default namespace. If there is a
+	 *  parent, the entity has to be in the parent's namespace anyway, so it is taken from the parent.
+	 * @param parent can be null for root entities
+	 * @return an allocated id, unique to the namespace, kind and parent
+	 */
+	public long next(String namespace, Key parent, String kind) {
+		if (parent != null)
+			namespace = parent.getNamespace();
+		else if (namespace == null)
+			namespace = "";
+
+		return supplies.computeIfAbsent(new Source(namespace, parent, kind), Supply::new).take();
+	}
+}
@@ -3,11 +3,24 @@ package com.googlecode.objectify.impl;
 import com.googlecode.objectify.ObjectifyFactory;
 import com.googlecode.objectify.condition.Always;
 import com.googlecode.objectify.condition.If;
+import com.googlecode.objectify.condition.IfDefault;
+import com.googlecode.objectify.condition.IfEmpty;
+import com.googlecode.objectify.condition.IfFalse;
+import com.googlecode.objectify.condition.IfNotNull;
+import com.googlecode.objectify.condition.IfNull;
+import com.googlecode.objectify.condition.IfTrue;
+import com.googlecode.objectify.condition.IfZero;
 import com.googlecode.objectify.condition.InitializeIf;
+import com.googlecode.objectify.condition.PojoIf;
+import com.googlecode.objectify.condition.ValueIf;
 import com.googlecode.objectify.repackaged.gentyref.GenericTypeReflector;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiPredicate;
 
 /** 
  * Utility that makes it easy to generate If conditions. 
@@ -69,4 +82,79 @@ public class IfConditionGenerator
 		
 		return created;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * <p>Turns a set of conditions into a single test of (value, pojo) which is true if any of them match.
+	 * The stock conditions (IfNull, IfDefault, IfEmpty, etc) become direct tests, specialized for the field
+	 * type where that helps; anything else is called through the If interface, but only the half of it
+	 * that can actually match.</p>
+	 *
+	 * @param conditions can be null, in which case so is the result: there is nothing to test
+	 */
+	public static BiPredicate<Object, Object> compile(If<?, ?>[] conditions, Class<?> fieldType) {
+		if (conditions == null)
+			return null;
+
+		BiPredicate<Object, Object> result = null;
+		for (If<?, ?> condition: conditions) {
+			BiPredicate<Object, Object> compiled = compile(condition, fieldType);
+			result = (result == null) ? compiled : result.or(compiled);
+		}
+
+		return result;
+	}
+
+	/** */
+	@SuppressWarnings("unchecked")
+	private static BiPredicate<Object, Object> compile(If<?, ?> condition, Class<?> fieldType) {
+		// Subclasses might override matchesValue(), so only the exact classes can be specialized
+		final Class<?> conditionClass = condition.getClass();
+
+		if (conditionClass == Always.class)
+			return (value, pojo) -> true;
+
+		if (conditionClass == IfNull.class || (conditionClass == IfDefault.class && ((IfDefault)condition).getDefaultValue() == null))
+			return (value, pojo) -> value == null;
+
+		if (conditionClass == IfNotNull.class)
+			return (value, pojo) -> value != null;
+
+		if (conditionClass == IfDefault.class) {
+			final Object defaultValue = ((IfDefault)condition).getDefaultValue();
+			return (value, pojo) -> defaultValue.equals(value);
+		}
+
+		if (conditionClass == IfFalse.class)
+			return (value, pojo) -> Boolean.FALSE.equals(value);
+
+		if (conditionClass == IfTrue.class)
+			return (value, pojo) -> Boolean.TRUE.equals(value);
+
+		if (conditionClass == IfZero.class)
+			return (value, pojo) -> value != null && ((Number)value).doubleValue() == 0;
+
+		if (conditionClass == IfEmpty.class) {
+			if (fieldType == String.class)
+				return (value, pojo) -> value == null || ((String)value).isEmpty();
+			else if (Collection.class.isAssignableFrom(fieldType))
+				return (value, pojo) -> value == null || ((Collection<?>)value).isEmpty();
+			else if (Map.class.isAssignableFrom(fieldType))
+				return (value, pojo) -> value == null || ((Map<?, ?>)value).isEmpty();
+			else if (fieldType.isArray())
+				return (value, pojo) -> value == null || Array.getLength(value) == 0;
+		}
+
+		if (condition instanceof ValueIf) {
+			final ValueIf<Object> valueIf = (ValueIf<Object>)condition;
+			return (value, pojo) -> valueIf.matchesValue(value);
+		}
+
+		if (condition instanceof PojoIf) {
+			final PojoIf<Object> pojoIf = (PojoIf<Object>)condition;
+			return (value, pojo) -> pojoIf.matchesPojo(pojo);
+		}
+
+		final If<Object, Object> cond = (If<Object, Object>)condition;
+		return (value, pojo) -> cond.matchesValue(value) || cond.matchesPojo(pojo);
+	}
+}
@@ -114,7 +114,8 @@ public class LoadEngine
 
 	/**
 	 * Stuffs an Entity into a place where values in the round can be obtained instead of going to the datastore.
-	 * Called by non-hybrid queries to add results and eliminate batch fetching.
+	 * Called by non-hybrid queries to add results and eliminate batch fetching. Stuffed entities are translated
+	 * along with fetched ones, so they are snapshotted for dirty checking in the same place.
 	 */
 	public void stuff(Entity ent) {
 		round.stuff(ent);
@@ -136,10 +137,17 @@ public class LoadEngine
 
 				ctx = new LoadContext(LoadEngine.this);
 
+				final boolean dirtyChecking = ofy.getOptions().isDirtyChecking();
+
+				// Both fetched and stuffed (query result) entities come through here
 				for (Entity ent: raw.now().values()) {
 					Key<?> key = Key.create(ent.getKey());
 					Object entity = load(ent, ctx);
 					result.put(key, entity);
+
+					// Unregistered kinds come back as the Entity itself, which the caller might modify
+					if (entity != ent && (dirtyChecking || session.getSnapshot(key) != null))
+						session.snapshot(key, ent);
 				}
 
 				return result;
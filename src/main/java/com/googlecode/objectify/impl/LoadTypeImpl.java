@@ -6,11 +6,13 @@ import com.googlecode.objectify.LoadResult;
 import com.googlecode.objectify.cmd.LoadIds;
 import com.googlecode.objectify.cmd.LoadType;
 import com.googlecode.objectify.cmd.Query;
+import com.googlecode.objectify.cmd.QueryExecute;
 import com.googlecode.objectify.util.DatastoreUtils;
 import com.googlecode.objectify.util.ResultCache;
 import com.googlecode.objectify.util.ResultProxy;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -80,6 +82,30 @@ class LoadTypeImpl<T> extends Queryable<T> implements LoadType<T>
 		return q;
 	}
 
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.Query#split(int)
+	 */
+	@Override
+	public List<Query<T>> split(int count) {
+		return createQuery().split(count);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.Query#projectInto(java.lang.Class)
+	 */
+	@Override
+	public <P> QueryExecute<P> projectInto(Class<P> type) {
+		return createQuery().projectInto(type);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.Query#projectIntoMap()
+	 */
+	@Override
+	public QueryExecute<Map<String, Object>> projectIntoMap() {
+		return createQuery().projectIntoMap();
+	}
+
 	/* (non-Javadoc)
 	 * @see com.googlecode.objectify.cmd.LoadIds#id(long)
 	 */
@@ -59,13 +59,13 @@ public class MethodProperty extends AbstractProperty
 
 	/** Never saved */
 	@Override
-	public boolean isSaved(Object onPojo) {
+	public boolean isSaved(Object onPojo, Object value) {
 		return false;
 	}
 
 	/** Since we are never saved this is never called */
 	@Override
-	public Boolean getIndexInstruction(Object onPojo) {
+	public Boolean getIndexInstruction(Object onPojo, Object value) {
 		throw new UnsupportedOperationException("This should never have been called!");
 	}
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import com.google.appengine.api.datastore.ReadPolicy.Consistency;
 import com.googlecode.objectify.Key;
 import com.googlecode.objectify.Objectify;
 import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.Result;
+import com.googlecode.objectify.RetryPolicy;
 import com.googlecode.objectify.TxnType;
 import com.googlecode.objectify.Work;
 import com.googlecode.objectify.annotation.Entity;
@@ -15,10 +17,8 @@ import com.googlecode.objectify.cmd.Deferred;
 import com.googlecode.objectify.cmd.Deleter;
 import com.googlecode.objectify.cmd.Loader;
 import com.googlecode.objectify.cmd.Saver;
-import com.googlecode.objectify.impl.translate.CreateContext;
 import com.googlecode.objectify.impl.translate.SaveContext;
 import com.googlecode.objectify.impl.translate.Translator;
-import com.googlecode.objectify.impl.translate.TypeKey;
 import com.googlecode.objectify.util.Closeable;
 import lombok.Getter;
 
@@ -132,6 +132,22 @@ public class ObjectifyImpl implements Objectify, Closeable
 		return makeNew(options.mandatoryTransactions(value));
 	}
 
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.Objectify#deferredFlushThreshold(int)
+	 */
+	@Override
+	public Objectify deferredFlushThreshold(int value) {
+		return makeNew(options.deferredFlushThreshold(value));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.Objectify#dirtyChecking(boolean)
+	 */
+	@Override
+	public Objectify dirtyChecking(boolean value) {
+		return makeNew(options.dirtyChecking(value));
+	}
+
 	/** Same transactor, different options */
 	private ObjectifyImpl makeNew(final ObjectifyOptions opts) {
 		return makeNew(opts, ofy -> transactor);
@@ -201,6 +217,11 @@ public class ObjectifyImpl implements Objectify, Closeable
 		return transactor.transact(this, work);
 	}
 
+	@Override
+	public <R> Result<R> transactAsync(Work<R> work) {
+		return transactor.transactAsync(this, work);
+	}
+
 	@Override
 	public void transact(final Runnable work) {
 		transact((Work<Void>)() -> {
@@ -241,6 +262,16 @@ public class ObjectifyImpl implements Objectify, Closeable
 		});
 	}
 
+	@Override
+	public <R> R transactNew(RetryPolicy policy, Work<R> work) {
+		return transactor.transactNew(this, policy, work);
+	}
+
+	@Override
+	public <R> R transactReadOnly(Work<R> work) {
+		return transactor.transactReadOnly(this, work);
+	}
+
 	/* (non-Javadoc)
 	 * @see com.googlecode.objectify.Objectify#clear()
 	 */
@@ -276,6 +307,8 @@ public class ObjectifyImpl implements Objectify, Closeable
 		if (options.isMandatoryTransactions() && getTransaction() == null)
 			throw new IllegalStateException("You have attempted save/delete outside of a transaction, but you have enabled ofy().mandatoryTransactions(true). Perhaps you wanted to start a transaction first?");
 
+		checkWritable();
+
 		return new WriteEngine(this, createAsyncDatastoreService(), transactor.getSession(), transactor.getDeferrer());
 	}
 
@@ -328,7 +361,8 @@ public class ObjectifyImpl implements Objectify, Closeable
 				return factory().keys().getMetadataSafe(value).getRawKey(value);
 			} else {
 				// Run it through a translator
-				final Translator<Object, Object> translator = factory().getTranslators().get(new TypeKey<>(value.getClass()), new CreateContext(factory()), Path.root());
+				@SuppressWarnings("unchecked")
+				final Translator<Object, Object> translator = factory().getTranslators().get((Class<Object>)value.getClass());
 				return translator.save(value, false, new SaveContext(), Path.root());
 			}
 		}
@@ -352,18 +386,28 @@ public class ObjectifyImpl implements Objectify, Closeable
 		transactor.getDeferrer().flush();
 	}
 
+	/** */
+	private void checkWritable() {
+		if (transactor.isReadOnly())
+			throw new IllegalStateException("You have attempted save/delete in a read-only transaction. Use transact() instead of transactReadOnly() for work which writes.");
+	}
+
 	/**
 	 * Defer the saving of one entity. Updates the session cache with this new value.
 	 */
 	void deferSave(final Object entity) {
+		checkWritable();
 		transactor.getDeferrer().deferSave(entity);
+		transactor.getDeferrer().flushIfOver(options.getDeferredFlushThreshold());
 	}
 
 	/**
 	 * Defer the deletion of one entity. Updates the session cache with this new value.
 	 */
 	void deferDelete(final Key<?> key) {
+		checkWritable();
 		transactor.getDeferrer().deferDelete(key);
+		transactor.getDeferrer().flushIfOver(options.getDeferredFlushThreshold());
 	}
 
 	/**
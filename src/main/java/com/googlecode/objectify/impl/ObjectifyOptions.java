@@ -17,26 +17,43 @@ public class ObjectifyOptions {
 	private final Double deadline;
 	private final boolean mandatoryTransactions;
 
+	/** Deferred operations are flushed early once there are this many of them; 0 means wait for the end of the unit of work */
+	private final int deferredFlushThreshold;
+
+	/** Snapshot entities as they are loaded, and skip saves which would not change them */
+	private final boolean dirtyChecking;
+
 	ObjectifyOptions() {
-		this(true, Consistency.STRONG, null, false);
+		this(true, Consistency.STRONG, null, false, 0, false);
 	}
 
 	public ObjectifyOptions consistency(final Consistency value) {
 		if (value == null)
 			throw new IllegalArgumentException("Consistency cannot be null");
 
-		return new ObjectifyOptions(cache, value, deadline, mandatoryTransactions);
+		return new ObjectifyOptions(cache, value, deadline, mandatoryTransactions, deferredFlushThreshold, dirtyChecking);
 	}
 
 	public ObjectifyOptions deadline(final Double value) {
-		return new ObjectifyOptions(cache, consistency, value, mandatoryTransactions);
+		return new ObjectifyOptions(cache, consistency, value, mandatoryTransactions, deferredFlushThreshold, dirtyChecking);
 	}
 
 	public ObjectifyOptions cache(final boolean value) {
-		return new ObjectifyOptions(value, consistency, deadline, mandatoryTransactions);
+		return new ObjectifyOptions(value, consistency, deadline, mandatoryTransactions, deferredFlushThreshold, dirtyChecking);
 	}
 
 	public ObjectifyOptions mandatoryTransactions(final boolean value) {
-		return new ObjectifyOptions(cache, consistency, deadline, value);
+		return new ObjectifyOptions(cache, consistency, deadline, value, deferredFlushThreshold, dirtyChecking);
+	}
+
+	public ObjectifyOptions deferredFlushThreshold(final int value) {
+		if (value < 0)
+			throw new IllegalArgumentException("Threshold cannot be negative: " + value);
+
+		return new ObjectifyOptions(cache, consistency, deadline, mandatoryTransactions, value, dirtyChecking);
+	}
+
+	public ObjectifyOptions dirtyChecking(final boolean value) {
+		return new ObjectifyOptions(cache, consistency, deadline, mandatoryTransactions, deferredFlushThreshold, value);
 	}
-}
\ No newline at end of file
+}
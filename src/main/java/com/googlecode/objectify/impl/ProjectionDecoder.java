@@ -0,0 +1,197 @@
+package com.googlecode.objectify.impl;
+
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.RawValue;
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.Ref;
+import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.Ignore;
+import com.googlecode.objectify.impl.translate.CreateContext;
+import com.googlecode.objectify.impl.translate.LoadContext;
+import com.googlecode.objectify.impl.translate.SkipException;
+import com.googlecode.objectify.impl.translate.Translator;
+import com.googlecode.objectify.impl.translate.TypeKey;
+import com.googlecode.objectify.repackaged.gentyref.GenericTypeReflector;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Decodes the partial entities produced by projection queries straight into a plain class or a Map.
+ * Only the projected properties are looked at. There is no session, no LoadEngine, no @Load processing,
+ * and no lifecycle callbacks; each result is decoded on its own as the iterator advances.</p>
+ *
+ * <p>Values are converted with the same translators that entity fields use, so anything which works
+ * in a projection on a normal entity field will work in a projection class.</p>
+ */
+abstract class ProjectionDecoder<P>
+{
+	/** We do not populate fields with any of these modifiers */
+	private static final int NOT_POPULATED_MODIFIERS = Modifier.FINAL | Modifier.STATIC;
+
+	/** */
+	final List<ProjectedProperty> props = new ArrayList<>();
+
+	/**
+	 * Decode one projection result.
+	 * @param ctx is only used by the translators for things like recycling; it is never done()
+	 */
+	abstract P decode(Entity ent, LoadContext ctx);
+
+	/** A context suitable for passing to decode(). One per iteration. */
+	LoadContext createContext() {
+		return new LoadContext(null);
+	}
+
+	/**
+	 * One projected property name and how to convert its value. The translator is null if we have
+	 * no type information, in which case the raw value is used.
+	 */
+	static class ProjectedProperty {
+		final String name;
+		final Property property;
+		final Translator<Object, Object> translator;
+
+		ProjectedProperty(String name, Property property, Translator<Object, Object> translator) {
+			this.name = name;
+			this.property = property;
+			this.translator = translator;
+		}
+
+		/** @throws SkipException if the value should be left alone */
+		Object load(Entity ent, LoadContext ctx) throws SkipException {
+			if (!ent.hasProperty(name))
+				throw new SkipException();
+
+			final Object value = ent.getProperty(name);
+
+			if (translator == null)
+				return (value instanceof RawValue) ? ((RawValue)value).getValue() : value;
+			else
+				return translator.load(value, ctx, Path.root().extend(name));
+		}
+	}
+
+	/**
+	 * Decodes into new instances of a plain class. Projected properties are matched to fields by name
+	 * (honoring @AlsoLoad); an @Id field receives the id, name, or key of the result.
+	 */
+	static class IntoClass<P> extends ProjectionDecoder<P> {
+		private final ObjectifyFactory fact;
+		private final Class<P> clazz;
+		private Property idProperty;
+
+		IntoClass(ObjectifyFactory fact, Class<P> clazz, Collection<String> projected) {
+			this.fact = fact;
+			this.clazz = clazz;
+
+			for (Property prop: fieldsOf(fact, clazz)) {
+				if (prop.getAnnotation(Id.class) != null) {
+					this.idProperty = prop;
+					continue;
+				}
+
+				if (GenericTypeReflector.erase(prop.getType()) == Ref.class)
+					throw new IllegalArgumentException("Ref<?> fields cannot be populated by projection queries; use Key<?> instead: " + prop);
+
+				for (String name: prop.getLoadNames()) {
+					if (projected.contains(name)) {
+						props.add(new ProjectedProperty(name, prop, translatorFor(fact, prop, name)));
+						break;
+					}
+				}
+			}
+		}
+
+		@Override
+		P decode(Entity ent, LoadContext ctx) {
+			final P pojo = fact.construct(clazz);
+
+			if (idProperty != null)
+				idProperty.set(pojo, idValue(GenericTypeReflector.erase(idProperty.getType()), ent.getKey()));
+
+			for (ProjectedProperty prop: props) {
+				try {
+					prop.property.set(pojo, prop.load(ent, ctx));
+				} catch (SkipException ex) {
+					// Leave the field alone
+				}
+			}
+
+			return pojo;
+		}
+
+		/** Converts the raw key into whatever the @Id field wants */
+		private Object idValue(Class<?> idType, com.google.appengine.api.datastore.Key raw) {
+			if (idType == Key.class)
+				return Key.create(raw);
+			else if (idType == com.google.appengine.api.datastore.Key.class)
+				return raw;
+			else if (idType == String.class)
+				return raw.getName();
+			else
+				return raw.getId();
+		}
+	}
+
+	/**
+	 * Decodes into a LinkedHashMap of property name to value, in projection order. If the query has a
+	 * registered entity class, values of top-level fields are converted to the field type; everything
+	 * else is left as the raw datastore value.
+	 */
+	static class IntoMap extends ProjectionDecoder<Map<String, Object>> {
+		IntoMap(ObjectifyFactory fact, Class<?> entityClass, Collection<String> projected) {
+			final Map<String, Property> fields = new LinkedHashMap<>();
+			if (entityClass != null)
+				for (Property prop: fieldsOf(fact, entityClass))
+					if (GenericTypeReflector.erase(prop.getType()) != Ref.class)
+						for (String name: prop.getLoadNames())
+							fields.put(name, prop);
+
+			for (String name: projected) {
+				final Property prop = fields.get(name);
+				props.add(new ProjectedProperty(name, prop, prop == null ? null : translatorFor(fact, prop, name)));
+			}
+		}
+
+		@Override
+		Map<String, Object> decode(Entity ent, LoadContext ctx) {
+			final Map<String, Object> map = new LinkedHashMap<>(props.size() * 2);
+
+			for (ProjectedProperty prop: props) {
+				try {
+					map.put(prop.name, prop.load(ent, ctx));
+				} catch (SkipException ex) {
+					// Not present
+				}
+			}
+
+			return map;
+		}
+	}
+
+	/** */
+	private static Translator<Object, Object> translatorFor(ObjectifyFactory fact, Property prop, String name) {
+		return fact.getTranslators().get(new TypeKey<>(prop), new CreateContext(fact), Path.root().extend(name));
+	}
+
+	/**
+	 * All the fields of a class and its superclasses that could hold a projected value, as properties.
+	 */
+	private static List<Property> fieldsOf(ObjectifyFactory fact, Class<?> clazz) {
+		final List<Property> props = new ArrayList<>();
+
+		for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass())
+			for (Field field: current.getDeclaredFields())
+				if (!field.isAnnotationPresent(Ignore.class) && (field.getModifiers() & NOT_POPULATED_MODIFIERS) == 0 && !field.isSynthetic())
+					props.add(new FieldProperty(fact, clazz, field));
+
+		return props;
+	}
+}
@@ -0,0 +1,59 @@
+package com.googlecode.objectify.impl;
+
+import com.google.appengine.api.datastore.QueryResultIterable;
+import com.google.appengine.api.datastore.QueryResultIterator;
+import com.google.common.collect.Streams;
+import com.googlecode.objectify.LoadResult;
+import com.googlecode.objectify.cmd.QueryExecute;
+import com.googlecode.objectify.util.IteratorFirstResult;
+import com.googlecode.objectify.util.MakeListResult;
+import com.googlecode.objectify.util.ResultProxy;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Executes a projection query whose results are decoded by a ProjectionDecoder instead of being loaded
+ * as entities. Like QueryKeysImpl, it only offers terminators.
+ */
+class ProjectionQueryImpl<P> implements QueryExecute<P>
+{
+	private final QueryImpl<?> impl;
+	private final ProjectionDecoder<P> decoder;
+
+	/** */
+	ProjectionQueryImpl(QueryImpl<?> query, ProjectionDecoder<P> decoder) {
+		this.impl = query;
+		this.decoder = decoder;
+	}
+
+	@Override
+	public LoadResult<P> first() {
+		return new LoadResult<>(null, new IteratorFirstResult<>(impl.limit(1).projectionIterable(decoder).iterator()));
+	}
+
+	@Override
+	public QueryResultIterable<P> iterable() {
+		return impl.projectionIterable(decoder);
+	}
+
+	@Override
+	public List<P> list() {
+		return ResultProxy.create(List.class, new MakeListResult<>(impl.chunk(Integer.MAX_VALUE).projectionIterable(decoder).iterator()));
+	}
+
+	@Override
+	public Stream<P> stream() {
+		return Streams.stream(iterator());
+	}
+
+	@Override
+	public QueryResultIterator<P> iterator() {
+		return iterable().iterator();
+	}
+
+	@Override
+	public String toString() {
+		return impl.toString();
+	}
+}
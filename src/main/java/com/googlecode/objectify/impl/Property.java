@@ -31,9 +31,10 @@ public interface Property
 	Object get(Object onPojo);
 	
 	/**
+	 * @param value is what get() just returned for onPojo; it is passed in so we only read it once
 	 * @return true if this field should be saved, false if not
 	 */
-	boolean isSaved(Object onPojo);
+	boolean isSaved(Object onPojo, Object value);
 	
 	/**
 	 * Gets the index instruction for this property, if there is one.  Properties do not necessarily have a
@@ -41,7 +42,8 @@ public interface Property
 	 * Also factors in any index instruction on the class as a default.  However, explicit index instruction
 	 * on the field overrides the class.
 	 * 
+	 * @param value is what get() just returned for onPojo
 	 * @return true if this field should be indexed, false if it should be unindexed, null is "no information, continue with defaults".
 	 */
-	Boolean getIndexInstruction(Object onPojo);
+	Boolean getIndexInstruction(Object onPojo, Object value);
 }
\ No newline at end of file
@@ -119,14 +119,16 @@ public class PropertyPopulator<P, D> implements Populator<P> {
 	 */
 	@Override
 	public void save(Object onPojo, boolean index, SaveContext ctx, Path containerPath, PropertyContainer into) {
-		if (property.isSaved(onPojo)) {
+		// Read once; the conditions all test this same value
+		@SuppressWarnings("unchecked")
+		P value = (P)property.get(onPojo);
+
+		if (property.isSaved(onPojo, value)) {
 			// Look for an override on indexing
-			Boolean propertyIndexInstruction = property.getIndexInstruction(onPojo);
+			Boolean propertyIndexInstruction = property.getIndexInstruction(onPojo, value);
 			if (propertyIndexInstruction != null)
 				index = propertyIndexInstruction;
 
-			@SuppressWarnings("unchecked")
-			P value = (P)property.get(onPojo);
 			try {
 				Path propPath = containerPath.extend(property.getName());
 				Object propValue = translator.save(value, index, ctx, propPath);
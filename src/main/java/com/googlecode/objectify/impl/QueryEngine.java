@@ -1,15 +1,30 @@
 package com.googlecode.objectify.impl;
 
+import com.google.appengine.api.ThreadManager;
 import com.google.appengine.api.datastore.AsyncDatastoreService;
+import com.google.appengine.api.datastore.DatastoreNeedIndexException;
+import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.PreparedQuery;
 import com.google.appengine.api.datastore.QueryResultIterable;
 import com.google.appengine.api.datastore.QueryResultIterator;
 import com.google.appengine.api.datastore.Transaction;
+import com.google.apphosting.api.ApiProxy;
 import com.googlecode.objectify.Key;
+import com.googlecode.objectify.Result;
+import com.googlecode.objectify.impl.translate.LoadContext;
 import com.googlecode.objectify.util.DatastoreUtils;
+import com.googlecode.objectify.util.ResultNow;
+import com.googlecode.objectify.util.TranslatingQueryResultIterator;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
 /**
  * Logic for dealing with queries.
  *
@@ -18,6 +33,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class QueryEngine
 {
+	/** How many scatter samples we take per requested split; same ratio the mapreduce library uses */
+	private static final int SCATTER_OVERSAMPLING = 32;
+
+	/** Most keys we will walk when there aren't enough scatter samples */
+	private static final int MAX_WALKED_KEYS = 10_000;
+
 	/** */
 	protected final LoaderImpl loader;
 	protected final AsyncDatastoreService ads;
@@ -43,10 +64,44 @@ public class QueryEngine
 		return () -> new KeysOnlyIterator<>(pq, fetchOpts);
 	}
 
+	/**
+	 * Perform a keys-only query, feeding the raw keys to the consumer in batches of the chunk size. A single
+	 * buffer is reused for every batch, so there are no per-key allocations beyond what the datastore makes.
+	 */
+	public void queryKeysOnlyBatches(com.google.appengine.api.datastore.Query query, final FetchOptions fetchOpts, final Consumer<List<com.google.appengine.api.datastore.Key>> consumer) {
+		assert query.isKeysOnly();
+		log.trace("Starting batched keys-only query");
+
+		final int batchSize = fetchOpts.getChunkSize();
+
+		// Don't try to preallocate maxint
+		final List<com.google.appengine.api.datastore.Key> buffer = (batchSize == Integer.MAX_VALUE) ? new ArrayList<>() : new ArrayList<>(batchSize);
+
+		for (Entity ent: prepare(query).asIterable(fetchOpts)) {
+			buffer.add(ent.getKey());
+
+			if (buffer.size() == batchSize) {
+				consumer.accept(buffer);
+				buffer.clear();
+			}
+		}
+
+		if (!buffer.isEmpty())
+			consumer.accept(buffer);
+	}
+
 	/**
 	 * Perform a keys-only plus batch gets.
 	 */
 	public <T> QueryResultIterable<T> queryHybrid(com.google.appengine.api.datastore.Query query, final FetchOptions fetchOpts) {
+		return queryHybrid(query, fetchOpts, false);
+	}
+
+	/**
+	 * Perform a keys-only plus batch gets.
+	 * @param releaseSession if true, results are dropped from the session after they have been iterated past
+	 */
+	public <T> QueryResultIterable<T> queryHybrid(com.google.appengine.api.datastore.Query query, final FetchOptions fetchOpts, final boolean releaseSession) {
 		assert !query.isKeysOnly();
 		log.trace("Starting hybrid query");
 
@@ -54,13 +109,21 @@ public class QueryEngine
 
 		final PreparedQuery pq = prepare(query);
 
-		return () -> new ChunkingIterator<>(loader.createLoadEngine(), pq, new KeysOnlyIterator<T>(pq, fetchOpts), fetchOpts.getChunkSize());
+		return () -> new ChunkingIterator<>(loader.createLoadEngine(), pq, new KeysOnlyIterator<T>(pq, fetchOpts), fetchOpts.getChunkSize(), releaseSession);
 	}
 
 	/**
 	 * A normal, non-hybrid query
 	 */
 	public <T> QueryResultIterable<T> queryNormal(com.google.appengine.api.datastore.Query query, final FetchOptions fetchOpts) {
+		return queryNormal(query, fetchOpts, false);
+	}
+
+	/**
+	 * A normal, non-hybrid query
+	 * @param releaseSession if true, results are dropped from the session after they have been iterated past
+	 */
+	public <T> QueryResultIterable<T> queryNormal(com.google.appengine.api.datastore.Query query, final FetchOptions fetchOpts, final boolean releaseSession) {
 		assert !query.isKeysOnly();
 		log.trace("Starting normal query");
 
@@ -70,7 +133,7 @@ public class QueryEngine
 		return new QueryResultIterable<T>() {
 			@Override
 			public QueryResultIterator<T> iterator() {
-				return new ChunkingIterator<>(loadEngine, pq, new StuffingIterator<T>(pq, fetchOpts, loadEngine), fetchOpts.getChunkSize());
+				return new ChunkingIterator<>(loadEngine, pq, new StuffingIterator<T>(pq, fetchOpts, loadEngine), fetchOpts.getChunkSize(), releaseSession);
 			}
 		};
 	}
@@ -89,6 +152,27 @@ public class QueryEngine
 		return () -> new ProjectionIterator<>(pq.asQueryResultIterator(fetchOpts), loadEngine);
 	}
 
+	/**
+	 * A projection query decoded directly into plain objects. Not only bypasses the session but never creates
+	 * a LoadEngine at all; each result is decoded as it is iterated.
+	 */
+	public <P> QueryResultIterable<P> queryProjectionInto(com.google.appengine.api.datastore.Query query, final FetchOptions fetchOpts, final ProjectionDecoder<P> decoder) {
+		assert !query.isKeysOnly();
+		assert !query.getProjections().isEmpty();
+		log.trace("Starting decoded projection query");
+
+		final PreparedQuery pq = prepare(query);
+
+		return () -> new TranslatingQueryResultIterator<Entity, P>(pq.asQueryResultIterator(fetchOpts)) {
+			private final LoadContext ctx = decoder.createContext();
+
+			@Override
+			protected P translate(Entity from) {
+				return decoder.decode(from, ctx);
+			}
+		};
+	}
+
 	/**
 	 * The fundamental query count operation.  This is sufficiently different from normal query().
 	 */
@@ -97,6 +181,105 @@ public class QueryEngine
 		return pq.countEntities(fetchOpts);
 	}
 
+	/**
+	 * A count which doesn't block. The low-level API has no async countEntities(), so the same count that
+	 * {@link #queryCount} does runs on a new thread of the current request, which can't outlive the request.
+	 * Where there are no request threads (the remote API, or threads not started by App Engine) the count
+	 * runs synchronously instead. <em>limit</em> and <em>offset</em> are obeyed, so a limit makes this a
+	 * bounded count.
+	 */
+	public Result<Integer> queryCountAsync(com.google.appengine.api.datastore.Query query, FetchOptions fetchOpts) {
+		final PreparedQuery pq = prepare(query);
+
+		final ThreadFactory threadFactory = requestThreadFactory();
+		if (threadFactory == null) {
+			log.trace("No request thread factory; counting synchronously");
+			return new ResultNow<>(pq.countEntities(fetchOpts));
+		}
+
+		log.trace("Starting async count");
+
+		final FutureTask<Integer> count = new FutureTask<>(() -> pq.countEntities(fetchOpts));
+		threadFactory.newThread(count).start();
+
+		return new ResultAdapter<>(count);
+	}
+
+	/**
+	 * @return the factory for threads of the current request, or null if this thread doesn't belong to one
+	 */
+	private static ThreadFactory requestThreadFactory() {
+		if (ApiProxy.getCurrentEnvironment() == null)
+			return null;
+
+		return ThreadManager.currentRequestThreadFactory();
+	}
+
+	/**
+	 * Finds up to {@code count - 1} keys which divide the keyspace of the query's kind into roughly even
+	 * ranges. First tries the datastore's __scatter__ property, which is present on a random sample of
+	 * entities; if that doesn't produce enough samples (small kinds, or the dev server) falls back to
+	 * walking the keys of the query itself. That walk stops after {@value #MAX_WALKED_KEYS} keys, in which case
+	 * everything past them ends up in the last shard.
+	 *
+	 * <p>Samples are taken from the query's own namespace and ancestor, whatever the current namespace is.
+	 * They are taken outside of any transaction; split points only have to be roughly right, and the datastore
+	 * would refuse the scatter query in a transaction anyway.</p>
+	 *
+	 * @return the split points in ascending key order; possibly fewer than requested, possibly empty.
+	 */
+	public List<com.google.appengine.api.datastore.Key> querySplitPoints(com.google.appengine.api.datastore.Query query, int count) {
+		if (count <= 1)
+			return Collections.emptyList();
+
+		log.trace("Computing {} split points", count - 1);
+
+		final com.google.appengine.api.datastore.Query scatter = DatastoreUtils.createQuery(query.getNamespace(), query.getKind(), query.getAncestor())
+				.addSort(Entity.SCATTER_RESERVED_PROPERTY)
+				.setKeysOnly();
+
+		List<com.google.appengine.api.datastore.Key> samples;
+		try {
+			samples = sampleKeys(scatter, FetchOptions.Builder.withLimit(count * SCATTER_OVERSAMPLING));
+		} catch (DatastoreNeedIndexException ex) {
+			// Ancestor queries sorted by __scatter__ need a composite index, which is unlikely to exist
+			log.trace("No index for an ancestor scatter query", ex);
+			samples = Collections.emptyList();
+		}
+
+		if (samples.size() < count - 1) {
+			log.trace("Only {} scatter samples; falling back to a keys-only walk", samples.size());
+			samples = sampleKeys(DatastoreUtils.cloneQuery(query).setKeysOnly(), FetchOptions.Builder.withLimit(MAX_WALKED_KEYS).chunkSize(1000));
+
+			if (samples.size() == MAX_WALKED_KEYS)
+				log.warn("Split of a {} query walked the first {} keys without finding enough __scatter__ samples; the last shard will hold everything else", query.getKind(), MAX_WALKED_KEYS);
+		}
+
+		Collections.sort(samples);
+
+		final List<com.google.appengine.api.datastore.Key> splits = new ArrayList<>(count - 1);
+		for (int i = 1; i < count; i++) {
+			final int index = (int)((long)i * samples.size() / count);
+			if (index >= samples.size())
+				break;
+
+			final com.google.appengine.api.datastore.Key split = samples.get(index);
+			if (splits.isEmpty() || splits.get(splits.size() - 1).compareTo(split) < 0)
+				splits.add(split);
+		}
+
+		return splits;
+	}
+
+	/** Never in the transaction; see querySplitPoints() */
+	private List<com.google.appengine.api.datastore.Key> sampleKeys(com.google.appengine.api.datastore.Query query, FetchOptions fetchOpts) {
+		final List<com.google.appengine.api.datastore.Key> keys = new ArrayList<>();
+		for (Entity ent: ads.prepare(null, query).asIterable(fetchOpts))
+			keys.add(ent.getKey());
+
+		return keys;
+	}
+
 	/** */
 	private PreparedQuery prepare(com.google.appengine.api.datastore.Query query) {
 		return ads.prepare(transactionRaw, query);
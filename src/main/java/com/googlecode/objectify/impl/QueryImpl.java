@@ -1,28 +1,45 @@
 package com.googlecode.objectify.impl;
 
 import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Projection;
 import com.google.appengine.api.datastore.PropertyProjection;
+import com.google.appengine.api.datastore.Query.CompositeFilter;
 import com.google.appengine.api.datastore.Query.CompositeFilterOperator;
 import com.google.appengine.api.datastore.Query.Filter;
 import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
 import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.appengine.api.datastore.Query.SortPredicate;
 import com.google.appengine.api.datastore.QueryResultIterable;
 import com.google.appengine.api.datastore.QueryResultIterator;
+import com.google.common.collect.Streams;
 import com.googlecode.objectify.Key;
 import com.googlecode.objectify.LoadResult;
 import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.Result;
 import com.googlecode.objectify.annotation.Subclass;
 import com.googlecode.objectify.cmd.Query;
+import com.googlecode.objectify.cmd.QueryExecute;
 import com.googlecode.objectify.impl.translate.ClassTranslator;
 import com.googlecode.objectify.util.DatastoreUtils;
 import com.googlecode.objectify.util.IteratorFirstResult;
 import com.googlecode.objectify.util.MakeListResult;
+import com.googlecode.objectify.util.ResultCache;
+import com.googlecode.objectify.util.ResultNow;
 import com.googlecode.objectify.util.ResultProxy;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Implementation of Query.
@@ -339,7 +356,165 @@ public class QueryImpl<T> extends SimpleQueryImpl<T> implements Query<T>, Clonea
 	 */
 	@Override
 	public int count() {
-		return loader.createQueryEngine().queryCount(this.getActualQuery(), this.fetchOptions());
+		return countResult(() -> new ResultNow<>(loader.createQueryEngine().queryCount(this.getActualQuery(), this.fetchOptions()))).now();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.SimpleQuery#countAsync()
+	 */
+	@Override
+	public Result<Integer> countAsync() {
+		return countResult(() -> loader.createQueryEngine().queryCountAsync(this.getActualQuery(), this.fetchOptions()));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.SimpleQuery#countAsync(int)
+	 */
+	@Override
+	public Result<Integer> countAsync(int atMost) {
+		if (atMost <= 0)
+			throw new IllegalArgumentException("Bound must be positive: " + atMost);
+
+		if (this.limit > 0 && this.limit <= atMost)
+			return this.countAsync();
+		else
+			return this.limit(atMost).countAsync();
+	}
+
+	/**
+	 * Consults the factory's count cache, if there is one, before running the counter.
+	 */
+	private Result<Integer> countResult(final Supplier<Result<Integer>> counter) {
+		final CountCache countCache = fact().getCountCache();
+		final String kind = this.actual.getKind();
+		final String namespace = this.actual.getNamespace();
+
+		if (countCache == null || kind == null || loader.getObjectifyImpl().getTransaction() != null)
+			return counter.get();
+
+		final String cacheKey = this.toString();
+
+		final Integer cached = countCache.get(namespace, kind, cacheKey);
+		if (cached != null)
+			return new ResultNow<>(cached);
+
+		// Must be captured before counting so that a concurrent write makes the result stale
+		final long generation = countCache.generation(namespace, kind);
+		final Result<Integer> counted = counter.get();
+
+		return new ResultCache<Integer>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Integer nowUncached() {
+				final Integer count = counted.now();
+				countCache.put(namespace, cacheKey, generation, count);
+				return count;
+			}
+		};
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.Query#split(int)
+	 */
+	@Override
+	public List<Query<T>> split(int count) {
+		if (count < 1)
+			throw new IllegalArgumentException("You must ask for at least one shard");
+
+		if (this.limit != 0 || this.offset != 0 || this.startAt != null || this.endAt != null)
+			throw new IllegalStateException("You cannot split a query with a limit, offset, or cursor");
+
+		for (SortPredicate sort: actual.getSortPredicates())
+			if (!sort.getPropertyName().equals(Entity.KEY_RESERVED_PROPERTY) || sort.getDirection() != SortDirection.ASCENDING)
+				throw new IllegalStateException("You cannot split a query which is sorted by anything other than ascending __key__");
+
+		// Shards add __key__ inequalities, and the datastore only allows inequalities on a single property
+		final String inequality = inequalityProperty(actual.getFilter());
+		if (inequality != null)
+			throw new IllegalStateException("You cannot split a query with an inequality filter on '" + inequality + "'; only __key__ inequalities can be combined with the shard ranges");
+
+		final List<com.google.appengine.api.datastore.Key> splits = loader.createQueryEngine().querySplitPoints(this.getActualQuery(), count);
+
+		final List<Query<T>> shards = new ArrayList<>(splits.size() + 1);
+		com.google.appengine.api.datastore.Key lower = null;
+
+		for (int i = 0; i <= splits.size(); i++) {
+			final com.google.appengine.api.datastore.Key upper = (i < splits.size()) ? splits.get(i) : null;
+
+			final QueryImpl<T> shard = createQuery();
+			if (lower != null)
+				shard.addFilter(FilterOperator.GREATER_THAN_OR_EQUAL.of(Entity.KEY_RESERVED_PROPERTY, lower));
+			if (upper != null)
+				shard.addFilter(FilterOperator.LESS_THAN.of(Entity.KEY_RESERVED_PROPERTY, upper));
+			if (actual.getSortPredicates().isEmpty())
+				shard.addOrder(Entity.KEY_RESERVED_PROPERTY);
+
+			shards.add(shard);
+			lower = upper;
+		}
+
+		return shards;
+	}
+
+	/**
+	 * @return the name of a property other than __key__ which has an inequality filter, or null if there is none
+	 */
+	private static String inequalityProperty(Filter filter) {
+		if (filter instanceof CompositeFilter) {
+			for (Filter sub: ((CompositeFilter)filter).getSubFilters()) {
+				final String property = inequalityProperty(sub);
+				if (property != null)
+					return property;
+			}
+		} else if (filter instanceof FilterPredicate) {
+			final FilterPredicate predicate = (FilterPredicate)filter;
+			if (!predicate.getPropertyName().equals(Entity.KEY_RESERVED_PROPERTY)
+					&& predicate.getOperator() != FilterOperator.EQUAL && predicate.getOperator() != FilterOperator.IN)
+				return predicate.getPropertyName();
+		}
+
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.Query#projectInto(java.lang.Class)
+	 */
+	@Override
+	public <P> QueryExecute<P> projectInto(Class<P> type) {
+		if (actual.getProjections().isEmpty())
+			throw new IllegalStateException("You must project() some properties before calling projectInto()");
+
+		QueryImpl<T> q = createQuery();
+		return new ProjectionQueryImpl<>(q, new ProjectionDecoder.IntoClass<>(fact(), type, q.projectedNames()));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.Query#projectIntoMap()
+	 */
+	@Override
+	public QueryExecute<Map<String, Object>> projectIntoMap() {
+		if (actual.getProjections().isEmpty())
+			throw new IllegalStateException("You must project() some properties before calling projectIntoMap()");
+
+		QueryImpl<T> q = createQuery();
+		return new ProjectionQueryImpl<>(q, new ProjectionDecoder.IntoMap(fact(), classRestriction, q.projectedNames()));
+	}
+
+	/** @return the names of the projected properties, in order */
+	private Set<String> projectedNames() {
+		Set<String> names = new LinkedHashSet<>();
+		for (Projection projection: actual.getProjections())
+			names.add(projection.getName());
+
+		return names;
+	}
+
+	/**
+	 * Get an iterator over decoded projections. Not part of the public api, but used by ProjectionQueryImpl.
+	 */
+	<P> QueryResultIterable<P> projectionIterable(ProjectionDecoder<P> decoder) {
+		return loader.createQueryEngine().queryProjectionInto(this.getActualQuery(), this.fetchOptions(), decoder);
 	}
 
 	/* (non-Javadoc)
@@ -366,6 +541,14 @@ public class QueryImpl<T> extends SimpleQueryImpl<T> implements Query<T>, Clonea
 		return ResultProxy.create(List.class, new MakeListResult<>(this.chunk(Integer.MAX_VALUE).iterator()));
 	}
 
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.QueryExecute#stream()
+	 */
+	@Override
+	public Stream<T> stream() {
+		return Streams.stream(resultIterable(true).iterator());
+	}
+
 	/**
 	 * Get an iterator over the keys.  Not part of the public api, but used by QueryKeysImpl.  Assumes
 	 * that setKeysOnly() has already been set.
@@ -375,14 +558,31 @@ public class QueryImpl<T> extends SimpleQueryImpl<T> implements Query<T>, Clonea
 		return loader.createQueryEngine().queryKeysOnly(this.getActualQuery(), this.fetchOptions());
 	}
 
+	/**
+	 * Feed raw keys to the consumer in chunk-sized batches. Not part of the public api, but used by QueryKeysImpl.
+	 * Assumes that setKeysOnly() has already been set.
+	 */
+	void keysBatches(Consumer<List<com.google.appengine.api.datastore.Key>> consumer) {
+		assert actual.isKeysOnly();
+		loader.createQueryEngine().queryKeysOnlyBatches(this.getActualQuery(), this.fetchOptions(), consumer);
+	}
+
 	/** Produces the basic iterable on results based on the current query.  Used to generate other iterables via transformation. */
 	private QueryResultIterable<T> resultIterable() {
+		return resultIterable(false);
+	}
+
+	/**
+	 * @param releaseSession if true, entities are dropped from the session after iteration moves past them.
+	 *  Projections never enter the session in the first place.
+	 */
+	private QueryResultIterable<T> resultIterable(final boolean releaseSession) {
 		if (!actual.getProjections().isEmpty())
 			return loader.createQueryEngine().queryProjection(this.getActualQuery(), this.fetchOptions());
 		else if (shouldHybridize())
-			return loader.createQueryEngine().queryHybrid(this.getActualQuery(), this.fetchOptions());
+			return loader.createQueryEngine().queryHybrid(this.getActualQuery(), this.fetchOptions(), releaseSession);
 		else
-			return loader.createQueryEngine().queryNormal(this.getActualQuery(), this.fetchOptions());
+			return loader.createQueryEngine().queryNormal(this.getActualQuery(), this.fetchOptions(), releaseSession);
 	}
 
 	/**
@@ -2,6 +2,7 @@ package com.googlecode.objectify.impl;
 
 import com.google.appengine.api.datastore.QueryResultIterable;
 import com.google.appengine.api.datastore.QueryResultIterator;
+import com.google.common.collect.Streams;
 import com.googlecode.objectify.Key;
 import com.googlecode.objectify.LoadResult;
 import com.googlecode.objectify.Result;
@@ -11,7 +12,10 @@ import com.googlecode.objectify.util.MakeListResult;
 import com.googlecode.objectify.util.ResultProxy;
 
 import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation of QueryKeys.
@@ -47,6 +51,29 @@ class QueryKeysImpl<T> implements QueryKeys<T>
 		return ResultProxy.create(List.class, new MakeListResult<>(impl.chunk(Integer.MAX_VALUE).keysIterable().iterator()));
 	}
 
+	@Override
+	public Stream<Key<T>> stream() {
+		return Streams.stream(iterable().iterator());
+	}
+
+	@Override
+	public void forEachRawBatch(Consumer<List<com.google.appengine.api.datastore.Key>> consumer) {
+		impl.keysBatches(consumer);
+	}
+
+	@Override
+	public void forEachBatch(Consumer<List<Key<T>>> consumer) {
+		final List<Key<T>> buffer = new ArrayList<>();
+
+		impl.keysBatches(raws -> {
+			buffer.clear();
+			for (com.google.appengine.api.datastore.Key raw: raws)
+				buffer.add(Key.create(raw));
+
+			consumer.accept(buffer);
+		});
+	}
+
 	@Override
 	public QueryResultIterator<Key<T>> iterator() {
 		return iterable().iterator();
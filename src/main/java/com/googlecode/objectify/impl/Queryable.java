@@ -3,8 +3,10 @@ package com.googlecode.objectify.impl;
 import com.google.appengine.api.datastore.QueryResultIterable;
 import com.google.appengine.api.datastore.QueryResultIterator;
 import com.googlecode.objectify.LoadResult;
+import com.googlecode.objectify.Result;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 
 /**
@@ -45,10 +47,28 @@ abstract class Queryable<T> extends SimpleQueryImpl<T>
 		return q.count();
 	}
 
+	@Override
+	public Result<Integer> countAsync() {
+		final QueryImpl<T> q = createQuery();
+		return q.countAsync();
+	}
+
+	@Override
+	public Result<Integer> countAsync(int atMost) {
+		final QueryImpl<T> q = createQuery();
+		return q.countAsync(atMost);
+	}
+
 	@Override
 	public List<T> list() {
 		final QueryImpl<T> q = createQuery();
 		return q.list();
 	}
 
+	@Override
+	public Stream<T> stream() {
+		final QueryImpl<T> q = createQuery();
+		return q.stream();
+	}
+
 }
@@ -5,8 +5,8 @@ import com.googlecode.objectify.ObjectifyFactory;
 import com.googlecode.objectify.annotation.Entity;
 import com.googlecode.objectify.annotation.Subclass;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>Maintains information about registered entity classes<p>
@@ -22,10 +22,10 @@ public class Registrar
 	protected ObjectifyFactory fact;
 
 	/** This maps kind to EntityMetadata */
-	protected Map<String, EntityMetadata<?>> byKind = new HashMap<>();
+	protected Map<String, EntityMetadata<?>> byKind = new ConcurrentHashMap<>();
 
 	/** True if any @Cached entities have been registered */
-	protected boolean cacheEnabled;
+	protected volatile boolean cacheEnabled;
 
 	/** @return true if any entities are cacheable */
 	public boolean isCacheEnabled()
@@ -62,8 +62,9 @@ public class Registrar
 			if (this.byKind.containsKey(kind))
 				return;
 
+			// Translators are unique per class, so if another thread beat us to it, this is the same thing anyway
 			EntityMetadata<T> cmeta = new EntityMetadata<>(this.fact, clazz);
-			this.byKind.put(kind, cmeta);
+			this.byKind.putIfAbsent(kind, cmeta);
 
 			if (cmeta.getCacheExpirySeconds() != null)
 				this.cacheEnabled = true;
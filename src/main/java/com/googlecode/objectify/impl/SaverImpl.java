@@ -19,6 +19,9 @@ import java.util.Map;
  */
 public class SaverImpl implements Saver
 {
+	/** How many batches a pipelined save keeps in flight unless told otherwise */
+	private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
 	/** */
 	private final ObjectifyImpl ofy;
 
@@ -60,6 +63,22 @@ public class SaverImpl implements Saver
 		return ofy.createWriteEngine().save(entities);
 	}
 
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.Saver#entitiesPipelined(java.lang.Iterable)
+	 */
+	@Override
+	public <E> Result<Integer> entitiesPipelined(final Iterable<E> entities) {
+		return this.entitiesPipelined(entities, DEFAULT_MAX_IN_FLIGHT);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.cmd.Saver#entitiesPipelined(java.lang.Iterable, int)
+	 */
+	@Override
+	public <E> Result<Integer> entitiesPipelined(final Iterable<E> entities, final int maxInFlight) {
+		return ofy.createWriteEngine().savePipelined(entities, maxInFlight);
+	}
+
 	/* (non-Javadoc)
 	 * @see com.googlecode.objectify.cmd.Saver#toEntity(java.lang.Object)
 	 */
@@ -1,10 +1,13 @@
 package com.googlecode.objectify.impl;
 
+import com.google.appengine.api.datastore.Entity;
+import com.google.common.collect.Sets;
 import com.googlecode.objectify.Key;
 import com.googlecode.objectify.util.ResultNow;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -19,6 +22,12 @@ public class Session
 	/** */
 	private final Map<Key<?>, SessionValue<?>> map = new HashMap<>();
 
+	/** The raw entity as last loaded or saved; only kept when dirty checking */
+	private final Map<Key<?>, Entity> snapshots = new HashMap<>();
+
+	/** Sets collecting the keys which are newly added to the session; see startRecording(). By identity. */
+	private final Set<Set<Key<?>>> recordings = Sets.newIdentityHashSet();
+
 	/**
 	 * Add/overwrite a SV.
 	 */
@@ -26,7 +35,8 @@ public class Session
 		if (log.isTraceEnabled())
 			log.trace("Adding to session: {} -> {}", key, value.getResult());
 
-		map.put(key, value);
+		if (map.put(key, value) == null && !recordings.isEmpty())
+			record(key);
 	}
 
 	/**
@@ -41,7 +51,35 @@ public class Session
 		if (log.isTraceEnabled())
 			log.trace("Adding all values to session: {}", other.map.keySet());
 
+		if (!recordings.isEmpty())
+			for (final Key<?> key: other.map.keySet())
+				if (!map.containsKey(key))
+					record(key);
+
 		map.putAll(other.map);
+		snapshots.putAll(other.snapshots);
+	}
+
+	/**
+	 * Start collecting the keys which are added to the session, and weren't in it already, into the returned
+	 * set. This costs nothing for keys which aren't added, however large the session is.
+	 * @return a set which grows until it is passed to stopRecording()
+	 */
+	public Set<Key<?>> startRecording() {
+		final Set<Key<?>> recording = new HashSet<>();
+		recordings.add(recording);
+		return recording;
+	}
+
+	/** */
+	public void stopRecording(final Set<Key<?>> recording) {
+		recordings.remove(recording);
+	}
+
+	/** */
+	private void record(final Key<?> key) {
+		for (final Set<Key<?>> recording: recordings)
+			recording.add(key);
 	}
 
 	/** */
@@ -50,6 +88,17 @@ public class Session
 		return (SessionValue<T>)map.get(key);
 	}
 
+	/**
+	 * Drop a single entry from the session, if present.
+	 */
+	public void remove(final Key<?> key) {
+		if (log.isTraceEnabled())
+			log.trace("Removing from session: {}", key);
+
+		map.remove(key);
+		snapshots.remove(key);
+	}
+
 	/** */
 	public boolean contains(final Key<?> key) {
 		return map.containsKey(key);
@@ -59,6 +108,28 @@ public class Session
 	public void clear() {
 		log.trace("Clearing session");
 		map.clear();
+		snapshots.clear();
+	}
+
+	/**
+	 * Remember what the datastore holds for the key, so that a save which wouldn't change it can be skipped.
+	 * @param entity null forgets the snapshot
+	 */
+	public void snapshot(final Key<?> key, final Entity entity) {
+		if (entity == null)
+			snapshots.remove(key);
+		else
+			snapshots.put(key, entity);
+	}
+
+	/** @return true if there are any snapshots at all, ie if dirty checking has ever been used with this session */
+	public boolean hasSnapshots() {
+		return !snapshots.isEmpty();
+	}
+
+	/** @return the snapshot of what the datastore holds for the key, or null if we don't know */
+	public Entity getSnapshot(final Key<?> key) {
+		return snapshots.get(key);
 	}
 
 	/** Convenient for debugging */
@@ -2,6 +2,7 @@ package com.googlecode.objectify.impl;
 
 import com.google.appengine.api.datastore.Transaction;
 import com.googlecode.objectify.Result;
+import com.googlecode.objectify.cache.TriggerFuture;
 import com.googlecode.objectify.util.FutureHelper;
 import com.googlecode.objectify.util.SimpleFutureWrapper;
 import com.googlecode.objectify.util.cmd.TransactionWrapper;
@@ -58,6 +59,21 @@ public class TransactionImpl extends TransactionWrapper {
 		listeners.add(listener);
 	}
 
+	/**
+	 * Complete any enlisted operations so that the session becomes consistent. Note that some of the
+	 * enlisted load operations might result in further enlistment... so we have to do this in a loop
+	 * that protects against concurrent modification exceptions
+	 */
+	private void completeEnlisted() {
+		while (!enlisted.isEmpty()) {
+			List<Result<?>> last = enlisted;
+			enlisted = new ArrayList<>();
+
+			for (Result<?> result: last)
+				result.now();
+		}
+	}
+
 	public void runCommitListeners() {
 		for (Runnable listener : listeners) {
 			listener.run();
@@ -72,21 +88,28 @@ public class TransactionImpl extends TransactionWrapper {
 		FutureHelper.quietGet(commitAsync());
 	}
 
+	/**
+	 * Ends a read-only transaction. Completes any enlisted loads and hands the session to the parent, just
+	 * like a commit, but then only rolls back the transaction - without waiting for it.
+	 */
+	public void release() {
+		completeEnlisted();
+		transactor.committed();
+
+		// Registers itself as pending, so the rollback completes by the end of the request at the latest
+		new TriggerFuture<Void>(super.rollbackAsync()) {
+			@Override
+			protected void trigger() {
+			}
+		};
+	}
+
 	/* (non-Javadoc)
 	 * @see com.googlecode.objectify.util.cmd.TransactionWrapper#commitAsync()
 	 */
 	@Override
 	public Future<Void> commitAsync() {
-		// Complete any enlisted operations so that the session becomes consistent. Note that some of the
-		// enlisted load operations might result in further enlistment... so we have to do this in a loop
-		// that protects against concurrent modification exceptions
-		while (!enlisted.isEmpty()) {
-			List<Result<?>> last = enlisted;
-			enlisted = new ArrayList<>();
-
-			for (Result<?> result: last)
-				result.now();
-		}
+		completeEnlisted();
 
 		return new SimpleFutureWrapper<Void, Void>(super.commitAsync()) {
 			@Override
@@ -2,6 +2,8 @@ package com.googlecode.objectify.impl;
 
 import com.googlecode.objectify.Objectify;
 import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.Result;
+import com.googlecode.objectify.RetryPolicy;
 import com.googlecode.objectify.TxnType;
 import com.googlecode.objectify.Work;
 import lombok.Getter;
@@ -46,6 +48,13 @@ abstract class Transactor
 	 */
 	abstract public TransactionImpl getTransaction();
 
+	/**
+	 * @return true if this is a read-only transaction, in which saves and deletes are not allowed
+	 */
+	public boolean isReadOnly() {
+		return false;
+	}
+
 	/**
 	 * @param parent is the parent objectify instance; the one being transitioned from
 	 * @return an Objectify instance that is suitable for transactionless execution. In the case of a
@@ -69,8 +78,23 @@ abstract class Transactor
 	 */
 	abstract public <R> R transact(ObjectifyImpl parent, Work<R> work);
 
+	/**
+	 * @see Objectify#transactAsync(Work)
+	 */
+	abstract public <R> Result<R> transactAsync(ObjectifyImpl parent, Work<R> work);
+
 	/**
 	 * @see Objectify#transactNew(int, Work)
 	 */
 	abstract public <R> R transactNew(ObjectifyImpl parent, int limitTries, Work<R> work);
+
+	/**
+	 * @see Objectify#transactNew(RetryPolicy, Work)
+	 */
+	abstract public <R> R transactNew(ObjectifyImpl parent, RetryPolicy policy, Work<R> work);
+
+	/**
+	 * @see Objectify#transactReadOnly(Work)
+	 */
+	abstract public <R> R transactReadOnly(ObjectifyImpl parent, Work<R> work);
 }
\ No newline at end of file
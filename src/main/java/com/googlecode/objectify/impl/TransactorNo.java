@@ -2,8 +2,13 @@ package com.googlecode.objectify.impl;
 
 import com.google.common.base.Preconditions;
 import com.googlecode.objectify.Objectify;
+import com.googlecode.objectify.Result;
+import com.googlecode.objectify.RetryPolicy;
 import com.googlecode.objectify.TxnType;
 import com.googlecode.objectify.Work;
+import com.googlecode.objectify.cache.TriggerFuture;
+import com.googlecode.objectify.util.FutureHelper;
+import com.googlecode.objectify.util.ResultCache;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ConcurrentModificationException;
@@ -86,20 +91,221 @@ class TransactorNo extends Transactor
 	 * @see com.googlecode.objectify.impl.Transactor#transactNew(com.googlecode.objectify.impl.ObjectifyImpl, int, com.googlecode.objectify.Work)
 	 */
 	@Override
-	public <R> R transactNew(final ObjectifyImpl parent, int limitTries, final Work<R> work) {
+	public <R> R transactNew(final ObjectifyImpl parent, final int limitTries, final Work<R> work) {
 		Preconditions.checkArgument(limitTries >= 1);
 
+		return transactNew(parent, limitTries, factory.getRetryPolicy(), work);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googlecode.objectify.impl.Transactor#transactNew(com.googlecode.objectify.impl.ObjectifyImpl, com.googlecode.objectify.RetryPolicy, com.googlecode.objectify.Work)
+	 */
+	@Override
+	public <R> R transactNew(final ObjectifyImpl parent, final RetryPolicy policy, final Work<R> work) {
+		Preconditions.checkNotNull(policy);
+
+		return transactNew(parent, Integer.MAX_VALUE, policy, work);
+	}
+
+	/**
+	 * Retries until we run out of tries or the policy gives up, whichever comes first.
+	 */
+	private <R> R transactNew(final ObjectifyImpl parent, final int limitTries, final RetryPolicy policy, final Work<R> work) {
+		return transactNew(parent, limitTries, policy, work, System.currentTimeMillis(), 0);
+	}
+
+	/**
+	 * @param start is when the first attempt started
+	 * @param failures is how many attempts have already failed
+	 */
+	private <R> R transactNew(final ObjectifyImpl parent, final int limitTries, final RetryPolicy policy, final Work<R> work, final long start, int failures) {
 		while (true) {
 			try {
 				return transactOnce(parent, work);
 			} catch (ConcurrentModificationException ex) {
-				if (--limitTries > 0) {
-					log.warn("Optimistic concurrency failure for {} (retrying): {}", work, ex);
-					log.trace("Details of optimistic concurrency failure", ex);
-				} else {
+				failures++;
+
+				if (!backOff(limitTries, policy, work, start, failures, ex))
 					throw ex;
+			}
+		}
+	}
+
+	/**
+	 * Asks the policy whether to try again after a failure, and if so waits as long as it says.
+	 * @return false if we should give up
+	 */
+	private boolean backOff(final int limitTries, final RetryPolicy policy, final Work<?> work, final long start, final int failures, final ConcurrentModificationException ex) {
+		final long delay = (failures < limitTries) ? policy.backoff(failures, System.currentTimeMillis() - start) : -1;
+		if (delay < 0) {
+			factory.getContentionStats().gaveUp();
+			return false;
+		}
+
+		log.warn("Optimistic concurrency failure for {} (retrying in {}ms): {}", work, delay, ex);
+		log.trace("Details of optimistic concurrency failure", ex);
+		factory.getContentionStats().retried();
+
+		if (delay > 0) {
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException interrupted) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Runs the work and issues the commit, but doesn't wait for it. The commit is completed by a trigger, so
+	 * that commit listeners, rollback, and any retry happen even if nobody asks for the result; at the latest
+	 * when the request's pending futures are completed.
+	 */
+	@Override
+	public <R> Result<R> transactAsync(final ObjectifyImpl parent, final Work<R> work) {
+		final long start = System.currentTimeMillis();
+		final ObjectifyImpl txnOfy = factory.open(parent.getOptions(), next -> new TransactorYes(next, this));
+		final TransactionImpl txn = txnOfy.getTransaction();
+
+		final AsyncCommit<R> commit;
+		try {
+			final R result = work.run();
+			txnOfy.flush();
+
+			commit = new AsyncCommit<>(parent, txnOfy, work, start, result);
+		} catch (RuntimeException | Error ex) {
+			rollbackIfActive(txn);
+			throw ex;
+		} finally {
+			// Not close(), which would wait for all pending futures including our commit
+			factory.close(txnOfy);
+		}
+
+		return new ResultCache<R>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected R nowUncached() {
+				return commit.outcome();
+			}
+		};
+	}
+
+	/**
+	 * The commit of a transactAsync(). When it completes, runs the commit listeners; if it fails, rolls back,
+	 * and retries a ConcurrentModificationException synchronously, as far as the factory's RetryPolicy allows.
+	 * Like any trigger, this may run while the request's pending futures are completed at the end of the
+	 * request, in which case a failure can only be logged.
+	 */
+	private class AsyncCommit<R> extends TriggerFuture<Void> {
+		private final ObjectifyImpl parent;
+		private final ObjectifyImpl txnOfy;
+		private final Work<R> work;
+
+		/** When the first attempt started */
+		private final long start;
+
+		/** What the work produced, possibly on a retry; or how it failed */
+		private R result;
+		private RuntimeException failure;
+
+		AsyncCommit(ObjectifyImpl parent, ObjectifyImpl txnOfy, Work<R> work, long start, R result) {
+			super(txnOfy.getTransaction().commitAsync());
+			this.parent = parent;
+			this.txnOfy = txnOfy;
+			this.work = work;
+			this.start = start;
+			this.result = result;
+		}
+
+		@Override
+		protected void trigger() {
+			final TransactionImpl txn = txnOfy.getTransaction();
+
+			try {
+				FutureHelper.quietGet(raw);
+				txn.runCommitListeners();
+				return;
+			} catch (RuntimeException ex) {
+				failure = ex;
+			}
+
+			rollbackIfActive(txn);
+
+			if (failure instanceof ConcurrentModificationException) {
+				final ConcurrentModificationException conflict = (ConcurrentModificationException)failure;
+				final RetryPolicy policy = factory.getRetryPolicy();
+
+				factory.getContentionStats().conflict(txnOfy.getSession().keys());
+
+				if (backOff(Integer.MAX_VALUE, policy, work, start, 1, conflict)) {
+					try {
+						result = transactNew(parent, Integer.MAX_VALUE, policy, work, start, 1);
+						failure = null;
+					} catch (RuntimeException ex) {
+						failure = ex;
+					}
+				}
+			}
+
+			// Nobody might ever ask for the result
+			if (failure != null)
+				log.warn("Asynchronous transaction {} failed", work, failure);
+		}
+
+		/** Waits for the commit (and any retry) and produces the result of the work */
+		R outcome() {
+			try {
+				get();
+			} catch (Exception ex) {
+				// Recorded by the trigger
+			}
+
+			if (failure != null)
+				throw failure;
+
+			return result;
+		}
+	}
+
+	/** */
+	private static void rollbackIfActive(final TransactionImpl txn) {
+		if (txn.isActive()) {
+			try {
+				txn.rollback();
+			} catch (RuntimeException ex) {
+				log.error("Rollback failed, suppressing error", ex);
+			}
+		}
+	}
+
+	/**
+	 * There is no commit, so there is nothing to retry and nothing to wait for.
+	 */
+	@Override
+	public <R> R transactReadOnly(final ObjectifyImpl parent, final Work<R> work) {
+		final ObjectifyImpl txnOfy = factory.open(parent.getOptions(), next -> new TransactorYes(next, this, true));
+
+		boolean released = false;
+		try {
+			final R result = work.run();
+			txnOfy.getTransaction().release();
+			released = true;
+			return result;
+		}
+		finally {
+			if (!released && txnOfy.getTransaction().isActive()) {
+				try {
+					txnOfy.getTransaction().rollback();
+				} catch (RuntimeException ex) {
+					log.error("Rollback failed, suppressing error", ex);
 				}
 			}
+
+			// Not close(); there are no deferred writes to flush, and the release need not be waited for
+			factory.close(txnOfy);
 		}
 	}
 
@@ -117,6 +323,10 @@ class TransactorNo extends Transactor
 			committedSuccessfully = true;
 			return result;
 		}
+		catch (ConcurrentModificationException ex) {
+			factory.getContentionStats().conflict(txnOfy.getSession().keys());
+			throw ex;
+		}
 		finally {
 			if (txnOfy.getTransaction().isActive()) {
 				try {
@@ -3,8 +3,10 @@ package com.googlecode.objectify.impl;
 import com.google.appengine.api.datastore.Transaction;
 import com.google.appengine.api.datastore.TransactionOptions;
 import com.googlecode.objectify.Result;
+import com.googlecode.objectify.RetryPolicy;
 import com.googlecode.objectify.TxnType;
 import com.googlecode.objectify.Work;
+import com.googlecode.objectify.util.ResultNow;
 import com.googlecode.objectify.util.ResultWrapper;
 
 import java.util.concurrent.Future;
@@ -23,12 +25,22 @@ class TransactorYes extends Transactor
 	/** The non-transactional transactor that spawned us */
 	private final TransactorNo parentTransactor;
 
+	/** Saves and deletes are not allowed */
+	private final boolean readOnly;
+
 	/**
 	 */
 	TransactorYes(final ObjectifyImpl current, final TransactorNo parentTransactor) {
+		this(current, parentTransactor, false);
+	}
+
+	/**
+	 */
+	TransactorYes(final ObjectifyImpl current, final TransactorNo parentTransactor, final boolean readOnly) {
 		super(current);
 
 		this.parentTransactor = parentTransactor;
+		this.readOnly = readOnly;
 
 		// There is no overhead for XG transactions on a single entity group, so there is
 		// no good reason to ever have withXG false when on the HRD.
@@ -51,6 +63,11 @@ class TransactorYes extends Transactor
 		return this.transaction.now();
 	}
 
+	@Override
+	public boolean isReadOnly() {
+		return this.readOnly;
+	}
+
 	/**
 	 * This version goes back to life without a transaction, but preserves current options.
 	 * We use the session from the parent, ie life before transactions.
@@ -103,6 +120,14 @@ class TransactorYes extends Transactor
 		return work.run();
 	}
 
+	/**
+	 * Joins the current transaction, so there is nothing to wait for.
+	 */
+	@Override
+	public <R> Result<R> transactAsync(final ObjectifyImpl parent, final Work<R> work) {
+		return new ResultNow<>(work.run());
+	}
+
 	/**
 	 * We need to make sure the parentSession is the transactionless session, not the session
 	 * for our transaction.  This gives proper transaction isolation.
@@ -112,6 +137,20 @@ class TransactorYes extends Transactor
 		return transactionless(parent).transactNew(limitTries, work);
 	}
 
+	/** Same as above */
+	@Override
+	public <R> R transactNew(final ObjectifyImpl parent, final RetryPolicy policy, final Work<R> work) {
+		return transactionless(parent).transactNew(policy, work);
+	}
+
+	/**
+	 * Joins the current transaction, which is already a consistent snapshot.
+	 */
+	@Override
+	public <R> R transactReadOnly(final ObjectifyImpl parent, final Work<R> work) {
+		return work.run();
+	}
+
 	/**
 	 * Called when the associated transaction is committed. Dumps the contents of the transactional session into the parent's
 	 * session.
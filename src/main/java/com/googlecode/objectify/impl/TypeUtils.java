@@ -9,6 +9,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  */
@@ -27,9 +28,37 @@ public class TypeUtils
 		PRIMITIVE_TO_WRAPPER.put(char.class, Character.class);
 	}
 
+	/** Accessors generated at compile time, if there are any */
+	private static final ClassValue<Optional<GeneratedAccessors>> GENERATED_ACCESSORS = new ClassValue<Optional<GeneratedAccessors>>() {
+		@Override
+		protected Optional<GeneratedAccessors> computeValue(Class<?> type) {
+			if (type.getClassLoader() == null)
+				return Optional.empty();
+
+			// Outer$Thing becomes Outer_Thing_ObjectifyAccessors, in the same package
+			final String name = type.getName();
+			final int lastDot = name.lastIndexOf('.');
+			final String generatedName = name.substring(0, lastDot + 1) + name.substring(lastDot + 1).replace('$', '_') + GeneratedAccessors.SUFFIX;
+
+			try {
+				final Class<?> generated = Class.forName(generatedName, true, type.getClassLoader());
+				return Optional.of((GeneratedAccessors)newInstance(getNoArgConstructor(generated)));
+			} catch (ClassNotFoundException ex) {
+				return Optional.empty();
+			}
+		}
+	};
+
 	private TypeUtils() {
 	}
 
+	/**
+	 * @return the accessors generated at compile time for the class, or null if there aren't any
+	 */
+	public static GeneratedAccessors getGeneratedAccessors(Class<?> clazz) {
+		return GENERATED_ACCESSORS.get(clazz).orElse(null);
+	}
+
 	/**
 	 * Throw an IllegalStateException if the class does not have a no-arg constructor.
 	 */
@@ -0,0 +1,132 @@
+package com.googlecode.objectify.impl;
+
+import com.google.appengine.api.datastore.Blob;
+import com.google.appengine.api.datastore.EmbeddedEntity;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.PropertyContainer;
+import com.google.appengine.api.datastore.ShortBlob;
+import com.google.appengine.api.datastore.Text;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Splits writes into batches that fit within the datastore's per-call limits.
+ */
+public class WriteBatches
+{
+	/** The datastore rejects puts and deletes of more than this many entities in one call */
+	public static final int MAX_ENTITIES = 500;
+
+	/**
+	 * Stay comfortably below the datastore's ~10MB per-call limit; the size estimate is rough, and the
+	 * wire format adds overhead of its own.
+	 */
+	public static final long MAX_BYTES = 5L * 1024 * 1024;
+
+	/** The datastore won't store an entity bigger than this, so a handful of them can't be too big together */
+	private static final long MAX_ENTITY_BYTES = 1024 * 1024;
+
+	/** Rough allowance for a value whose size we don't bother to work out (numbers, dates, keys, etc) */
+	private static final int SMALL_VALUE_BYTES = 16;
+
+	private WriteBatches() {}
+
+	/**
+	 * Splits a list into consecutive sublist views, none of which has more than {@code maxCount} items or
+	 * an estimated size of more than {@code maxBytes}. An item larger than maxBytes gets a batch of its own.
+	 * Usually there is only one batch, in which case the original list is returned as-is.
+	 */
+	public static <T> List<List<T>> split(List<T> items, int maxCount, long maxBytes, ToLongFunction<? super T> sizer) {
+		if (items.size() <= maxCount && maxBytes == Long.MAX_VALUE)
+			return Collections.singletonList(items);
+
+		final List<List<T>> batches = new ArrayList<>();
+
+		int from = 0;
+		long bytes = 0;
+		for (int i = 0; i < items.size(); i++) {
+			final long size = sizer.applyAsLong(items.get(i));
+
+			if (i > from && (i - from == maxCount || bytes + size > maxBytes)) {
+				batches.add(items.subList(from, i));
+				from = i;
+				bytes = 0;
+			}
+
+			bytes += size;
+		}
+
+		if (from == 0)
+			return Collections.singletonList(items);
+
+		batches.add(items.subList(from, items.size()));
+		return batches;
+	}
+
+	/** Splits entities by count and estimated size; small lists are not sized at all */
+	public static List<List<Entity>> splitEntities(List<Entity> entities) {
+		if (entities.size() * MAX_ENTITY_BYTES <= MAX_BYTES)
+			return Collections.singletonList(entities);
+
+		return split(entities, MAX_ENTITIES, MAX_BYTES, WriteBatches::estimateSize);
+	}
+
+	/** Keys are small; only the count matters */
+	public static <K> List<List<K>> splitKeys(List<K> keys) {
+		return split(keys, MAX_ENTITIES, Long.MAX_VALUE, key -> 0);
+	}
+
+	/**
+	 * A cheap approximation of an entity's serialized size. This doesn't have to be exact, it only has to
+	 * keep batches well clear of the per-call limit.
+	 */
+	public static long estimateSize(PropertyContainer container) {
+		long size = 0;
+		if (container instanceof Entity)
+			size += estimateKeySize(((Entity)container).getKey());
+		else if (container instanceof EmbeddedEntity)
+			size += estimateKeySize(((EmbeddedEntity)container).getKey());
+
+		for (Map.Entry<String, Object> prop: container.getProperties().entrySet())
+			size += prop.getKey().length() + estimateValueSize(prop.getValue());
+
+		return size;
+	}
+
+	/** Walks the path rather than formatting the key, which is surprisingly expensive */
+	private static long estimateKeySize(Key key) {
+		long size = 0;
+		for (; key != null; key = key.getParent())
+			size += key.getKind().length() + (key.getName() != null ? key.getName().length() : SMALL_VALUE_BYTES);
+
+		return size;
+	}
+
+	/** */
+	private static long estimateValueSize(Object value) {
+		if (value instanceof String)
+			return ((String)value).length();
+		else if (value instanceof Text)
+			return ((Text)value).getValue().length();
+		else if (value instanceof Blob)
+			return ((Blob)value).getBytes().length;
+		else if (value instanceof ShortBlob)
+			return ((ShortBlob)value).getBytes().length;
+		else if (value instanceof EmbeddedEntity)
+			return estimateSize((EmbeddedEntity)value);
+		else if (value instanceof Collection<?>) {
+			long size = 0;
+			for (Object item: (Collection<?>)value)
+				size += estimateValueSize(item);
+			return size;
+		}
+		else
+			return SMALL_VALUE_BYTES;
+	}
+}
@@ -0,0 +1,223 @@
+package com.googlecode.objectify.impl;
+
+import com.google.appengine.api.datastore.Entity;
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.PartialWriteException;
+import com.googlecode.objectify.Result;
+import com.googlecode.objectify.impl.translate.SaveContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>An opt-in, JVM-wide write-behind buffer for entities which are saved far more often than they need
+ * to be written, such as counters and "last seen" timestamps. Saves and deletes are coalesced per key
+ * (the last one wins, just like deferred operations) and written in batches when the buffer holds
+ * {@code maxEntries} keys, or when the oldest buffered write is older than the window.</p>
+ *
+ * <p>Durability is explicitly weaker than a normal save:</p>
+ * <ul>
+ * <li>Buffered writes exist only in this JVM's memory until flushed. If the instance dies, they are lost.</li>
+ * <li>Entities are translated when they are buffered, on the caller's thread, so {@code @OnSave} methods
+ * run then and later changes to the pojo are not written.</li>
+ * <li>Loads do not see buffered writes until they are flushed.</li>
+ * <li>There is no background thread. The window is checked when writes are buffered and by the
+ * ObjectifyFilter at the end of each request; call {@link #flush()} from your shutdown hook.</li>
+ * <li>Writes which fail to flush go back into the buffer (unless the key has been written again
+ * meanwhile) and the failure is rethrown to whoever triggered the flush.</li>
+ * </ul>
+ *
+ * <p>Flushes are written outside of any transaction, through a fresh Objectify instance. Entities must
+ * have complete keys; there is nothing to coalesce on for autogenerated ids.</p>
+ *
+ * <p>Install with {@code ObjectifyFactory.setWriteBehindBuffer()}.</p>
+ */
+@Slf4j
+public class WriteBehindBuffer
+{
+	/** */
+	private final ObjectifyFactory factory;
+
+	/** */
+	private final long windowMillis;
+
+	/** */
+	private final int maxEntries;
+
+	/** Translated entities; values of null mean "delete". Guarded by this. */
+	private Map<Key<?>, Entity> pending = new LinkedHashMap<>();
+
+	/** When the first write in the current pending map was buffered. Guarded by this. */
+	private long oldest;
+
+	/** Flushes are serialized so that an older value can't land after a newer one */
+	private final Object flushLock = new Object();
+
+	/**
+	 * @param windowMillis is the longest a write should sit in the buffer
+	 * @param maxEntries is how many distinct keys may be buffered before writes are flushed
+	 */
+	public WriteBehindBuffer(ObjectifyFactory factory, long windowMillis, int maxEntries) {
+		if (maxEntries < 1)
+			throw new IllegalArgumentException("maxEntries must be at least 1: " + maxEntries);
+
+		this.factory = factory;
+		this.windowMillis = windowMillis;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Buffer a save of the entity, replacing any buffered write of the same key.
+	 * @param entity must be a registered entity (or a raw Entity) with a complete key
+	 */
+	public void save(Object entity) {
+		// The pojo belongs to the caller, who may well keep changing it, so we hold a snapshot instead
+		final Entity snapshot;
+		if (entity instanceof Entity) {
+			snapshot = ((Entity)entity).clone();
+		} else {
+			if (factory.keys().requiresAutogeneratedId(entity))
+				throw new IllegalArgumentException("Entities in the write-behind buffer must have complete keys: " + entity);
+
+			snapshot = factory.getMetadataForEntity(entity).save(entity, new SaveContext());
+		}
+
+		if (!snapshot.getKey().isComplete())
+			throw new IllegalArgumentException("Entities in the write-behind buffer must have complete keys: " + entity);
+
+		buffer(Key.create(snapshot.getKey()), snapshot);
+	}
+
+	/**
+	 * Buffer a delete, replacing any buffered write of the same key.
+	 * @param keyOrEntity can be a Key, Key<?>, Ref<?>, or entity pojo with a complete key
+	 */
+	public void delete(Object keyOrEntity) {
+		buffer(factory.keys().anythingToKey(keyOrEntity), null);
+	}
+
+	/** */
+	private void buffer(Key<?> key, Entity value) {
+		final boolean due;
+		synchronized (this) {
+			if (pending.isEmpty())
+				oldest = System.currentTimeMillis();
+
+			pending.put(key, value);
+			due = isDue();
+		}
+
+		if (due)
+			flush();
+	}
+
+	/** @return how many distinct keys are waiting to be written */
+	public synchronized int size() {
+		return pending.size();
+	}
+
+	/** Must hold the monitor */
+	private boolean isDue() {
+		return !pending.isEmpty() && (pending.size() >= maxEntries || System.currentTimeMillis() - oldest >= windowMillis);
+	}
+
+	/**
+	 * Flush only if the buffer is full or the window has passed. This is what the ObjectifyFilter calls
+	 * at the end of each request.
+	 */
+	public void flushIfDue() {
+		final boolean due;
+		synchronized (this) {
+			due = isDue();
+		}
+
+		if (due)
+			flush();
+	}
+
+	/**
+	 * Write everything buffered so far, saves and deletes concurrently, and wait for it to complete.
+	 */
+	public void flush() {
+		synchronized (flushLock) {
+			final Map<Key<?>, Entity> writing;
+			synchronized (this) {
+				if (pending.isEmpty())
+					return;
+
+				writing = pending;
+				pending = new LinkedHashMap<>();
+			}
+
+			log.trace("Flushing {} buffered writes", writing.size());
+
+			final List<Entity> saves = new ArrayList<>();
+			final List<Key<?>> deletes = new ArrayList<>();
+			for (Map.Entry<Key<?>, Entity> entry: writing.entrySet()) {
+				if (entry.getValue() == null)
+					deletes.add(entry.getKey());
+				else
+					saves.add(entry.getValue());
+			}
+
+			final WriteEngine engine = new ObjectifyImpl(factory).createWriteEngine();
+
+			final List<com.google.appengine.api.datastore.Key> rawDeletes = new ArrayList<>(deletes.size());
+			for (Key<?> key: deletes)
+				rawDeletes.add(key.getRaw());
+
+			final Result<?> saved = saves.isEmpty() ? null : engine.save(saves);
+			final Result<?> deleted = deletes.isEmpty() ? null : engine.delete(rawDeletes);
+
+			RuntimeException failure = complete(saved, saves, writing);
+			final RuntimeException deleteFailure = complete(deleted, deletes, writing);
+
+			if (failure == null)
+				failure = deleteFailure;
+			else if (deleteFailure != null)
+				failure.addSuppressed(deleteFailure);
+
+			if (failure != null)
+				throw failure;
+		}
+	}
+
+	/**
+	 * Waits for one half of a flush; if it fails, puts the failed items back in the buffer.
+	 * @param items are either the saved entities or the deleted keys, in the order they were written
+	 * @return the failure, if any
+	 */
+	private RuntimeException complete(Result<?> result, List<?> items, Map<Key<?>, Entity> writing) {
+		if (result == null)
+			return null;
+
+		try {
+			result.now();
+			return null;
+		} catch (PartialWriteException ex) {
+			for (PartialWriteException.BatchFailure failure: ex.getFailures())
+				requeue(items.subList(failure.getFromIndex(), failure.getToIndex()), writing);
+			return ex;
+		} catch (RuntimeException ex) {
+			requeue(items, writing);
+			return ex;
+		}
+	}
+
+	/** Puts failed writes back, unless they have been superseded */
+	private void requeue(List<?> items, Map<Key<?>, Entity> writing) {
+		synchronized (this) {
+			if (pending.isEmpty())
+				oldest = System.currentTimeMillis();
+
+			for (Object item: items) {
+				final Key<?> key = (item instanceof Key<?>) ? (Key<?>)item : Key.create(((Entity)item).getKey());
+				pending.putIfAbsent(key, writing.get(key));
+			}
+		}
+	}
+}
@@ -2,20 +2,31 @@ package com.googlecode.objectify.impl;
 
 import com.google.appengine.api.datastore.AsyncDatastoreService;
 import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.KeyFactory;
 import com.google.appengine.api.datastore.Transaction;
 import com.google.common.collect.Lists;
 import com.googlecode.objectify.Key;
+import com.googlecode.objectify.PartialWriteException;
 import com.googlecode.objectify.Result;
 import com.googlecode.objectify.impl.translate.SaveContext;
+import com.googlecode.objectify.util.FutureHelper;
+import com.googlecode.objectify.util.ResultCache;
+import com.googlecode.objectify.util.ResultNow;
 import com.googlecode.objectify.util.ResultWrapper;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 /**
  * This is the master logic for saving and deleting entities from the datastore.  It provides the
@@ -53,6 +64,51 @@ public class WriteEngine
 		return (ofy.getTransaction() == null) ? null : ofy.getTransaction().getRaw();
 	}
 
+	/**
+	 * Bumps the count cache generation of every kind about to be written. Outside of a transaction this is
+	 * done both when the write is issued and when it completes, so a count which runs while the write is in
+	 * flight is not cached for long. Inside a transaction nothing changes for anyone else until the commit,
+	 * so the generations are bumped by a commit listener instead; a rollback leaves them alone.
+	 */
+	private void invalidateCountsOnIssue(Iterable<com.google.appengine.api.datastore.Key> keys) {
+		final CountCache countCache = ofy.factory().getCountCache();
+		if (countCache == null)
+			return;
+
+		final TransactionImpl txn = ofy.getTransaction();
+		if (txn == null) {
+			invalidateCounts(countCache, keys);
+		} else {
+			final List<com.google.appengine.api.datastore.Key> written = Lists.newArrayList(keys);
+			txn.listenForCommit(() -> invalidateCounts(countCache, written));
+		}
+	}
+
+	/**
+	 * @see #invalidateCountsOnIssue(Iterable)
+	 */
+	private void invalidateCountsOnCompletion(Iterable<com.google.appengine.api.datastore.Key> keys) {
+		final CountCache countCache = ofy.factory().getCountCache();
+		if (countCache == null || ofy.getTransaction() != null)
+			return;
+
+		invalidateCounts(countCache, keys);
+	}
+
+	/** */
+	private static void invalidateCounts(CountCache countCache, Iterable<com.google.appengine.api.datastore.Key> keys) {
+		String lastKind = null;
+		String lastNamespace = null;
+		for (com.google.appengine.api.datastore.Key key: keys) {
+			// Batches are usually all one kind in one namespace
+			if (!key.getKind().equals(lastKind) || !key.getNamespace().equals(lastNamespace)) {
+				lastKind = key.getKind();
+				lastNamespace = key.getNamespace();
+				countCache.invalidate(lastNamespace, lastKind);
+			}
+		}
+	}
+
 	/**
 	 * The fundamental put() operation.
 	 */
@@ -60,55 +116,115 @@ public class WriteEngine
 		log.trace("Saving {}", entities);
 
 		final SaveContext ctx = new SaveContext();
+		final boolean dirtyChecking = ofy.getOptions().isDirtyChecking();
 
+		// Need to make a copy of the original list because someone might clear it while we are async
+		final List<E> original = new ArrayList<>();
+
+		// What actually gets put; unless dirty checking skips something, these are the same as the originals
+		final List<E> putObjs = dirtyChecking ? new ArrayList<>() : original;
 		final List<Entity> entityList = new ArrayList<>();
+
+		// Positions in the original list which were skipped, and their keys
+		final BitSet skipped = new BitSet();
+		final List<com.google.appengine.api.datastore.Key> skippedKeys = new ArrayList<>();
+
 		for (E obj: entities) {
 			if (obj == null)
 				throw new NullPointerException("Attempted to save a null entity");
 
 			deferrer.undefer(obj);
+			original.add(obj);
 
+			final Entity entity;
 			if (obj instanceof Entity) {
-				entityList.add((Entity)obj);
+				entity = (Entity)obj;
 			} else {
 				EntityMetadata<E> metadata = ofy.factory().getMetadataForEntity(obj);
-				entityList.add(metadata.save(obj, ctx));
+				entity = preassignId(obj, metadata, metadata.save(obj, ctx));
+
+				if (dirtyChecking && entity.getKey().isComplete() && unchanged(session.getSnapshot(Key.create(entity.getKey())), entity)) {
+					skipped.set(original.size() - 1);
+					skippedKeys.add(entity.getKey());
+					continue;
+				}
 			}
+
+			if (dirtyChecking)
+				putObjs.add(obj);
+
+			entityList.add(entity);
 		}
 
-		// Need to make a copy of the original list because someone might clear it while we are async
-		final List<? extends E> original = Lists.newArrayList(entities);
+		ofy.factory().getWriteStats().written(entityList.size());
+		if (!skippedKeys.isEmpty()) {
+			log.trace("Skipping {} unchanged entities", skippedKeys.size());
+			ofy.factory().getWriteStats().skipped(skippedKeys.size());
+		}
+
+		invalidateCountsOnIssue(Lists.transform(entityList, Entity::getKey));
+
+		final List<List<Entity>> batches = WriteBatches.splitEntities(entityList);
+
+		final Result<List<com.google.appengine.api.datastore.Key>> adapted;
+		if (entityList.isEmpty() && !skippedKeys.isEmpty()) {
+			// Nothing changed at all
+			adapted = new ResultNow<>(Collections.emptyList());
+		} else if (batches.size() == 1) {
+			// The CachingDatastoreService needs its own raw transaction
+			adapted = new ResultAdapter<>(ads.put(getTransactionRaw(), entityList));
+		} else {
+			log.trace("Splitting put of {} entities into {} batches", entityList.size(), batches.size());
+
+			// All the batches are in flight at once
+			final List<Future<List<com.google.appengine.api.datastore.Key>>> futures = new ArrayList<>(batches.size());
+			for (List<Entity> batch: batches)
+				futures.add(ads.put(getTransactionRaw(), batch));
+
+			adapted = new ResultCache<List<com.google.appengine.api.datastore.Key>>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected List<com.google.appengine.api.datastore.Key> nowUncached() {
+					// Only runs if some batch failed, in which case the whole save fails and wrap() below never runs.
+					// Whatever made it into the datastore still gets its ids, so that a retry doesn't duplicate it.
+					final List<List<com.google.appengine.api.datastore.Key>> results = joinBatches(batches, futures, (index, batchKeys) -> {
+						final int from = offsetOf(batches, index);
+						patchUp(putObjs.subList(from, from + batchKeys.size()), batchKeys, null);
 
-		// The CachingDatastoreService needs its own raw transaction
-		Future<List<com.google.appengine.api.datastore.Key>> raw = ads.put(getTransactionRaw(), entityList);
-		Result<List<com.google.appengine.api.datastore.Key>> adapted = new ResultAdapter<>(raw);
+						for (com.google.appengine.api.datastore.Key k: batchKeys)
+							session.snapshot(Key.create(k), null);
+					});
+
+					final List<com.google.appengine.api.datastore.Key> keys = new ArrayList<>(entityList.size());
+					for (List<com.google.appengine.api.datastore.Key> batchKeys: results)
+						keys.addAll(batchKeys);
+
+					return keys;
+				}
+			};
+		}
 
 		Result<Map<Key<E>, E>> result = new ResultWrapper<List<com.google.appengine.api.datastore.Key>, Map<Key<E>, E>>(adapted) {
 			private static final long serialVersionUID = 1L;
 
 			@Override
 			protected Map<Key<E>, E> wrap(List<com.google.appengine.api.datastore.Key> base) {
-				Map<Key<E>, E> result = new LinkedHashMap<>(base.size() * 2);
-
-				// One pass through the translated pojos to patch up any generated ids in the original objects
-				// Iterator order should be exactly the same for keys and values
-				Iterator<com.google.appengine.api.datastore.Key> keysIt = base.iterator();
-				for (E obj: original)
-				{
-					com.google.appengine.api.datastore.Key k = keysIt.next();
-					if (!(obj instanceof Entity)) {
-						KeyMetadata<E> metadata = ofy.factory().keys().getMetadataSafe(obj);
-						if (metadata.isIdGeneratable())
-							metadata.setLongId(obj, k.getId());
-					}
+				Map<Key<E>, E> result = new LinkedHashMap<>(original.size() * 2);
 
-					Key<E> key = Key.create(k);
-					result.put(key, obj);
+				patchUp(original, skippedKeys.isEmpty() ? base : merge(base, skipped, skippedKeys), result);
 
-					// Also stuff this in the session
-					session.addValue(key, obj);
+				// Keep any snapshots in step with what is now in the datastore
+				if (dirtyChecking || session.hasSnapshots()) {
+					for (int i = 0; i < base.size(); i++) {
+						final Key<?> key = Key.create(base.get(i));
+						if (dirtyChecking || session.getSnapshot(key) != null)
+							session.snapshot(key, putObjs.get(i) instanceof Entity ? null : entityList.get(i));
+					}
 				}
 
+				invalidateCountsOnCompletion(base);
+
 				log.trace("Saved {}", base);
 
 				return result;
@@ -121,6 +237,258 @@ public class WriteEngine
 		return result;
 	}
 
+	/**
+	 * @return true if the entity would save exactly what the snapshot says the datastore already holds,
+	 * including which properties are indexed
+	 */
+	private static boolean unchanged(Entity snapshot, Entity entity) {
+		if (snapshot == null || snapshot == entity)
+			return false;
+
+		final Map<String, Object> props = entity.getProperties();
+		if (!props.equals(snapshot.getProperties()))
+			return false;
+
+		for (String name: props.keySet())
+			if (entity.isUnindexedProperty(name) != snapshot.isUnindexedProperty(name))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Puts the keys of skipped saves back in their original positions among the keys which were put.
+	 */
+	private static List<com.google.appengine.api.datastore.Key> merge(List<com.google.appengine.api.datastore.Key> put, BitSet skipped, List<com.google.appengine.api.datastore.Key> skippedKeys) {
+		final List<com.google.appengine.api.datastore.Key> all = new ArrayList<>(put.size() + skippedKeys.size());
+
+		final Iterator<com.google.appengine.api.datastore.Key> putIt = put.iterator();
+		final Iterator<com.google.appengine.api.datastore.Key> skippedIt = skippedKeys.iterator();
+		for (int i = 0; i < put.size() + skippedKeys.size(); i++)
+			all.add(skipped.get(i) ? skippedIt.next() : putIt.next());
+
+		return all;
+	}
+
+	/**
+	 * One pass through the translated pojos to patch up any generated ids in the original objects and put
+	 * them in the session. Iterator order should be exactly the same for keys and values.
+	 *
+	 * @param into can be null if the caller doesn't want the key/entity map
+	 */
+	private <E> void patchUp(List<? extends E> objs, List<com.google.appengine.api.datastore.Key> keys, Map<Key<E>, E> into) {
+		Iterator<com.google.appengine.api.datastore.Key> keysIt = keys.iterator();
+		for (E obj: objs)
+		{
+			com.google.appengine.api.datastore.Key k = keysIt.next();
+			assignId(obj, k);
+
+			Key<E> key = Key.create(k);
+			if (into != null)
+				into.put(key, obj);
+
+			// Also stuff this in the session
+			session.addValue(key, obj);
+		}
+	}
+
+	/**
+	 * If an IdPool is installed and the pojo needs a generated id, takes one from the pool and gives it to
+	 * both the pojo and the translated entity, so the put doesn't have to generate it.
+	 * @return the entity with a complete key (a copy), or the original entity
+	 */
+	private <E> Entity preassignId(E obj, EntityMetadata<E> metadata, Entity entity) {
+		final IdPool idPool = ofy.factory().getIdPool();
+		if (idPool == null || entity.getKey().isComplete() || !metadata.getKeyMetadata().isIdGeneratable())
+			return entity;
+
+		final com.google.appengine.api.datastore.Key parent = entity.getKey().getParent();
+		final long id = idPool.next(entity.getKey().getNamespace(), parent, entity.getKind());
+		metadata.getKeyMetadata().setLongId(obj, id);
+
+		final Entity complete = new Entity(KeyFactory.createKey(parent, entity.getKind(), id));
+		complete.setPropertiesFrom(entity);
+		return complete;
+	}
+
+	/** Copies a generated id back into the pojo, if it needs one */
+	private <E> void assignId(E obj, com.google.appengine.api.datastore.Key k) {
+		if (!(obj instanceof Entity)) {
+			KeyMetadata<E> metadata = ofy.factory().keys().getMetadataSafe(obj);
+			if (metadata.isIdGeneratable())
+				metadata.setLongId(obj, k.getId());
+		}
+	}
+
+	/**
+	 * <p>A put() for bulk imports. Entities are translated one batch at a time, and each batch is sent as
+	 * soon as it is ready, so translation overlaps with the datastore calls; no more than {@code maxInFlight}
+	 * batches are outstanding at once. The input is only iterated once and is never copied, so it can be
+	 * a lazily produced sequence.</p>
+	 *
+	 * <p>This call translates and dispatches everything before it returns; the result completes when the
+	 * last batches do. Generated ids are assigned as each batch completes. To keep memory bounded, the
+	 * saved entities are <em>not</em> added to the session.</p>
+	 *
+	 * @return the number of entities saved
+	 * @throws PartialWriteException (eventually) if some batches were written and one failed; nothing more
+	 * is translated or dispatched after a failure is noticed, and everything from there on is reported as
+	 * failed (and stays deferred, if it was)
+	 */
+	public <E> Result<Integer> savePipelined(Iterable<? extends E> entities, int maxInFlight) {
+		if (maxInFlight < 1)
+			throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+
+		log.trace("Pipelined save with up to {} batches in flight", maxInFlight);
+
+		final SavePipeline<E> pipeline = new SavePipeline<>(maxInFlight);
+		final SaveContext ctx = new SaveContext();
+
+		List<E> pojos = new ArrayList<>();
+		List<Entity> entityList = new ArrayList<>();
+		long bytes = 0;
+		int total = 0;
+		boolean stopped = false;
+
+		for (E obj: entities) {
+			if (obj == null)
+				throw new NullPointerException("Attempted to save a null entity");
+
+			total++;
+
+			// After a failure we only count the rest, so that they can be reported
+			if (stopped)
+				continue;
+
+			final Entity entity;
+			if (obj instanceof Entity) {
+				entity = (Entity)obj;
+			} else {
+				EntityMetadata<E> metadata = ofy.factory().getMetadataForEntity(obj);
+				entity = preassignId(obj, metadata, metadata.save(obj, ctx));
+			}
+
+			final long size = WriteBatches.estimateSize(entity);
+			if (!entityList.isEmpty() && (entityList.size() == WriteBatches.MAX_ENTITIES || bytes + size > WriteBatches.MAX_BYTES)) {
+				if (!pipeline.dispatch(pojos, entityList)) {
+					stopped = true;
+					continue;
+				}
+
+				pojos = new ArrayList<>();
+				entityList = new ArrayList<>();
+				bytes = 0;
+			}
+
+			pojos.add(obj);
+			entityList.add(entity);
+			bytes += size;
+		}
+
+		if (!stopped && !entityList.isEmpty())
+			pipeline.dispatch(pojos, entityList);
+
+		pipeline.total = total;
+
+		final Result<Integer> result = new ResultCache<Integer>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Integer nowUncached() {
+				return pipeline.finish();
+			}
+		};
+
+		if (ofy.getTransaction() != null)
+			ofy.getTransaction().enlist(result);
+
+		return result;
+	}
+
+	/**
+	 * The batches of a pipelined save which are still in flight, oldest first.
+	 */
+	private class SavePipeline<E> {
+		private final int maxInFlight;
+		private final Deque<List<E>> pojos = new ArrayDeque<>();
+		private final Deque<Future<List<com.google.appengine.api.datastore.Key>>> futures = new ArrayDeque<>();
+		private final List<PartialWriteException.BatchFailure> failures = new ArrayList<>();
+
+		/** Index of the first entity of the oldest batch in flight */
+		private int completed;
+		private int dispatched;
+
+		/** How many entities were passed in; anything past dispatched was never sent */
+		private int total;
+
+		SavePipeline(int maxInFlight) {
+			this.maxInFlight = maxInFlight;
+		}
+
+		/**
+		 * Sends a batch, first waiting for the oldest one if too many are in flight.
+		 * @return false if a batch has failed and nothing more should be sent
+		 */
+		boolean dispatch(List<E> batchPojos, List<Entity> batch) {
+			if (futures.size() == maxInFlight)
+				completeOldest();
+
+			if (!failures.isEmpty())
+				return false;
+
+			invalidateCountsOnIssue(Lists.transform(batch, Entity::getKey));
+
+			pojos.add(batchPojos);
+			futures.add(ads.put(getTransactionRaw(), batch));
+			dispatched += batch.size();
+
+			// Only now that they are really on their way
+			for (E obj: batchPojos)
+				deferrer.undefer(obj);
+
+			return true;
+		}
+
+		/** Waits for everything outstanding */
+		int finish() {
+			while (!futures.isEmpty())
+				completeOldest();
+
+			if (failures.isEmpty())
+				return dispatched;
+
+			if (dispatched < total)
+				failures.add(new PartialWriteException.BatchFailure(dispatched, total, failures.get(0).getCause()));
+
+			final int failedCount = failures.stream().mapToInt(f -> f.getToIndex() - f.getFromIndex()).sum();
+			if (failedCount == total || ofy.getTransaction() != null)
+				FutureHelper.unwrapAndThrow(failures.get(0).getCause());
+
+			throw new PartialWriteException(total, failures);
+		}
+
+		/** */
+		private void completeOldest() {
+			final List<E> batchPojos = pojos.remove();
+			final Future<List<com.google.appengine.api.datastore.Key>> future = futures.remove();
+
+			final int from = completed;
+			completed += batchPojos.size();
+
+			try {
+				final List<com.google.appengine.api.datastore.Key> keys = future.get();
+
+				Iterator<com.google.appengine.api.datastore.Key> keysIt = keys.iterator();
+				for (E obj: batchPojos)
+					assignId(obj, keysIt.next());
+
+				invalidateCountsOnCompletion(keys);
+			} catch (Exception ex) {
+				failures.add(new PartialWriteException.BatchFailure(from, completed, ex instanceof ExecutionException ? ex.getCause() : ex));
+			}
+		}
+	}
+
 	/**
 	 * The fundamental delete() operation.
 	 */
@@ -128,15 +496,48 @@ public class WriteEngine
 		for (com.google.appengine.api.datastore.Key key: keys)
 			deferrer.undefer(Key.create(key));
 
-		Future<Void> fut = ads.delete(getTransactionRaw(), keys);
-		Result<Void> adapted = new ResultAdapter<>(fut);
+		invalidateCountsOnIssue(keys);
+
+		final List<com.google.appengine.api.datastore.Key> keyList = (keys instanceof List<?>) ? (List<com.google.appengine.api.datastore.Key>)keys : Lists.newArrayList(keys);
+		final List<List<com.google.appengine.api.datastore.Key>> batches = WriteBatches.splitKeys(keyList);
+
+		final Result<Void> adapted;
+		if (batches.size() == 1) {
+			adapted = new ResultAdapter<>(ads.delete(getTransactionRaw(), keys));
+		} else {
+			log.trace("Splitting delete of {} keys into {} batches", keyList.size(), batches.size());
+
+			final List<Future<Void>> futures = new ArrayList<>(batches.size());
+			for (List<com.google.appengine.api.datastore.Key> batch: batches)
+				futures.add(ads.delete(getTransactionRaw(), batch));
+
+			adapted = new ResultCache<Void>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected Void nowUncached() {
+					joinBatches(batches, futures, (index, ignored) -> {
+						for (com.google.appengine.api.datastore.Key key: batches.get(index)) {
+							session.addValue(Key.create(key), null);
+							session.snapshot(Key.create(key), null);
+						}
+					});
+					return null;
+				}
+			};
+		}
+
 		Result<Void> result = new ResultWrapper<Void, Void>(adapted) {
 			private static final long serialVersionUID = 1L;
 
 			@Override
 			protected Void wrap(Void orig) {
-				for (com.google.appengine.api.datastore.Key key: keys)
+				for (com.google.appengine.api.datastore.Key key: keys) {
 					session.addValue(Key.create(key), null);
+					session.snapshot(Key.create(key), null);
+				}
+
+				invalidateCountsOnCompletion(keys);
 
 				return orig;
 			}
@@ -147,4 +548,67 @@ public class WriteEngine
 
 		return result;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Waits for every batch of a split write and returns their results in order. If some batches fail,
+	 * the successful ones are passed to {@code onPartialSuccess} (batch index and result) and a
+	 * PartialWriteException is thrown. So {@code onPartialSuccess} never runs for a write which succeeds;
+	 * that is left to the caller's normal completion. If they all fail, or we are in a transaction (which will roll back
+	 * anyway), the first failure is rethrown as-is, with any others attached as suppressed exceptions.
+	 */
+	private <T, R> List<R> joinBatches(List<List<T>> batches, List<Future<R>> futures, BiConsumer<Integer, R> onPartialSuccess) {
+		final List<R> results = new ArrayList<>(futures.size());
+		List<PartialWriteException.BatchFailure> failures = null;
+
+		int from = 0;
+		for (int i = 0; i < futures.size(); i++) {
+			final int to = from + batches.get(i).size();
+
+			try {
+				results.add(futures.get(i).get());
+			} catch (Exception ex) {
+				if (failures == null)
+					failures = new ArrayList<>();
+
+				failures.add(new PartialWriteException.BatchFailure(from, to, ex instanceof ExecutionException ? ex.getCause() : ex));
+				results.add(null);
+			}
+
+			from = to;
+		}
+
+		if (failures == null)
+			return results;
+
+		if (failures.size() == futures.size() || ofy.getTransaction() != null) {
+			final Throwable first = failures.get(0).getCause();
+			for (PartialWriteException.BatchFailure failure: failures.subList(1, failures.size()))
+				if (failure.getCause() != first)
+					first.addSuppressed(failure.getCause());
+
+			FutureHelper.unwrapAndThrow(first);
+		}
+
+		int failureIndex = 0;
+		from = 0;
+		for (int i = 0; i < futures.size(); i++) {
+			if (failureIndex < failures.size() && failures.get(failureIndex).getFromIndex() == from)
+				failureIndex++;
+			else
+				onPartialSuccess.accept(i, results.get(i));
+
+			from += batches.get(i).size();
+		}
+
+		throw new PartialWriteException(from, failures);
+	}
+
+	/** @return the index of the first item of the batch in the list that was split */
+	private static int offsetOf(List<? extends List<?>> batches, int index) {
+		int offset = 0;
+		for (int i = 0; i < index; i++)
+			offset += batches.get(i).size();
+
+		return offset;
+	}
+}
@@ -0,0 +1,35 @@
+package com.googlecode.objectify.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts entity writes across the factory, including the saves that dirty checking decided to skip.
+ */
+public class WriteStats
+{
+	/** */
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong skipped = new AtomicLong();
+
+	/** @return how many entities have been sent to the datastore to be saved */
+	public long getWritten() { return this.written.get(); }
+
+	/** @return how many saves were skipped because the entity had not changed */
+	public long getSkipped() { return this.skipped.get(); }
+
+	/** */
+	public void written(int count) {
+		this.written.addAndGet(count);
+	}
+
+	/** */
+	public void skipped(int count) {
+		this.skipped.addAndGet(count);
+	}
+
+	/** Start counting again */
+	public void reset() {
+		this.written.set(0);
+		this.skipped.set(0);
+	}
+}
@@ -0,0 +1,55 @@
+package com.googlecode.objectify.impl.translate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A static {@code @OnLoadBatch} method, executed once with all the instances of its class from a load batch.
+ */
+public class BatchLifecycleMethod implements Consumer<List<Object>>
+{
+	/** */
+	private final Method method;
+
+	/** Adapted to (List)void so it can be called with invokeExact */
+	private final MethodHandle handle;
+
+	/** */
+	public BatchLifecycleMethod(Method method) {
+		this.method = method;
+		this.method.setAccessible(true);
+
+		if (!Modifier.isStatic(method.getModifiers()))
+			throw new IllegalArgumentException("@OnLoadBatch methods must be static:  " + method);
+
+		if (method.getParameterTypes().length != 1 || !method.getParameterTypes()[0].isAssignableFrom(ArrayList.class))
+			throw new IllegalArgumentException("@OnLoadBatch methods must have a single List parameter:  " + method);
+
+		try {
+			this.handle = MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(void.class, List.class));
+		}
+		catch (IllegalAccessException e) { throw new IllegalStateException(e); }
+	}
+
+	/** */
+	@Override
+	public void accept(List<Object> pojos) {
+		try {
+			this.handle.invokeExact(pojos);
+		}
+		catch (RuntimeException e) { throw e; }
+		catch (Throwable e) { throw new RuntimeException(e); }
+	}
+
+	/** */
+	@Override
+	public String toString() {
+		return method.toString();
+	}
+}
@@ -8,10 +8,12 @@ import com.googlecode.objectify.annotation.Id;
 import com.googlecode.objectify.annotation.Ignore;
 import com.googlecode.objectify.annotation.Index;
 import com.googlecode.objectify.annotation.OnLoad;
+import com.googlecode.objectify.annotation.OnLoadBatch;
 import com.googlecode.objectify.annotation.OnSave;
 import com.googlecode.objectify.annotation.Parent;
 import com.googlecode.objectify.annotation.Unindex;
 import com.googlecode.objectify.impl.FieldProperty;
+import com.googlecode.objectify.impl.GeneratedAccessors;
 import com.googlecode.objectify.impl.MethodProperty;
 import com.googlecode.objectify.impl.Path;
 import com.googlecode.objectify.impl.Property;
@@ -25,6 +27,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * <p>Used by translators to populate properties between POJO and PropertiesContainer. Unlike
@@ -64,6 +67,21 @@ public class ClassPopulator<P> implements Populator<P>
 	/** */
 	private final List<LifecycleMethod> onSaveMethods = new ArrayList<>();
 	private final List<LifecycleMethod> onLoadMethods = new ArrayList<>();
+	private final List<BatchLifecycleMethod> onLoadBatchMethods = new ArrayList<>();
+
+	/** Runs the @OnLoad methods; given to the LoadContext along with each pojo, so nothing is allocated per pojo */
+	private final Consumer<Object> onLoad = new Consumer<Object>() {
+		@Override
+		public void accept(Object pojo) {
+			for (LifecycleMethod method: onLoadMethods)
+				method.execute(pojo);
+		}
+
+		@Override
+		public String toString() {
+			return "(invoke " + clazz + " @OnLoad callbacks)";
+		}
+	};
 
 	/**
 	 */
@@ -78,7 +96,11 @@ public class ClassPopulator<P> implements Populator<P>
 		indexInstruction = getIndexInstruction(clazz);
 
 		// Find all the basic properties
-		for (Property prop: getDeclaredProperties(ctx.getFactory(), clazz)) {
+		List<Property> declared = ctx.getFactory().getTranslators().takePreparedProperties(clazz);
+		if (declared == null)
+			declared = getDeclaredProperties(ctx.getFactory(), clazz);
+
+		for (Property prop: declared) {
 			if (INCLUDED_FIELDS.apply(prop)) {
 				Path propPath = path.extend(prop.getName());
 				try {
@@ -92,19 +114,22 @@ public class ClassPopulator<P> implements Populator<P>
 			}
 		}
 
-		// Find the @OnSave methods
+		// Find the lifecycle methods
 		for (Method method: clazz.getDeclaredMethods()) {
 			if (method.isAnnotationPresent(OnSave.class))
 				onSaveMethods.add(new LifecycleMethod(method));
 
 			if (method.isAnnotationPresent(OnLoad.class))
 				onLoadMethods.add(new LifecycleMethod(method));
+
+			if (method.isAnnotationPresent(OnLoadBatch.class))
+				onLoadBatchMethods.add(new BatchLifecycleMethod(method));
 		}
 	}
 
 	/* */
 	@Override
-	public void load(PropertyContainer node, LoadContext ctx, Path path, final P into) {
+	public void load(PropertyContainer node, LoadContext ctx, Path path, P into) {
 		superPopulator.load(node, ctx, path, into);
 
 		ctx.enterContainerContext(into);
@@ -117,20 +142,11 @@ public class ClassPopulator<P> implements Populator<P>
 		}
 
 		// If there are any @OnLoad methods, call them after everything else
-		if (!onLoadMethods.isEmpty()) {
-			ctx.defer(new Runnable() {
-				@Override
-				public void run() {
-					for (LifecycleMethod method: onLoadMethods)
-						method.execute(into);
-				}
+		if (!onLoadMethods.isEmpty())
+			ctx.defer(onLoad, into);
 
-				@Override
-				public String toString() {
-					return "(deferred invoke " + clazz + " @OnLoad callbacks on " + into + ")";
-				}
-			});
-		}
+		for (BatchLifecycleMethod method: onLoadBatchMethods)
+			ctx.deferBatch(method, into);
 	}
 
 	/* */
@@ -174,7 +190,7 @@ public class ClassPopulator<P> implements Populator<P>
 	/**
 	 * Determine if we should create a Property for the field.  Things we ignore:  static, final, @Ignore, synthetic
 	 */
-	private boolean isOfInterest(Field field) {
+	private static boolean isOfInterest(Field field) {
 		return !field.isAnnotationPresent(Ignore.class)
 				&& ((field.getModifiers() & NOT_SAVEABLE_MODIFIERS) == 0)
 				&& !field.isSynthetic()
@@ -184,7 +200,7 @@ public class ClassPopulator<P> implements Populator<P>
 	/**
 	 * Determine if we should create a Property for the method (ie, @AlsoLoad)
 	 */
-	private  boolean isOfInterest(Method method) {
+	private static boolean isOfInterest(Method method) {
 		for (Annotation[] annos: method.getParameterAnnotations())
 			if (TypeUtils.getAnnotation(annos, AlsoLoad.class) != null)
 				return true;
@@ -198,12 +214,24 @@ public class ClassPopulator<P> implements Populator<P>
 	 * @return the fields we load and save, including @Id and @Parent fields. All fields will be set accessable
 	 *  and returned in order of declaration.
 	 */
-	private List<Property> getDeclaredProperties(ObjectifyFactory fact, Class<?> clazz) {
+	static List<Property> getDeclaredProperties(ObjectifyFactory fact, Class<?> clazz) {
 		List<Property> good = new ArrayList<>();
 
-		for (Field field: clazz.getDeclaredFields())
-			if (isOfInterest(field))
-				good.add(new FieldProperty(fact, clazz, field));
+		GeneratedAccessors generated = TypeUtils.getGeneratedAccessors(clazz);
+		if (generated != null) {
+			// The annotation processor already worked out which fields are of interest
+			for (String name: generated.getFieldNames()) {
+				try {
+					good.add(new FieldProperty(fact, clazz, clazz.getDeclaredField(name)));
+				} catch (NoSuchFieldException ex) {
+					throw new IllegalStateException("Generated accessors for " + clazz.getName() + " are out of date; field '" + name + "' is missing", ex);
+				}
+			}
+		} else {
+			for (Field field: clazz.getDeclaredFields())
+				if (isOfInterest(field))
+					good.add(new FieldProperty(fact, clazz, field));
+		}
 
 		for (Method method: clazz.getDeclaredMethods())
 			if (isOfInterest(method))
@@ -9,7 +9,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * <p>Some common code for Translators which know how to convert a POJO type into a PropertiesContainer.
@@ -52,6 +51,19 @@ public class ClassTranslator<P> extends NullSafeTranslator<P, PropertyContainer>
 	/** Keyed by Class, includes the base class */
 	private Map<Class<? extends P>, ClassTranslator<? extends P>> byClass = new HashMap<>();
 
+	/**
+	 * Save-side dispatch; remembers the byClass answer right on the Class. Classes which weren't registered
+	 * when first seen are remembered as this translator, which sends us back to byClass in case they have
+	 * been registered since.
+	 */
+	private final ClassValue<ClassTranslator<?>> dispatch = new ClassValue<ClassTranslator<?>>() {
+		@Override
+		protected ClassTranslator<?> computeValue(Class<?> type) {
+			final ClassTranslator<?> translator = byClass.get(type);
+			return translator == null ? ClassTranslator.this : translator;
+		}
+	};
+
 	/** */
 	public ClassTranslator(final Class<P> declaredClass, final Path path, final Creator<P> creator, final Populator<P> populator) {
 		log.trace("Creating class translator for {} at path '{}'", declaredClass.getName(), path);
@@ -62,7 +74,7 @@ public class ClassTranslator<P> extends NullSafeTranslator<P, PropertyContainer>
 
 		final Subclass sub = declaredClass.getAnnotation(Subclass.class);
 		if (sub != null) {
-			discriminator = (sub.name().length() > 0) ? sub.name() : declaredClass.getSimpleName();
+			discriminator = ((sub.name().length() > 0) ? sub.name() : declaredClass.getSimpleName()).intern();
 			addIndexedDiscriminators(declaredClass);
 		} else {
 			discriminator = null;
@@ -99,27 +111,27 @@ public class ClassTranslator<P> extends NullSafeTranslator<P, PropertyContainer>
 	@Override
 	public P loadSafe(PropertyContainer container, LoadContext ctx, Path path) throws SkipException {
 		// check if we need to redirect to a different translator
-		String containerDiscriminator = (String)container.getProperty(DISCRIMINATOR_PROPERTY);
-		if (!Objects.equals(discriminator, containerDiscriminator)) {
-			ClassTranslator<? extends P> translator = byDiscriminator.get(containerDiscriminator);
-			if (translator == null) {
+		final String containerDiscriminator = (String)container.getProperty(DISCRIMINATOR_PROPERTY);
+		if (containerDiscriminator == discriminator || (containerDiscriminator != null && containerDiscriminator.equals(discriminator))) {
+			return loadHere(container, ctx, path);
+		} else {
+			final ClassTranslator<? extends P> translator = byDiscriminator.get(containerDiscriminator);
+			if (translator == null)
 				throw new IllegalStateException("Datastore object has discriminator value '" + containerDiscriminator + "' but no relevant @Subclass is registered");
-			} else {
-				// This line fixes alsoLoad names in discriminators by changing the discriminator to what the
-				// translator expects for loading that subclass. Otherwise we'll get the error above since the
-				// translator discriminator and the container discriminator won't match.
-				container.setUnindexedProperty(DISCRIMINATOR_PROPERTY, translator.getDiscriminator());
 
-				return translator.load(container, ctx, path);
-			}
-		} else {
-			// This is a normal load
-			P into = creator.load(container, ctx, path);
+			// Subclasses are registered with every translator up the hierarchy, so this is the final destination.
+			// It might have been found by an alsoLoad name, which its own discriminator check wouldn't accept.
+			return translator.loadHere(container, ctx, path);
+		}
+	}
 
-			populator.load(container, ctx, path, into);
+	/** Loads the container as exactly our declared class */
+	private P loadHere(PropertyContainer container, LoadContext ctx, Path path) throws SkipException {
+		P into = creator.load(container, ctx, path);
 
-			return into;
-		}
+		populator.load(container, ctx, path, into);
+
+		return into;
 	}
 
 	/* */
@@ -127,9 +139,13 @@ public class ClassTranslator<P> extends NullSafeTranslator<P, PropertyContainer>
 	public PropertyContainer saveSafe(P pojo, boolean index, SaveContext ctx, Path path) throws SkipException {
 		// check if we need to redirect to a different translator
 		if (pojo.getClass() != declaredClass) {
+			ClassTranslator<?> found = dispatch.get(pojo.getClass());
+			if (found == this)
+				found = byClass.get(pojo.getClass());
+
 			// Sometimes generics are more of a hindrance than a help
 			@SuppressWarnings("unchecked")
-			ClassTranslator<P> translator = (ClassTranslator<P>)byClass.get(pojo.getClass());
+			final ClassTranslator<P> translator = (ClassTranslator<P>)found;
 			if (translator == null)
 				throw new IllegalStateException("Class '" + pojo.getClass() + "' is not a registered @Subclass");
 			else
@@ -176,7 +192,7 @@ public class ClassTranslator<P> extends NullSafeTranslator<P, PropertyContainer>
 
 		Subclass sub = translator.getDeclaredClass().getAnnotation(Subclass.class);
 		for (String alsoLoad: sub.alsoLoad())
-			byDiscriminator.put(alsoLoad, translator);
+			byDiscriminator.put(alsoLoad.intern(), translator);
 
 		byClass.put(translator.getDeclaredClass(), translator);
 	}
@@ -6,8 +6,8 @@ import com.googlecode.objectify.annotation.Subclass;
 import com.googlecode.objectify.impl.KeyMetadata;
 import com.googlecode.objectify.impl.Path;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -36,7 +36,7 @@ import java.util.Map;
 public class ClassTranslatorFactory<P> implements TranslatorFactory<P, PropertyContainer>
 {
 	/** Cache of existing translators, see the class javadoc */
-	private Map<Class<P>, ClassTranslator<P>> translators = new HashMap<>();
+	private Map<Class<P>, ClassTranslator<P>> translators = new ConcurrentHashMap<>();
 
 	@Override
 	public ClassTranslator<P> create(TypeKey<P> tk, CreateContext ctx, Path path) {
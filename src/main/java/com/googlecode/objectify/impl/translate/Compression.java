@@ -0,0 +1,90 @@
+package com.googlecode.objectify.impl.translate;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>Whole-buffer deflate and inflate for the translators that compress their Blobs. Deflaters and Inflaters
+ * hold native memory which is only released by end() or finalization, so rather than creating one per value
+ * we keep one of each per thread and reset it between uses.</p>
+ */
+final class Compression
+{
+	/** Idle instances; taken out while in use, so a reentrant call just gets a fresh one */
+	private static final ThreadLocal<Deflater> DEFLATERS = new ThreadLocal<>();
+	private static final ThreadLocal<Inflater> INFLATERS = new ThreadLocal<>();
+
+	/** */
+	private static final int CHUNK = 4096;
+
+	private Compression() {}
+
+	/**
+	 * Deflates the input (in zlib format) and appends it to the output.
+	 */
+	static void deflate(byte[] input, int offset, int length, int level, ByteArrayOutputStream out) {
+		Deflater deflater = DEFLATERS.get();
+		if (deflater == null)
+			deflater = new Deflater();
+		else
+			DEFLATERS.set(null);
+
+		try {
+			deflater.setLevel(level);
+			deflater.setInput(input, offset, length);
+			deflater.finish();
+
+			final byte[] chunk = new byte[Math.min(CHUNK, Math.max(64, length))];
+			while (!deflater.finished()) {
+				final int deflated = deflater.deflate(chunk);
+				out.write(chunk, 0, deflated);
+			}
+		} finally {
+			deflater.reset();
+			if (DEFLATERS.get() == null)
+				DEFLATERS.set(deflater);
+			else
+				deflater.end();
+		}
+	}
+
+	/**
+	 * @return the inflated input
+	 * @throws DataFormatException if the input is not complete, valid zlib data
+	 */
+	static byte[] inflate(byte[] input, int offset, int length) throws DataFormatException {
+		Inflater inflater = INFLATERS.get();
+		if (inflater == null)
+			inflater = new Inflater();
+		else
+			INFLATERS.set(null);
+
+		try {
+			inflater.setInput(input, offset, length);
+
+			byte[] out = new byte[Math.max(64, length * 4)];
+			int outLength = 0;
+			while (!inflater.finished()) {
+				if (outLength == out.length)
+					out = Arrays.copyOf(out, out.length * 2);
+
+				final int inflated = inflater.inflate(out, outLength, out.length - outLength);
+				if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					throw new DataFormatException("Truncated compressed data");
+
+				outLength += inflated;
+			}
+
+			return outLength == out.length ? out : Arrays.copyOf(out, outLength);
+		} finally {
+			inflater.reset();
+			if (INFLATERS.get() == null)
+				INFLATERS.set(inflater);
+			else
+				inflater.end();
+		}
+	}
+}
@@ -64,7 +64,7 @@ public class EmbeddedMapTranslatorFactory implements TranslatorFactory<Map<Objec
 			((InitializeStringifier)stringifier).init(fact, keyType);
 
 		Type componentType = GenericUtils.getMapValueType(tk.getType());
-		final Translator<Object, Object> componentTranslator = fact.getTranslators().get(new TypeKey<>(componentType, tk), ctx, path);
+		final Translator<Object, Object> componentTranslator = ctx.getTranslator(new TypeKey<>(componentType, tk), ctx, path);
 
 		return new TranslatorRecycles<Map<Object,Object>, EmbeddedEntity>() {
 
@@ -13,7 +13,10 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * The context of a load operation, which may extend across several entities (for example, a batch).
@@ -24,8 +27,15 @@ public class LoadContext
 	/** */
 	LoadEngine engine;
 
-	/** Lazily created, but executed at the end of done() */
-	List<Runnable> deferred;
+	/**
+	 * Lazily created, but executed at the end of done(). Pairs of entries: a Runnable and null, or a Consumer
+	 * and the object to give it. Lifecycle methods on every loaded entity end up here, so this avoids a
+	 * closure per entity.
+	 */
+	List<Object> deferred;
+
+	/** Lazily created; the pojos for each @OnLoadBatch hook, which run after everything deferred */
+	Map<Consumer<List<Object>>, List<Object>> batches;
 
 	/** The key of the current root entity; will change as multiple entities are loaded */
 	Key<?> currentRoot;
@@ -67,13 +77,35 @@ public class LoadContext
 	public void done() {
 		engine.execute();
 
-		while (deferred != null) {
-			final List<Runnable> runme = deferred;
+		while (deferred != null || batches != null) {
+			final List<Object> runme = deferred;
 			deferred = null;	// reset this because it might get filled with more
 
-			for (final Runnable run: runme) {
-				log.trace("Executing {}", run);
-				run.run();
+			if (runme != null) {
+				for (int i = 0; i < runme.size(); i += 2) {
+					final Object action = runme.get(i);
+					final Object target = runme.get(i + 1);
+					log.trace("Executing {} on {}", action, target);
+
+					if (action instanceof Runnable) {
+						((Runnable)action).run();
+					} else {
+						@SuppressWarnings("unchecked")
+						final Consumer<Object> consumer = (Consumer<Object>)action;
+						consumer.accept(target);
+					}
+				}
+			}
+
+			// Batch hooks only once all the individual callbacks are done, in case those add more to the batch
+			if (deferred == null && batches != null) {
+				final Map<Consumer<List<Object>>, List<Object>> runBatches = batches;
+				batches = null;
+
+				for (final Map.Entry<Consumer<List<Object>>, List<Object>> batch: runBatches.entrySet()) {
+					log.trace("Executing {} on {} pojos", batch.getKey(), batch.getValue().size());
+					batch.getKey().accept(batch.getValue());
+				}
 			}
 		}
 	}
@@ -95,6 +127,30 @@ public class LoadContext
 		log.trace("Deferring: {}", runnable);
 
 		this.deferred.add(runnable);
+		this.deferred.add(null);
+	}
+
+	/**
+	 * Delays giving the target to the action until the context is done(). Unlike defer(Runnable), this doesn't
+	 * need a new closure for each target.
+	 */
+	public void defer(Consumer<Object> action, Object target) {
+		if (this.deferred == null)
+			this.deferred = new ArrayList<>();
+
+		this.deferred.add(action);
+		this.deferred.add(target);
+	}
+
+	/**
+	 * Adds the pojo to the batch for the hook, which will be executed once with all of them when the context
+	 * is done(), after everything deferred.
+	 */
+	public void deferBatch(Consumer<List<Object>> hook, Object pojo) {
+		if (this.batches == null)
+			this.batches = new LinkedHashMap<>();
+
+		this.batches.computeIfAbsent(hook, k -> new ArrayList<>()).add(pojo);
 	}
 
 	/**
@@ -35,7 +35,7 @@ public class MapifyTranslatorFactory implements TranslatorFactory<Map<Object, Ob
 		final ObjectifyFactory fact = ctx.getFactory();
 
 		Type componentType = GenericUtils.getMapValueType(tk.getType());
-		final Translator<Object, Object> componentTranslator = fact.getTranslators().get(new TypeKey(componentType, tk), ctx, path);
+		final Translator<Object, Object> componentTranslator = ctx.getTranslator(new TypeKey<>(componentType, tk), ctx, path);
 
 		@SuppressWarnings("unchecked")
 		final Mapper<Object, Object> mapper = (Mapper<Object, Object>)fact.construct(mapify.value());
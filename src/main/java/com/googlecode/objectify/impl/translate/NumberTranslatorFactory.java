@@ -14,6 +14,29 @@ import com.googlecode.objectify.impl.TypeUtils;
  */
 public class NumberTranslatorFactory implements TranslatorFactory<Number, Object>
 {
+	/**
+	 * The standard number translator. It has a name so that array translators can tell when the component
+	 * type would be translated by it, and take a shortcut.
+	 */
+	static class NumberTranslator extends ValueTranslator<Number, Object> {
+		private final Class<?> clazz;
+
+		NumberTranslator(Class<?> clazz) {
+			super(Object.class, clazz);
+			this.clazz = clazz;
+		}
+
+		@Override
+		protected Number loadValue(Object value, LoadContext ctx, Path path) throws SkipException {
+			return toNumber(value, clazz, path);
+		}
+
+		@Override
+		protected Object saveValue(Number value, boolean index, SaveContext ctx, Path path) throws SkipException {
+			return value;
+		}
+	}
+
 	@Override
 	public Translator<Number, Object> create(TypeKey<Number> tk, CreateContext ctx, Path path) {
 		final Class<?> clazz = Primitives.wrap(tk.getTypeAsClass());
@@ -21,31 +44,28 @@ public class NumberTranslatorFactory implements TranslatorFactory<Number, Object
 		if (!TypeUtils.isAssignableFrom(Number.class, clazz))
 			return null;
 
-		return new ValueTranslator<Number, Object>(Object.class, clazz) {
-			@Override
-			protected Number loadValue(Object value, LoadContext ctx, Path path) throws SkipException {
-				if (value instanceof String) {
-					try {
-						return coerceNumber(Long.valueOf((String)value), clazz);
-					} catch (NumberFormatException ex) {}
+		return new NumberTranslator(clazz);
+	}
 
-					try {
-						return coerceNumber(Double.valueOf((String)value), clazz);
-					} catch (NumberFormatException ex) {}
-				}
-				else if (value instanceof Number) {
-					return coerceNumber((Number)value, clazz);
-				}
+	/**
+	 * Converts a (non-null, non-RawValue) datastore value into a number of the specified wrapper type.
+	 */
+	static Number toNumber(Object value, Class<?> clazz, Path path) {
+		if (value instanceof Number) {
+			return coerceNumber((Number)value, clazz);
+		}
+		else if (value instanceof String) {
+			try {
+				return coerceNumber(Long.valueOf((String)value), clazz);
+			} catch (NumberFormatException ex) {}
 
-				path.throwIllegalState("Don't know how to translate " + value + " to a number");
-				return null;	// never gets here
-			}
+			try {
+				return coerceNumber(Double.valueOf((String)value), clazz);
+			} catch (NumberFormatException ex) {}
+		}
 
-			@Override
-			protected Object saveValue(Number value, boolean index, SaveContext ctx, Path path) throws SkipException {
-				return value;
-			}
-		};
+		path.throwIllegalState("Don't know how to translate " + value + " to a number");
+		return null;	// never gets here
 	}
 
 	/**
@@ -54,9 +74,10 @@ public class NumberTranslatorFactory implements TranslatorFactory<Number, Object
 	 * any type that expects something smaller. We don't need to worry about primitive
 	 * types because we wrapped the class earlier.
 	 */
-	private Number coerceNumber(Number value, Class<?> type)
+	private static Number coerceNumber(Number value, Class<?> type)
 	{
-		if (type == Number.class) return value;
+		// Usually it already is (Long and Double), and rewrapping would just allocate a copy
+		if (type == Number.class || type == value.getClass()) return value;
 		else if (type == Byte.class) return value.byteValue();
 		else if (type == Short.class) return value.shortValue();
 		else if (type == Integer.class) return value.intValue();
@@ -0,0 +1,209 @@
+package com.googlecode.objectify.impl.translate;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * <p>The binary format of {@code @Packed} values. A packed value is one header byte followed by a body,
+ * which may be deflated. The header holds the format version in the high nibble, a deflated flag, a delta
+ * flag, and the element encoding in the low two bits. The body is the element count as a varint followed
+ * by the elements:</p>
+ *
+ * <ul>
+ * <li>Integral values are zigzag varints, so small magnitudes (positive or negative) take few bytes. With
+ * delta encoding, each value is stored as its difference from the previous one.</li>
+ * <li>Floating point values are their IEEE bits, big-endian, in four or eight bytes.</li>
+ * </ul>
+ */
+final class PackedCodec
+{
+	/** Element encodings */
+	private static final int VARINT = 0;
+	private static final int FLOAT32 = 1;
+	private static final int FLOAT64 = 2;
+
+	private static final int ENCODING_MASK = 0x03;
+	private static final int DELTA = 0x04;
+	private static final int DEFLATED = 0x08;
+
+	private static final int VERSION = 0x10;
+	private static final int VERSION_MASK = 0xf0;
+
+	private PackedCodec() {}
+
+	/**
+	 * @param zipLevel is the Deflater compression level, or null for no compression
+	 */
+	static byte[] packLongs(long[] values, boolean delta, Integer zipLevel) {
+		final Writer out = new Writer(1 + 5 + values.length * 10);
+		out.varint(values.length);
+
+		long previous = 0;
+		for (long value: values) {
+			out.varint(zigzag(delta ? value - previous : value));
+			previous = value;
+		}
+
+		return out.finish(VARINT | (delta ? DELTA : 0), zipLevel);
+	}
+
+	/**
+	 * @param singlePrecision stores four byte floats instead of eight byte doubles
+	 * @param zipLevel is the Deflater compression level, or null for no compression
+	 */
+	static byte[] packDoubles(double[] values, boolean singlePrecision, Integer zipLevel) {
+		final Writer out = new Writer(1 + 5 + values.length * (singlePrecision ? 4 : 8));
+		out.varint(values.length);
+
+		for (double value: values) {
+			if (singlePrecision)
+				out.fixed(Float.floatToIntBits((float)value), 4);
+			else
+				out.fixed(Double.doubleToLongBits(value), 8);
+		}
+
+		return out.finish(singlePrecision ? FLOAT32 : FLOAT64, zipLevel);
+	}
+
+	/**
+	 * @return a long[] if the values were packed as integers, or a double[] if they were floating point
+	 * @throws IllegalArgumentException if the bytes are not a packed value
+	 */
+	static Object unpack(byte[] bytes) {
+		if (bytes.length == 0 || (bytes[0] & VERSION_MASK) != VERSION)
+			throw new IllegalArgumentException("Not a packed value");
+
+		final int header = bytes[0];
+		final Reader in = new Reader((header & DEFLATED) != 0 ? inflate(bytes) : bytes, (header & DEFLATED) != 0 ? 0 : 1);
+
+		final long count = in.varint();
+		if (count < 0 || count > in.remaining())	// Every element takes at least a byte
+			throw new IllegalArgumentException("Bad element count in packed value: " + count);
+
+		switch (header & ENCODING_MASK) {
+			case VARINT: {
+				final boolean delta = (header & DELTA) != 0;
+				final long[] values = new long[(int)count];
+				long previous = 0;
+				for (int i = 0; i < count; i++) {
+					final long value = unzigzag(in.varint());
+					values[i] = delta ? previous + value : value;
+					previous = values[i];
+				}
+				return values;
+			}
+
+			case FLOAT32: {
+				final double[] values = new double[(int)count];
+				for (int i = 0; i < count; i++)
+					values[i] = Float.intBitsToFloat((int)in.fixed(4));
+				return values;
+			}
+
+			case FLOAT64: {
+				final double[] values = new double[(int)count];
+				for (int i = 0; i < count; i++)
+					values[i] = Double.longBitsToDouble(in.fixed(8));
+				return values;
+			}
+
+			default:
+				throw new IllegalArgumentException("Unknown packed encoding " + (header & ENCODING_MASK));
+		}
+	}
+
+	/** */
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/** */
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/** Inflates everything after the header */
+	private static byte[] inflate(byte[] bytes) {
+		try {
+			return Compression.inflate(bytes, 1, bytes.length - 1);
+		} catch (DataFormatException ex) {
+			throw new IllegalArgumentException("Corrupt packed value", ex);
+		}
+	}
+
+	/** Writes into a buffer which is big enough from the start; the first byte is saved for the header */
+	private static class Writer {
+		private final byte[] buffer;
+		private int length = 1;
+
+		Writer(int capacity) {
+			this.buffer = new byte[capacity];
+		}
+
+		void varint(long value) {
+			while ((value & ~0x7fL) != 0) {
+				buffer[length++] = (byte)((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			buffer[length++] = (byte)value;
+		}
+
+		void fixed(long value, int bytes) {
+			for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8)
+				buffer[length++] = (byte)(value >>> shift);
+		}
+
+		byte[] finish(int flags, Integer zipLevel) {
+			if (zipLevel == null) {
+				buffer[0] = (byte)(VERSION | flags);
+				return Arrays.copyOf(buffer, length);
+			}
+
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 16);
+			out.write(VERSION | DEFLATED | flags);
+			Compression.deflate(buffer, 1, length - 1, zipLevel, out);
+			return out.toByteArray();
+		}
+	}
+
+	/** */
+	private static class Reader {
+		private final byte[] buffer;
+		private int position;
+
+		Reader(byte[] buffer, int position) {
+			this.buffer = buffer;
+			this.position = position;
+		}
+
+		long varint() {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				final byte b = next();
+				value |= (long)(b & 0x7f) << shift;
+				if ((b & 0x80) == 0)
+					return value;
+			}
+			throw new IllegalArgumentException("Malformed varint in packed value");
+		}
+
+		int remaining() {
+			return buffer.length - position;
+		}
+
+		long fixed(int bytes) {
+			long value = 0;
+			for (int i = 0; i < bytes; i++)
+				value = (value << 8) | (next() & 0xff);
+			return value;
+		}
+
+		private byte next() {
+			if (position >= buffer.length)
+				throw new IllegalArgumentException("Truncated packed value");
+
+			return buffer[position++];
+		}
+	}
+}
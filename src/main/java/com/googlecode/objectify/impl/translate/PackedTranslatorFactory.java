@@ -0,0 +1,311 @@
+package com.googlecode.objectify.impl.translate;
+
+import com.google.appengine.api.datastore.Blob;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Primitives;
+import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.annotation.Index;
+import com.googlecode.objectify.annotation.Packed;
+import com.googlecode.objectify.impl.Path;
+import com.googlecode.objectify.repackaged.gentyref.GenericTypeReflector;
+import com.googlecode.objectify.util.GenericUtils;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+
+/**
+ * <p>Translator which stores {@code @Packed} arrays and collections of numbers as a single Blob. See
+ * {@code PackedCodec} for the format.</p>
+ *
+ * <p>Loading also understands the normal list format, so that fields which become {@code @Packed} can still
+ * read entities saved before the change. Collections in the pojo are recycled, just like the
+ * CollectionTranslatorFactory does.</p>
+ */
+public class PackedTranslatorFactory implements TranslatorFactory<Object, Object>
+{
+	/** Element types which are packed as integers */
+	private static final Set<Class<?>> INTEGRAL = ImmutableSet.<Class<?>>of(Long.class, Integer.class, Short.class);
+
+	/** Element types which are packed as floating point */
+	private static final Set<Class<?>> FLOATING = ImmutableSet.<Class<?>>of(Double.class, Float.class);
+
+	/** Converts between pojo values and the long[] or double[] that the codec works with */
+	private static class Packing {
+		private final Class<?> elementType;
+		private final boolean floating;
+		private final boolean delta;
+		private final Integer zipLevel;
+
+		Packing(Packed packed, Class<?> elementType) {
+			this.elementType = elementType;
+			this.floating = FLOATING.contains(elementType);
+			this.delta = packed.delta();
+			this.zipLevel = packed.zip() ? packed.compressionLevel() : null;
+		}
+
+		/** @param pojo is an array or collection of elementType */
+		Blob pack(Object pojo, Path path) throws SkipException {
+			// Use same behavior as collections; the datastore doesn't store empty lists
+			if (pojo == null)
+				throw new SkipException();
+
+			if (floating) {
+				final double[] values = doubles(pojo, path);
+				if (values.length == 0)
+					throw new SkipException();
+
+				return new Blob(PackedCodec.packDoubles(values, elementType == Float.class, zipLevel));
+			} else {
+				final long[] values = longs(pojo, path);
+				if (values.length == 0)
+					throw new SkipException();
+
+				return new Blob(PackedCodec.packLongs(values, delta, zipLevel));
+			}
+		}
+
+		/** @return a long[] or double[], depending on whether the elements are floating point */
+		Object unpack(Object node, Path path) throws SkipException {
+			if (node == null)
+				throw new SkipException();
+
+			final Object values;
+			if (node instanceof Blob) {
+				try {
+					values = PackedCodec.unpack(((Blob)node).getBytes());
+				} catch (IllegalArgumentException ex) {
+					path.throwIllegalState("Unable to unpack " + node, ex);
+					return null;	// never gets here
+				}
+			}
+			else if (node instanceof Collection) {
+				values = fromList((Collection<?>)node, path);
+			}
+			else if (node instanceof Number || node instanceof String) {
+				values = fromList(Collections.singletonList(node), path);
+			}
+			else {
+				path.throwIllegalState("Expected a packed Blob or a list, got " + node.getClass() + ": " + node);
+				return null;	// never gets here
+			}
+
+			// The element type might have changed since the values were saved
+			if (floating && values instanceof long[]) {
+				final long[] longs = (long[])values;
+				final double[] doubles = new double[longs.length];
+				for (int i = 0; i < longs.length; i++)
+					doubles[i] = longs[i];
+				return doubles;
+			}
+			else if (!floating && values instanceof double[]) {
+				final double[] doubles = (double[])values;
+				final long[] longs = new long[doubles.length];
+				for (int i = 0; i < doubles.length; i++)
+					longs[i] = (long)doubles[i];
+				return longs;
+			}
+			else {
+				return values;
+			}
+		}
+
+		/** Reads values saved as a normal list property; nulls are skipped */
+		private Object fromList(Collection<?> list, Path path) {
+			if (floating) {
+				final double[] values = new double[list.size()];
+				int count = 0;
+				for (Object value: list)
+					if (value != null)
+						values[count++] = NumberTranslatorFactory.toNumber(value, Double.class, path).doubleValue();
+				return Arrays.copyOf(values, count);
+			} else {
+				final long[] values = new long[list.size()];
+				int count = 0;
+				for (Object value: list)
+					if (value != null)
+						values[count++] = NumberTranslatorFactory.toNumber(value, Long.class, path).longValue();
+				return Arrays.copyOf(values, count);
+			}
+		}
+
+		/** @return element i of the unpacked values, as an elementType */
+		Object box(Object values, int i, Path path) {
+			final Number number = values instanceof long[] ? (Number)((long[])values)[i] : (Number)((double[])values)[i];
+			return NumberTranslatorFactory.toNumber(number, elementType, path);
+		}
+
+		/** */
+		private double[] doubles(Object pojo, Path path) {
+			if (pojo instanceof double[])
+				return (double[])pojo;
+
+			if (pojo instanceof float[]) {
+				final float[] floats = (float[])pojo;
+				final double[] values = new double[floats.length];
+				for (int i = 0; i < floats.length; i++)
+					values[i] = floats[i];
+				return values;
+			}
+
+			final Collection<?> elements = elements(pojo);
+			final double[] values = new double[elements.size()];
+			int i = 0;
+			for (Object element: elements)
+				values[i++] = number(element, path).doubleValue();
+			return values;
+		}
+
+		/** */
+		private long[] longs(Object pojo, Path path) {
+			if (pojo instanceof long[])
+				return (long[])pojo;
+
+			if (pojo instanceof int[]) {
+				final int[] ints = (int[])pojo;
+				final long[] values = new long[ints.length];
+				for (int i = 0; i < ints.length; i++)
+					values[i] = ints[i];
+				return values;
+			}
+
+			if (pojo instanceof short[]) {
+				final short[] shorts = (short[])pojo;
+				final long[] values = new long[shorts.length];
+				for (int i = 0; i < shorts.length; i++)
+					values[i] = shorts[i];
+				return values;
+			}
+
+			final Collection<?> elements = elements(pojo);
+			final long[] values = new long[elements.size()];
+			int i = 0;
+			for (Object element: elements)
+				values[i++] = number(element, path).longValue();
+			return values;
+		}
+
+		/** @param pojo is an array of wrappers or a collection */
+		private Collection<?> elements(Object pojo) {
+			return pojo instanceof Object[] ? Arrays.asList((Object[])pojo) : (Collection<?>)pojo;
+		}
+
+		/** */
+		private Number number(Object element, Path path) {
+			if (element == null)
+				path.throwIllegalState("@Packed arrays and collections cannot contain nulls");
+
+			return (Number)element;
+		}
+	}
+
+	@Override
+	public Translator<Object, Object> create(TypeKey<Object> tk, CreateContext ctx, Path path) {
+		final Packed packed = tk.getAnnotation(Packed.class);
+
+		// We only work with @Packed fields
+		if (packed == null)
+			return null;
+
+		if (tk.isAnnotationPresent(Index.class))
+			path.throwIllegalState("@Packed values are stored as a Blob, which cannot be indexed");
+
+		final Class<?> type = tk.getTypeAsClass();
+
+		final Class<?> elementType;
+		if (type.isArray())
+			elementType = Primitives.wrap(type.getComponentType());
+		else if (Collection.class.isAssignableFrom(type))
+			elementType = GenericTypeReflector.erase(GenericUtils.getCollectionComponentType(tk.getType()));
+		else
+			elementType = null;
+
+		if (!INTEGRAL.contains(elementType) && !FLOATING.contains(elementType))
+			path.throwIllegalState("@Packed only works on arrays and collections of numbers, not " + tk.getType());
+
+		final Packing packing = new Packing(packed, elementType);
+
+		if (type.isArray())
+			return new Translator<Object, Object>() {
+				@Override
+				public Object load(Object node, LoadContext ctx, Path path) throws SkipException {
+					return toArray(packing.unpack(node, path), type.getComponentType(), packing, path);
+				}
+
+				@Override
+				public Object save(Object pojo, boolean index, SaveContext ctx, Path path) throws SkipException {
+					return packing.pack(pojo, path);
+				}
+			};
+
+		final ObjectifyFactory fact = ctx.getFactory();
+
+		return new TranslatorRecycles<Object, Object>() {
+			@Override
+			protected Object loadInto(Object node, LoadContext ctx, Path path, Object into) throws SkipException {
+				final Object values = packing.unpack(node, path);
+				final int length = Array.getLength(values);
+
+				@SuppressWarnings("unchecked")
+				Collection<Object> collection = (Collection<Object>)into;
+				if (collection == null)
+					//noinspection unchecked
+					collection = (Collection<Object>)fact.constructCollection((Class<? extends Collection<?>>)type, length);
+				else
+					collection.clear();
+
+				for (int i = 0; i < length; i++)
+					collection.add(packing.box(values, i, path));
+
+				return collection;
+			}
+
+			@Override
+			public Object save(Object pojo, boolean index, SaveContext ctx, Path path) throws SkipException {
+				return packing.pack(pojo, path);
+			}
+		};
+	}
+
+	/**
+	 * @param values is a long[] or double[] straight from the Packing, which we may hand out as-is
+	 */
+	private static Object toArray(Object values, Class<?> componentType, Packing packing, Path path) {
+		if (componentType == Long.TYPE || componentType == Double.TYPE)
+			return values;
+
+		final int length = Array.getLength(values);
+
+		if (componentType == Integer.TYPE) {
+			final long[] longs = (long[])values;
+			final int[] array = new int[length];
+			for (int i = 0; i < length; i++)
+				array[i] = (int)longs[i];
+			return array;
+		}
+
+		if (componentType == Short.TYPE) {
+			final long[] longs = (long[])values;
+			final short[] array = new short[length];
+			for (int i = 0; i < length; i++)
+				array[i] = (short)longs[i];
+			return array;
+		}
+
+		if (componentType == Float.TYPE) {
+			final double[] doubles = (double[])values;
+			final float[] array = new float[length];
+			for (int i = 0; i < length; i++)
+				array[i] = (float)doubles[i];
+			return array;
+		}
+
+		final Object[] array = (Object[])Array.newInstance(componentType, length);
+		for (int i = 0; i < length; i++)
+			array[i] = packing.box(values, i, path);
+		return array;
+	}
+}
@@ -3,28 +3,55 @@ package com.googlecode.objectify.impl.translate;
 import com.google.appengine.api.datastore.Blob;
 import com.googlecode.objectify.annotation.Serialize;
 import com.googlecode.objectify.impl.Path;
-import lombok.extern.slf4j.Slf4j;
+import com.googlecode.objectify.serializer.CompactSerializer;
+import com.googlecode.objectify.serializer.JavaSerializer;
+import com.googlecode.objectify.serializer.Serializer;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.OutputStream;
-import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.InflaterInputStream;
 
 
 /**
  * <p>Loader which can load any serialized thing from a Blob.</p>
  *
+ * <p>Java serialization is stored as it always has been: the raw stream, or the raw stream deflated. Those
+ * are easy to tell apart by their first byte (0xAC for java serialization, 0x78 for zlib). Every other
+ * serializer's output is preceded by a header byte that records the format and whether it is deflated.
+ * Either way, a value can be decoded in a single pass no matter which annotation settings wrote it.</p>
+ *
  * @author Jeff Schnitzer <jeff@infohazard.org>
  */
-@Slf4j
 public class SerializeTranslatorFactory implements TranslatorFactory<Object, Blob>
 {
+	/** The high nibble of the header byte; can't be confused with java serialization or zlib */
+	private static final int HEADER = 0x50;
+	private static final int HEADER_MASK = 0xf0;
+	private static final int DEFLATED = 0x08;
+
+	/** Formats, in the low bits of the header. Custom means whatever the field's serializer is. */
+	private static final int FORMAT_MASK = 0x07;
+	private static final int FORMAT_CUSTOM = 0;
+	private static final int FORMAT_COMPACT = 1;
+
+	/** First byte of a java serialization stream */
+	private static final byte JAVA_MAGIC = (byte)0xAC;
+
+	/** For reading formats other than the field's own */
+	private static final Serializer JAVA = new JavaSerializer();
+	private static final Serializer COMPACT = new CompactSerializer();
+
+	/** Lets us write the header and the deflated data without copying */
+	private static class Buffer extends ByteArrayOutputStream {
+		Buffer(int size) {
+			super(size);
+		}
+
+		byte[] bytes() {
+			return buf;
+		}
+	}
+
 	@Override
 	public Translator<Object, Blob> create(TypeKey<Object> tk, CreateContext ctx, Path path) {
 		final Serialize serializeAnno = tk.getAnnotationAnywhere(Serialize.class);
@@ -33,24 +60,25 @@ public class SerializeTranslatorFactory implements TranslatorFactory<Object, Blo
 		if (serializeAnno == null)
 			return null;
 
+		final Serializer serializer = ctx.getFactory().construct(serializeAnno.serializer());
+		final boolean java = serializer instanceof JavaSerializer;
+		final Serializer legacy = java ? serializer : JAVA;
+		final int format = serializer.getClass() == CompactSerializer.class ? FORMAT_COMPACT : FORMAT_CUSTOM;
+
 		return new ValueTranslator<Object, Blob>(Blob.class) {
 			@Override
 			protected Object loadValue(Blob value, LoadContext ctx, Path path) throws SkipException {
-				// Need to be careful here because we don't really know if the data was serialized or not.  Start
-				// with whatever the annotation says, and if that doesn't work, try the other option.
+				final byte[] bytes = value.getBytes();
+
 				try {
-					ByteArrayInputStream bais = new ByteArrayInputStream(value.getBytes());
-
-					// Start with the annotation
-					boolean unzip = serializeAnno.zip();
-					try {
-						return readObject(bais, unzip);
-					} catch (IOException ex) {	// will be one of ZipException or StreamCorruptedException
-						if (log.isInfoEnabled())
-							log.info("Error trying to deserialize object using unzip=" + unzip + ", retrying with " + !unzip, ex);
-
-						unzip = !unzip;
-						return readObject(bais, unzip);	// this will pass the exception up
+					if (bytes.length > 0 && (bytes[0] & HEADER_MASK) == HEADER) {
+						final int header = bytes[0];
+						final Serializer reader = (header & FORMAT_MASK) == FORMAT_COMPACT ? COMPACT : serializer;
+						return reader.read(stream(bytes, 1, (header & DEFLATED) != 0));
+					}
+					else {
+						// Written by java serialization, possibly deflated
+						return legacy.read(stream(bytes, 0, bytes.length == 0 || bytes[0] != JAVA_MAGIC));
 					}
 				} catch (Exception ex) {
 					path.throwIllegalState("Unable to deserialize " + value, ex);
@@ -61,36 +89,35 @@ public class SerializeTranslatorFactory implements TranslatorFactory<Object, Blo
 			@Override
 			protected Blob saveValue(Object value, boolean index, SaveContext ctx, Path path) throws SkipException {
 				try {
-					ByteArrayOutputStream baos = new ByteArrayOutputStream();
-					OutputStream out = baos;
+					final Buffer out = new Buffer(256);
 
-					if (serializeAnno.zip()) {
-						Deflater deflater = new Deflater(serializeAnno.compressionLevel());
-						out = new DeflaterOutputStream(out, deflater);
-					}
+					if (!java)
+						out.write(HEADER | format | (serializeAnno.zip() ? DEFLATED : 0));
+
+					final int start = out.size();
+					serializer.write(value, out);
+
+					if (!serializeAnno.zip())
+						return new Blob(out.toByteArray());
 
-					ObjectOutputStream oos = new ObjectOutputStream(out);
-					oos.writeObject(value);
-					oos.close();
+					final Buffer zipped = new Buffer(out.size() / 2 + 16);
+					zipped.write(out.bytes(), 0, start);
+					Compression.deflate(out.bytes(), start, out.size() - start, serializeAnno.compressionLevel(), zipped);
 
-					return new Blob(baos.toByteArray());
+					return new Blob(zipped.toByteArray());
 
-				} catch (IOException ex) {
+				} catch (Exception ex) {
 					path.throwIllegalState("Unable to serialize " + value, ex);
 					return null;	// never gets here
 				}
 			}
 
-			/** Try reading an object from the stream */
-			private Object readObject(ByteArrayInputStream bais, boolean unzip) throws IOException, ClassNotFoundException {
-				bais.reset();
-				InputStream in = bais;
-
-				if (unzip)
-					in = new InflaterInputStream(in);
-
-				ObjectInputStream ois = new ObjectInputStream(in);
-				return ois.readObject();
+			/** */
+			private InputStream stream(byte[] bytes, int offset, boolean deflated) throws Exception {
+				if (deflated)
+					return new ByteArrayInputStream(Compression.inflate(bytes, offset, bytes.length - offset));
+				else
+					return new ByteArrayInputStream(bytes, offset, bytes.length - offset);
 			}
 		};
 	}
@@ -2,10 +2,10 @@ package com.googlecode.objectify.impl.translate;
 
 import com.google.appengine.api.datastore.DataTypeUtils;
 import com.google.appengine.api.datastore.Text;
+import com.googlecode.objectify.annotation.AsText;
 import com.googlecode.objectify.impl.Path;
 import lombok.extern.java.Log;
 
-import java.nio.charset.StandardCharsets;
 import java.util.logging.Level;
 
 
@@ -14,6 +14,8 @@ import java.util.logging.Level;
  * Will work with anything that's in the datastore just by calling toString() on what we get back;
  * convenient for converting between say Number and the String representation, possibly dangerous
  * otherwise. 
+ *
+ * <p>Fields marked {@code @AsText} are always saved as Text.</p>
  */
 @Log
 public class StringTranslatorFactory extends ValueTranslatorFactory<String, Object>
@@ -37,6 +39,8 @@ public class StringTranslatorFactory extends ValueTranslatorFactory<String, Obje
 	
 	@Override
 	protected ValueTranslator<String, Object> createValueTranslator(TypeKey<String> tk, CreateContext ctx, Path path) {
+		final boolean alwaysText = tk.isAnnotationPresent(AsText.class);
+
 		return new ValueTranslator<String, Object>(Object.class, String.class) {
 			@Override
 			protected String loadValue(Object value, LoadContext ctx, Path path) throws SkipException {
@@ -48,6 +52,9 @@ public class StringTranslatorFactory extends ValueTranslatorFactory<String, Obje
 
 			@Override
 			protected Object saveValue(String value, boolean index, SaveContext ctx, Path path) throws SkipException {
+				if (alwaysText)
+					return new Text(value);
+
 				// Check to see if it's too long and needs to be Text instead
 				if (needsConversion(value)) {
 					if (index)
@@ -63,9 +70,43 @@ public class StringTranslatorFactory extends ValueTranslatorFactory<String, Obje
 				if (value.length() < SAFE_STRING_CHARS)
 					return false;
 
-				final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
-				return bytes.length > MAX_STRING_BYTES;
+				// Every char is at least one byte
+				if (value.length() > MAX_STRING_BYTES)
+					return true;
+
+				return utf8Length(value, MAX_STRING_BYTES) > MAX_STRING_BYTES;
 			}
 		};
 	}
+
+	/**
+	 * Measures the UTF-8 encoding of a string without doing the encoding. Unpaired surrogates count as one
+	 * byte, because that's what String.getBytes() replaces them with.
+	 *
+	 * @param limit we stop counting as soon as we pass this many bytes
+	 * @return the number of bytes, or some number greater than limit
+	 */
+	static int utf8Length(final String value, final int limit) {
+		final int length = value.length();
+		int bytes = 0;
+
+		for (int i = 0; i < length && bytes <= limit; i++) {
+			final char ch = value.charAt(i);
+
+			if (ch < 0x80)
+				bytes += 1;
+			else if (ch < 0x800)
+				bytes += 2;
+			else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				bytes += 4;
+				i++;
+			}
+			else if (Character.isSurrogate(ch))
+				bytes += 1;
+			else
+				bytes += 3;
+		}
+
+		return bytes;
+	}
 }
\ No newline at end of file
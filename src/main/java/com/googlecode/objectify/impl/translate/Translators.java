@@ -3,6 +3,7 @@ package com.googlecode.objectify.impl.translate;
 import com.google.appengine.api.datastore.PropertyContainer;
 import com.googlecode.objectify.ObjectifyFactory;
 import com.googlecode.objectify.impl.Path;
+import com.googlecode.objectify.impl.Property;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,6 +22,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * will provide a Translator.  The first one found is kept and used during runtime
  * assembly and disassembly of entities.</p>
  *
+ * <p>Lookups are safe from any thread. Creation happens under a lock on this object, since creating one
+ * translator can recursively create (and register subclasses with) many others.</p>
+ *
  * @author Jeff Schnitzer <jeff@infohazard.org>
  */
 public class Translators
@@ -40,6 +44,12 @@ public class Translators
 	/** */
 	Map<TypeKey, Translator<?, ?>> translators = new ConcurrentHashMap<>();
 
+	/** Same translators as above, for plain classes without annotations; classes hash and compare by identity */
+	Map<Class<?>, Translator<?, ?>> classTranslators = new ConcurrentHashMap<>();
+
+	/** Properties found ahead of time by prepare(), waiting for their class translator to be created */
+	Map<Class<?>, List<Property>> preparedProperties = new ConcurrentHashMap<>();
+
 	/**
 	 * Initialize the default set of converters in the proper order.
 	 */
@@ -56,12 +66,14 @@ public class Translators
 		// Annotation based translators go first
 		this.translatorFactories.add(new ContainerTranslatorFactory());
 		this.translatorFactories.add(new SerializeTranslatorFactory());	// Serialize has priority over everything
+		this.translatorFactories.add(new PackedTranslatorFactory());
 		this.translatorFactories.add(new MapifyTranslatorFactory());
 
 		// Magic inflection point at which we want to prioritize added normal translators
 		this.insertPoint = this.translatorFactories.size();
 
 		this.translatorFactories.add(new ByteArrayTranslatorFactory());
+		this.translatorFactories.add(new PrimitiveArrayTranslatorFactory());	// Also before array, which would box every element
 		this.translatorFactories.add(new ArrayTranslatorFactory());		// AFTER byte array otherwise we will occlude it
 		this.translatorFactories.add(new CollectionTranslatorFactory());
 		this.translatorFactories.add(new EmbeddedMapTranslatorFactory());
@@ -114,8 +126,29 @@ public class Translators
 
 		Translator<?, ?> translator = translators.get(tk);
 		if (translator == null) {
-			translator = create(tk, ctx, path);
-			translators.put(tk, translator);
+			synchronized (this) {
+				translator = translators.get(tk);
+				if (translator == null) {
+					translator = create(tk, ctx, path);
+					translators.put(tk, translator);
+				}
+			}
+		}
+
+		//noinspection unchecked
+		return (Translator<P, D>)translator;
+	}
+
+	/**
+	 * Obtains the Translator for a plain class, with no annotations. This is what runtime lookups want, for
+	 * values whose class isn't known until they show up; once a class has been seen, it's a single identity
+	 * lookup with no allocation.
+	 */
+	public <P, D> Translator<P, D> get(Class<P> clazz) {
+		Translator<?, ?> translator = classTranslators.get(clazz);
+		if (translator == null) {
+			translator = get(new TypeKey(clazz), new CreateContext(fact), Path.root());
+			classTranslators.put(clazz, translator);
 		}
 
 		//noinspection unchecked
@@ -126,7 +159,41 @@ public class Translators
 	 * Get the translator for a root entity class
 	 */
 	public <P> Translator<P, PropertyContainer> getRoot(Class<P> clazz) {
-		return get(new TypeKey(clazz), new CreateContext(fact), Path.root());
+		return get(clazz);
+	}
+
+	/**
+	 * <p>Does the reflection for a class and its superclasses (finding and examining the persistent fields)
+	 * ahead of translator creation. This is a large part of the cost of registration and, unlike translator
+	 * creation, it can run on many threads at once. The results are picked up when the class translators
+	 * are created.</p>
+	 *
+	 * <p>Problems are ignored here; they will be reported with full context when the translator is created.</p>
+	 */
+	public void prepare(Class<?> clazz) {
+		for (Class<?> cls = clazz; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+			if (!preparedProperties.containsKey(cls)) {
+				try {
+					preparedProperties.put(cls, ClassPopulator.getDeclaredProperties(fact, cls));
+				} catch (RuntimeException ex) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the properties found by prepare(), or null if the class wasn't prepared. Each list is handed out once.
+	 */
+	List<Property> takePreparedProperties(Class<?> clazz) {
+		return preparedProperties.remove(clazz);
+	}
+
+	/**
+	 * Forget anything prepared which wasn't used, eg superclasses which already had translators.
+	 */
+	public void clearPrepared() {
+		preparedProperties.clear();
 	}
 
 	/**
@@ -2,34 +2,54 @@ package com.googlecode.objectify.impl.translate;
 
 import com.googlecode.objectify.impl.Property;
 import com.googlecode.objectify.repackaged.gentyref.GenericTypeReflector;
-import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <p>Unique identifier for a translator instance. Important so we can re-use translators
  * as we navigate the tree, allowing us to store recursive structures.</p>
+ *
+ * <p>Annotation arrays are interned, so that equal sets of annotations are the same array. That way
+ * comparing typekeys never has to compare (or hash) the annotations themselves, which is slow.</p>
  * 
  * @author Jeff Schnitzer <jeff@infohazard.org>
  */
-@Data
-@RequiredArgsConstructor
+@Getter
+@ToString(exclude = "hash")
 public class TypeKey<T>
 {
 	/** */
 	private static final Annotation[] NO_ANNOTATIONS = {};
 
+	/** Canonical instances of every set of annotations we have seen */
+	private static final ConcurrentMap<List<Annotation>, Annotation[]> INTERNED = new ConcurrentHashMap<>();
+
 	/** */
 	private final Type type;
 
 	/** */
 	private final Annotation[] annotations;
 
+	/** */
+	@Getter(AccessLevel.NONE)
+	private final int hash;
+
 	/** */
 	public TypeKey(Type type) {
-		this(type, NO_ANNOTATIONS);
+		this(NO_ANNOTATIONS, type);
+	}
+
+	/** */
+	public TypeKey(Type type, Annotation[] annotations) {
+		this(intern(annotations), type);
 	}
 
 	/**
@@ -37,7 +57,7 @@ public class TypeKey<T>
 	 * This is used when creating a new typekey for component types.
 	 */
 	public TypeKey(Type type, TypeKey previous) {
-		this(type, previous.getAnnotations());
+		this(previous.annotations, type);
 	}
 
 	/**
@@ -47,6 +67,41 @@ public class TypeKey<T>
 		this(prop.getType(), prop.getAnnotations());
 	}
 
+	/** @param annotations must already be interned */
+	private TypeKey(Annotation[] annotations, Type type) {
+		this.type = type;
+		this.annotations = annotations;
+		this.hash = type.hashCode() * 31 + System.identityHashCode(annotations);
+	}
+
+	/** @return the canonical array with the same annotations */
+	private static Annotation[] intern(Annotation[] annotations) {
+		if (annotations.length == 0)
+			return NO_ANNOTATIONS;
+
+		final Annotation[] existing = INTERNED.putIfAbsent(Arrays.asList(annotations), annotations);
+		return existing == null ? annotations : existing;
+	}
+
+	/** Annotations are interned, so they can be compared by identity */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+
+		if (!(o instanceof TypeKey))
+			return false;
+
+		final TypeKey<?> other = (TypeKey<?>)o;
+		return hash == other.hash && annotations == other.annotations && type.equals(other.type);
+	}
+
+	/** */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
 	/**
 	 * Get the basic class through erasure.
 	 */
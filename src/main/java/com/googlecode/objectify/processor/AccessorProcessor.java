@@ -0,0 +1,195 @@
+package com.googlecode.objectify.processor;
+
+import com.googlecode.objectify.impl.GeneratedAccessors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>Optional annotation processor which generates a {@link GeneratedAccessors} class for each {@code @Entity}
+ * and {@code @Subclass} class (and any superclasses being compiled with them). At registration, Objectify
+ * takes the list of persistent fields from the generated class instead of working it out by reflection, and
+ * reads and writes the fields with plain field access.</p>
+ *
+ * <p>It is not registered as a service, so it never runs by accident; name it explicitly, eg with
+ * {@code javac -processor com.googlecode.objectify.processor.AccessorProcessor} or in the
+ * {@code annotationProcessors} of the maven-compiler-plugin. Classes without generated accessors
+ * are handled by reflection as usual.</p>
+ *
+ * <p>Private fields, and fields of private classes, can't be reached from the generated code. They are still
+ * listed, but read and written by reflection.</p>
+ */
+@SupportedAnnotationTypes({
+		"com.googlecode.objectify.annotation.Entity",
+		"com.googlecode.objectify.annotation.Subclass",
+})
+public class AccessorProcessor extends AbstractProcessor
+{
+	/** Persistent fields don't have these */
+	private static final String IGNORE = "com.googlecode.objectify.annotation.Ignore";
+
+	/** Classes we have already generated for, across rounds */
+	private final Set<String> generated = new HashSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation: annotations) {
+			for (TypeElement type: ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+				// Superclasses have their own populators, so they need their own accessors
+				for (TypeElement cls = type; cls != null; cls = superclassInCompilation(cls, roundEnv)) {
+					if (generated.add(cls.getQualifiedName().toString()))
+						generate(cls);
+				}
+			}
+		}
+
+		// Other processors might want to see the annotations too
+		return false;
+	}
+
+	/** @return the superclass if we are compiling it right now, otherwise null */
+	private TypeElement superclassInCompilation(TypeElement type, RoundEnvironment roundEnv) {
+		final Element superclass = processingEnv.getTypeUtils().asElement(type.getSuperclass());
+		if (superclass instanceof TypeElement && roundEnv.getRootElements().contains(outermost(superclass)))
+			return (TypeElement)superclass;
+		else
+			return null;
+	}
+
+	/** */
+	private Element outermost(Element element) {
+		while (element.getEnclosingElement() != null && element.getEnclosingElement().getKind() != ElementKind.PACKAGE)
+			element = element.getEnclosingElement();
+
+		return element;
+	}
+
+	/** Same rules as ClassPopulator: not static, final, @Ignore, or a scala bitmap$init field */
+	private boolean isOfInterest(VariableElement field) {
+		if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.FINAL))
+			return false;
+
+		if (field.getSimpleName().toString().startsWith("bitmap$init"))
+			return false;
+
+		return field.getAnnotationMirrors().stream()
+				.noneMatch(mirror -> ((TypeElement)mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(IGNORE));
+	}
+
+	/** @return true if code in the same package can name the class */
+	private boolean isReachable(TypeElement type) {
+		for (Element element = type; element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement())
+			if (element.getModifiers().contains(Modifier.PRIVATE))
+				return false;
+
+		return true;
+	}
+
+	/** @return the name of the type to cast field values to */
+	private String castType(TypeMirror type) {
+		if (type.getKind().isPrimitive())
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType)type).getQualifiedName().toString();
+		else
+			return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	/** */
+	private void generate(TypeElement type) {
+		final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		final String localName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+		final String generatedName = localName.replace('$', '_') + GeneratedAccessors.SUFFIX;
+		final String typeName = type.getQualifiedName().toString();
+
+		final List<VariableElement> fields = new ArrayList<>();
+		for (VariableElement field: ElementFilter.fieldsIn(type.getEnclosedElements()))
+			if (isOfInterest(field))
+				fields.add(field);
+
+		final boolean reachable = isReachable(type);
+
+		try {
+			final JavaFileObject file = processingEnv.getFiler().createSourceFile(
+					(packageName.isEmpty() ? "" : packageName + ".") + generatedName, type);
+
+			try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+				if (!packageName.isEmpty()) {
+					out.println("package " + packageName + ";");
+					out.println();
+				}
+
+				out.println("/** Generated by " + AccessorProcessor.class.getName() + " for " + typeName + "; do not edit */");
+				out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+				out.println("public final class " + generatedName + " implements " + GeneratedAccessors.class.getName() + " {");
+
+				out.print("\tprivate static final String[] NAMES = {");
+				for (int i = 0; i < fields.size(); i++)
+					out.print((i == 0 ? " \"" : ", \"") + fields.get(i).getSimpleName() + "\"");
+				out.println(" };");
+				out.println();
+
+				out.println("\t@Override public String[] getFieldNames() { return NAMES.clone(); }");
+				out.println();
+
+				out.println("\t@Override public boolean isAccessible(int field) {");
+				out.println("\t\tswitch (field) {");
+				for (int i = 0; i < fields.size(); i++)
+					if (reachable && !fields.get(i).getModifiers().contains(Modifier.PRIVATE))
+						out.println("\t\t\tcase " + i + ": return true;");
+				out.println("\t\t\tdefault: return false;");
+				out.println("\t\t}");
+				out.println("\t}");
+				out.println();
+
+				out.println("\t@Override public Object get(Object pojo, int field) {");
+				out.println("\t\tswitch (field) {");
+				for (int i = 0; i < fields.size(); i++)
+					if (reachable && !fields.get(i).getModifiers().contains(Modifier.PRIVATE))
+						out.println("\t\t\tcase " + i + ": return ((" + typeName + ")pojo)." + fields.get(i).getSimpleName() + ";");
+				out.println("\t\t\tdefault: throw new IllegalArgumentException(\"No accessor for field \" + field);");
+				out.println("\t\t}");
+				out.println("\t}");
+				out.println();
+
+				out.println("\t@Override public void set(Object pojo, int field, Object value) {");
+				out.println("\t\tswitch (field) {");
+				for (int i = 0; i < fields.size(); i++)
+					if (reachable && !fields.get(i).getModifiers().contains(Modifier.PRIVATE))
+						out.println("\t\t\tcase " + i + ": ((" + typeName + ")pojo)." + fields.get(i).getSimpleName() + " = (" + castType(fields.get(i).asType()) + ")value; break;");
+				out.println("\t\t\tdefault: throw new IllegalArgumentException(\"No accessor for field \" + field);");
+				out.println("\t\t}");
+				out.println("\t}");
+
+				out.println("}");
+			}
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to generate Objectify accessors: " + ex, type);
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package com.googlecode.objectify.serializer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>A compact tagged binary format for plain data: nulls, booleans, numbers, characters, strings, dates,
+ * byte/int/long/double arrays, and lists, sets, and maps of these (nested as deep as you like). Each value
+ * is a one byte tag followed by its data; integers are variable length, so small numbers take one or two
+ * bytes. It is many times smaller and faster than java serialization for this sort of data.</p>
+ *
+ * <p>No class information is stored. Lists come back as ArrayList, sets as LinkedHashSet, and maps as
+ * LinkedHashMap (iteration order is preserved), so the field must be declared as something those can be
+ * assigned to. Writing anything else throws IllegalArgumentException; use JavaSerializer for arbitrary
+ * object graphs.</p>
+ */
+public class CompactSerializer implements Serializer
+{
+	/** Tags */
+	private static final int NULL = 0;
+	private static final int FALSE = 1;
+	private static final int TRUE = 2;
+	private static final int BYTE = 3;
+	private static final int SHORT = 4;
+	private static final int INT = 5;
+	private static final int LONG = 6;
+	private static final int FLOAT = 7;
+	private static final int DOUBLE = 8;
+	private static final int CHAR = 9;
+	private static final int STRING = 10;
+	private static final int DATE = 11;
+	private static final int BYTES = 12;
+	private static final int INTS = 13;
+	private static final int LONGS = 14;
+	private static final int DOUBLES = 15;
+	private static final int LIST = 16;
+	private static final int SET = 17;
+	private static final int MAP = 18;
+
+	@Override
+	public void write(Object value, OutputStream out) throws IOException {
+		final DataOutputStream data = new DataOutputStream(out);
+		writeValue(value, data);
+		data.flush();
+	}
+
+	@Override
+	public Object read(InputStream in) throws IOException {
+		return readValue(new DataInputStream(in));
+	}
+
+	/** */
+	private void writeValue(Object value, DataOutputStream out) throws IOException {
+		if (value == null) {
+			out.write(NULL);
+		}
+		else if (value instanceof Boolean) {
+			out.write((Boolean)value ? TRUE : FALSE);
+		}
+		else if (value instanceof Byte) {
+			out.write(BYTE);
+			out.write((Byte)value);
+		}
+		else if (value instanceof Short) {
+			out.write(SHORT);
+			writeVarint(out, (Short)value);
+		}
+		else if (value instanceof Integer) {
+			out.write(INT);
+			writeVarint(out, (Integer)value);
+		}
+		else if (value instanceof Long) {
+			out.write(LONG);
+			writeVarint(out, (Long)value);
+		}
+		else if (value instanceof Float) {
+			out.write(FLOAT);
+			out.writeFloat((Float)value);
+		}
+		else if (value instanceof Double) {
+			out.write(DOUBLE);
+			out.writeDouble((Double)value);
+		}
+		else if (value instanceof Character) {
+			out.write(CHAR);
+			out.writeChar((Character)value);
+		}
+		else if (value instanceof String) {
+			out.write(STRING);
+			final byte[] bytes = ((String)value).getBytes(StandardCharsets.UTF_8);
+			writeLength(out, bytes.length);
+			out.write(bytes);
+		}
+		else if (value instanceof Date) {
+			out.write(DATE);
+			writeVarint(out, ((Date)value).getTime());
+		}
+		else if (value instanceof byte[]) {
+			out.write(BYTES);
+			final byte[] bytes = (byte[])value;
+			writeLength(out, bytes.length);
+			out.write(bytes);
+		}
+		else if (value instanceof int[]) {
+			out.write(INTS);
+			final int[] ints = (int[])value;
+			writeLength(out, ints.length);
+			for (int i: ints)
+				writeVarint(out, i);
+		}
+		else if (value instanceof long[]) {
+			out.write(LONGS);
+			final long[] longs = (long[])value;
+			writeLength(out, longs.length);
+			for (long l: longs)
+				writeVarint(out, l);
+		}
+		else if (value instanceof double[]) {
+			out.write(DOUBLES);
+			final double[] doubles = (double[])value;
+			writeLength(out, doubles.length);
+			for (double d: doubles)
+				out.writeDouble(d);
+		}
+		else if (value instanceof List || value instanceof Set) {
+			out.write(value instanceof List ? LIST : SET);
+			final Collection<?> collection = (Collection<?>)value;
+			writeLength(out, collection.size());
+			for (Object element: collection)
+				writeValue(element, out);
+		}
+		else if (value instanceof Map) {
+			out.write(MAP);
+			final Map<?, ?> map = (Map<?, ?>)value;
+			writeLength(out, map.size());
+			for (Map.Entry<?, ?> entry: map.entrySet()) {
+				writeValue(entry.getKey(), out);
+				writeValue(entry.getValue(), out);
+			}
+		}
+		else {
+			throw new IllegalArgumentException("CompactSerializer can't write " + value.getClass().getName() + "; use JavaSerializer instead");
+		}
+	}
+
+	/** */
+	private Object readValue(DataInputStream in) throws IOException {
+		final int tag = in.readUnsignedByte();
+		switch (tag) {
+			case NULL: return null;
+			case FALSE: return false;
+			case TRUE: return true;
+			case BYTE: return in.readByte();
+			case SHORT: return (short)readVarint(in);
+			case INT: return (int)readVarint(in);
+			case LONG: return readVarint(in);
+			case FLOAT: return in.readFloat();
+			case DOUBLE: return in.readDouble();
+			case CHAR: return in.readChar();
+
+			case STRING: {
+				final byte[] bytes = new byte[readLength(in)];
+				in.readFully(bytes);
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			case DATE: return new Date(readVarint(in));
+
+			case BYTES: {
+				final byte[] bytes = new byte[readLength(in)];
+				in.readFully(bytes);
+				return bytes;
+			}
+
+			case INTS: {
+				final int[] ints = new int[readLength(in)];
+				for (int i = 0; i < ints.length; i++)
+					ints[i] = (int)readVarint(in);
+				return ints;
+			}
+
+			case LONGS: {
+				final long[] longs = new long[readLength(in)];
+				for (int i = 0; i < longs.length; i++)
+					longs[i] = readVarint(in);
+				return longs;
+			}
+
+			case DOUBLES: {
+				final double[] doubles = new double[readLength(in)];
+				for (int i = 0; i < doubles.length; i++)
+					doubles[i] = in.readDouble();
+				return doubles;
+			}
+
+			case LIST:
+			case SET: {
+				final int size = readLength(in);
+				final int capacity = Math.min(size, 1024);	// Don't trust the size too much
+				final Collection<Object> collection = tag == LIST ? new ArrayList<>(capacity) : new LinkedHashSet<>(capacity * 4 / 3 + 1);
+				for (int i = 0; i < size; i++)
+					collection.add(readValue(in));
+				return collection;
+			}
+
+			case MAP: {
+				final int size = readLength(in);
+				final Map<Object, Object> map = new LinkedHashMap<>(Math.min(size, 1024) * 4 / 3 + 1);
+				for (int i = 0; i < size; i++)
+					map.put(readValue(in), readValue(in));
+				return map;
+			}
+
+			default:
+				throw new IOException("Unknown tag " + tag + " in compact data");
+		}
+	}
+
+	/** Zigzag varint, so that small negative numbers are small too */
+	private static void writeVarint(DataOutputStream out, long value) throws IOException {
+		long zigzag = (value << 1) ^ (value >> 63);
+		while ((zigzag & ~0x7fL) != 0) {
+			out.write((int)((zigzag & 0x7f) | 0x80));
+			zigzag >>>= 7;
+		}
+		out.write((int)zigzag);
+	}
+
+	/** */
+	private static long readVarint(DataInputStream in) throws IOException {
+		long zigzag = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			final int b = in.readUnsignedByte();
+			zigzag |= (long)(b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+				return (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+		throw new IOException("Malformed varint in compact data");
+	}
+
+	/** */
+	private static void writeLength(DataOutputStream out, int length) throws IOException {
+		writeVarint(out, length);
+	}
+
+	/** */
+	private static int readLength(DataInputStream in) throws IOException {
+		final long length = readVarint(in);
+		if (length < 0 || length > Integer.MAX_VALUE)
+			throw new IOException("Bad length " + length + " in compact data");
+
+		return (int)length;
+	}
+}
@@ -0,0 +1,26 @@
+package com.googlecode.objectify.serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * <p>Standard java serialization. This is the default for @Serialize, and it handles any object graph that
+ * follows java serialization rules, at the price of being relatively slow and verbose.</p>
+ */
+public class JavaSerializer implements Serializer
+{
+	@Override
+	public void write(Object value, OutputStream out) throws IOException {
+		final ObjectOutputStream oos = new ObjectOutputStream(out);
+		oos.writeObject(value);
+		oos.flush();
+	}
+
+	@Override
+	public Object read(InputStream in) throws IOException, ClassNotFoundException {
+		return new ObjectInputStream(in).readObject();
+	}
+}
@@ -0,0 +1,20 @@
+package com.googlecode.objectify.serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * <p>Used with the @Serialize annotation to convert arbitrary objects to and from bytes. Objectify takes
+ * care of compression and of recording which format was used.</p>
+ *
+ * <p>Implementations must be thread-safe; one instance is shared by every load and save of a field.</p>
+ */
+public interface Serializer
+{
+	/** Write the thing to the stream; don't close it */
+	void write(Object value, OutputStream out) throws IOException;
+
+	/** Read back a thing written by write() */
+	Object read(InputStream in) throws IOException, ClassNotFoundException;
+}
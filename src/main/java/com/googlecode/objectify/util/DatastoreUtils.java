@@ -1,5 +1,6 @@
 package com.googlecode.objectify.util;
 
+import com.google.appengine.api.NamespaceManager;
 import com.google.appengine.api.datastore.EmbeddedEntity;
 import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.KeyFactory;
@@ -35,10 +36,11 @@ public class DatastoreUtils
 		
 	/**
 	 * Make a new Query object that is exactly like the old.  Too bad Query isn't Cloneable. 
+	 * The copy is in the namespace of the original, not the current one.
 	 */
 	public static com.google.appengine.api.datastore.Query cloneQuery(com.google.appengine.api.datastore.Query orig) {
 		
-		com.google.appengine.api.datastore.Query copy = new com.google.appengine.api.datastore.Query(orig.getKind(), orig.getAncestor());
+		com.google.appengine.api.datastore.Query copy = createQuery(orig.getNamespace(), orig.getKind(), orig.getAncestor());
 		
 		copy.setFilter(orig.getFilter());
 
@@ -56,6 +58,20 @@ public class DatastoreUtils
 		return copy;
 	}
 
+	/**
+	 * Queries only take their namespace from the NamespaceManager (or the ancestor), when they are created.
+	 * @param ancestor can be null
+	 */
+	public static com.google.appengine.api.datastore.Query createQuery(String namespace, String kind, com.google.appengine.api.datastore.Key ancestor) {
+		final String oldNamespace = NamespaceManager.get();
+		NamespaceManager.set(namespace);
+		try {
+			return new com.google.appengine.api.datastore.Query(kind, ancestor);
+		} finally {
+			NamespaceManager.set(oldNamespace);
+		}
+	}
+
 	/**
 	 * Construct a Key<?> from a Long or String id
 	 * @param id must be either Long or String
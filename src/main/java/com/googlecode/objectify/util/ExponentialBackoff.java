@@ -0,0 +1,71 @@
+package com.googlecode.objectify.util;
+
+import com.googlecode.objectify.RetryPolicy;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>Retries with exponentially growing delays, randomized with "full jitter" so that transactions which
+ * collided once don't collide again on the next attempt: the delay before retry {@code n} is a random
+ * value between 0 and {@code min(maxDelayMillis, initialDelayMillis * 2^(n-1))}.</p>
+ *
+ * <p>Gives up after {@code maxTries} attempts, or when another retry would start after the time budget
+ * has run out, whichever comes first.</p>
+ */
+public class ExponentialBackoff implements RetryPolicy
+{
+	/** The factory default: retry indefinitely, starting around 10ms and never waiting more than 1s */
+	public static final ExponentialBackoff DEFAULT = new ExponentialBackoff(Integer.MAX_VALUE, 10, 1000, Long.MAX_VALUE);
+
+	/** */
+	@Getter private final int maxTries;
+	@Getter private final long initialDelayMillis;
+	@Getter private final long maxDelayMillis;
+	@Getter private final long budgetMillis;
+
+	/**
+	 * @param maxTries is the total number of attempts, including the first
+	 * @param initialDelayMillis is the upper bound of the delay before the first retry
+	 * @param maxDelayMillis caps the upper bound as it grows
+	 * @param budgetMillis is the total time allowed for all attempts; Long.MAX_VALUE for no limit
+	 */
+	public ExponentialBackoff(int maxTries, long initialDelayMillis, long maxDelayMillis, long budgetMillis) {
+		if (maxTries < 1)
+			throw new IllegalArgumentException("maxTries must be at least 1: " + maxTries);
+
+		if (initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis)
+			throw new IllegalArgumentException("Delays must satisfy 0 <= initial <= max: " + initialDelayMillis + ", " + maxDelayMillis);
+
+		this.maxTries = maxTries;
+		this.initialDelayMillis = initialDelayMillis;
+		this.maxDelayMillis = maxDelayMillis;
+		this.budgetMillis = budgetMillis;
+	}
+
+	/** Same policy, different number of tries */
+	public ExponentialBackoff maxTries(int value) {
+		return new ExponentialBackoff(value, initialDelayMillis, maxDelayMillis, budgetMillis);
+	}
+
+	/** Same policy, different time budget */
+	public ExponentialBackoff budgetMillis(long value) {
+		return new ExponentialBackoff(maxTries, initialDelayMillis, maxDelayMillis, value);
+	}
+
+	@Override
+	public long backoff(int failures, long elapsedMillis) {
+		if (failures >= maxTries)
+			return -1;
+
+		// Stop doubling once we pass the cap, otherwise the shift would eventually overflow
+		final int doublings = Math.min(failures - 1, 62);
+		final long ceiling = (initialDelayMillis > (maxDelayMillis >> doublings)) ? maxDelayMillis : initialDelayMillis << doublings;
+		final long delay = ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+
+		if (elapsedMillis + delay >= budgetMillis)
+			return -1;
+
+		return delay;
+	}
+}
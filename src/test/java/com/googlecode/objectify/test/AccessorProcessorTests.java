@@ -0,0 +1,134 @@
+package com.googlecode.objectify.test;
+
+import com.googlecode.objectify.annotation.Entity;
+import com.googlecode.objectify.impl.GeneratedAccessors;
+import com.googlecode.objectify.impl.TypeUtils;
+import com.googlecode.objectify.processor.AccessorProcessor;
+import com.googlecode.objectify.test.util.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+
+/**
+ * Compiles some entities with the AccessorProcessor and checks that Objectify picks up what it generates.
+ */
+class AccessorProcessorTests extends TestBase {
+
+	/** */
+	private static final String SOURCE =
+			"package gen;\n" +
+			"import com.googlecode.objectify.annotation.*;\n" +
+			"import java.util.List;\n" +
+			"public class Outer {\n" +
+			"	public static class Base {\n" +
+			"		@Id public Long id;\n" +
+			"	}\n" +
+			"	@Entity public static class Thing extends Base {\n" +
+			"		public String name;\n" +
+			"		int count;\n" +
+			"		List<String> tags;\n" +
+			"		private String secret;\n" +
+			"		@Ignore String ignored;\n" +
+			"		static String constant;\n" +
+			"		public String getSecret() { return secret; }\n" +
+			"		public void setSecret(String secret) { this.secret = secret; }\n" +
+			"	}\n" +
+			"	@Entity private static class Hidden {\n" +
+			"		@Id Long id;\n" +
+			"	}\n" +
+			"}\n";
+
+	/** */
+	private ClassLoader loader;
+
+	/** */
+	@BeforeEach
+	void compile() throws Exception {
+		final Path dir = Files.createTempDirectory("accessors");
+		final Path source = dir.resolve("gen/Outer.java");
+		Files.createDirectories(source.getParent());
+		Files.write(source, SOURCE.getBytes(StandardCharsets.UTF_8));
+
+		final String classpath = new File(Entity.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+				Arrays.asList("-classpath", classpath, "-d", dir.toString(), "-s", dir.toString()),
+				null, compiler.getStandardFileManager(null, null, null).getJavaFileObjects(source.toFile()));
+		task.setProcessors(Collections.singletonList(new AccessorProcessor()));
+
+		assertThat(task.call()).isTrue();
+
+		loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader());
+	}
+
+	/** */
+	@Test
+	void accessorsAreGenerated() throws Exception {
+		final Class<?> thingClass = loader.loadClass("gen.Outer$Thing");
+		final GeneratedAccessors accessors = TypeUtils.getGeneratedAccessors(thingClass);
+
+		assertThat(accessors).isNotNull();
+		assertThat(accessors.getFieldNames()).asList().containsExactly("name", "count", "tags", "secret").inOrder();
+		assertThat(accessors.isAccessible(0)).isTrue();
+		assertThat(accessors.isAccessible(3)).isFalse();
+
+		final Object thing = thingClass.newInstance();
+		accessors.set(thing, 0, "foo");
+		accessors.set(thing, 1, 5);
+		assertThat(accessors.get(thing, 0)).isEqualTo("foo");
+		assertThat(accessors.get(thing, 1)).isEqualTo(5);
+
+		// Superclasses compiled alongside get their own
+		assertThat(TypeUtils.getGeneratedAccessors(loader.loadClass("gen.Outer$Base")).getFieldNames()).asList().containsExactly("id");
+	}
+
+	/** */
+	@Test
+	void privateClassesAreListedButNotAccessible() throws Exception {
+		final GeneratedAccessors accessors = TypeUtils.getGeneratedAccessors(loader.loadClass("gen.Outer$Hidden"));
+
+		assertThat(accessors.getFieldNames()).asList().containsExactly("id");
+		assertThat(accessors.isAccessible(0)).isFalse();
+	}
+
+	/** */
+	@Test
+	void classesWithoutAccessorsHaveNone() throws Exception {
+		assertThat(TypeUtils.getGeneratedAccessors(loader.loadClass("gen.Outer"))).isNull();
+		assertThat(TypeUtils.getGeneratedAccessors(String.class)).isNull();
+	}
+
+	/** */
+	@Test
+	void entitiesWithGeneratedAccessorsRoundTrip() throws Exception {
+		final Class<?> thingClass = loader.loadClass("gen.Outer$Thing");
+		factory().register(thingClass);
+
+		final Object thing = thingClass.newInstance();
+		thingClass.getField("name").set(thing, "foo");
+		thingClass.getMethod("setSecret", String.class).invoke(thing, "shh");
+
+		final com.google.appengine.api.datastore.Entity entity = ofy().save().toEntity(thing);
+		assertThat(entity.getProperties().keySet()).containsExactly("name", "count", "secret");
+
+		final Object fetched = saveClearLoad(thing);
+
+		assertThat(thingClass.getField("name").get(fetched)).isEqualTo("foo");
+		assertThat(thingClass.getMethod("getSecret").invoke(fetched)).isEqualTo("shh");
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.google.appengine.api.datastore.Entity;
+import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.Unindex;
+import com.googlecode.objectify.test.util.TestBase;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+
+/**
+ * Rough timings of translating large arrays to and from entities; primitive arrays take the specialized
+ * path, boxed arrays the generic one. Nothing is asserted about the timings, they are just logged.
+ * Tagged so they only run with the benchmark profile.
+ */
+@Tag("benchmark")
+@Slf4j
+class ArrayBenchmarkTests extends TestBase {
+
+	/** */
+	private static final int SIZE = 10_000;
+	private static final int WARMUP = 50;
+	private static final int ROUNDS = 200;
+
+	/** */
+	@com.googlecode.objectify.annotation.Entity
+	@Data
+	private static class Telemetry {
+		@Id Long id;
+		@Unindex long[] longs;
+		@Unindex double[] doubles;
+		@Unindex Long[] boxedLongs;
+		@Unindex Double[] boxedDoubles;
+	}
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Telemetry.class);
+	}
+
+	/** Saves and loads the thing repeatedly, logging the average time of each */
+	private void time(final String name, final Supplier<Telemetry> maker) {
+		final Telemetry telemetry = maker.get();
+		telemetry.id = 1L;
+
+		Entity entity = null;
+		Telemetry loaded = null;
+
+		for (int i = 0; i < WARMUP; i++)
+			loaded = ofy().load().fromEntity(ofy().save().toEntity(telemetry));
+
+		long saveNanos = 0;
+		long loadNanos = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			final long start = System.nanoTime();
+			entity = ofy().save().toEntity(telemetry);
+			final long middle = System.nanoTime();
+			loaded = ofy().load().fromEntity(entity);
+			loadNanos += System.nanoTime() - middle;
+			saveNanos += middle - start;
+		}
+
+		log.info("{} x {}: save {} us/op, load {} us/op", name, SIZE, saveNanos / ROUNDS / 1000, loadNanos / ROUNDS / 1000);
+
+		assertThat(loaded).isEqualTo(telemetry);
+	}
+
+	/** */
+	@Test
+	void longArrays() throws Exception {
+		time("long[]", () -> {
+			final Telemetry telemetry = new Telemetry();
+			telemetry.longs = new long[SIZE];
+			for (int i = 0; i < SIZE; i++)
+				telemetry.longs[i] = i * 31L;
+			return telemetry;
+		});
+
+		time("Long[]", () -> {
+			final Telemetry telemetry = new Telemetry();
+			telemetry.boxedLongs = new Long[SIZE];
+			for (int i = 0; i < SIZE; i++)
+				telemetry.boxedLongs[i] = i * 31L;
+			return telemetry;
+		});
+	}
+
+	/** */
+	@Test
+	void doubleArrays() throws Exception {
+		time("double[]", () -> {
+			final Telemetry telemetry = new Telemetry();
+			telemetry.doubles = new double[SIZE];
+			for (int i = 0; i < SIZE; i++)
+				telemetry.doubles[i] = i / 7.0;
+			return telemetry;
+		});
+
+		time("Double[]", () -> {
+			final Telemetry telemetry = new Telemetry();
+			telemetry.boxedDoubles = new Double[SIZE];
+			for (int i = 0; i < SIZE; i++)
+				telemetry.boxedDoubles[i] = i / 7.0;
+			return telemetry;
+		});
+	}
+}
@@ -3,8 +3,9 @@
 
 package com.googlecode.objectify.test;
 
+import com.google.appengine.api.datastore.Entity;
+import com.googlecode.objectify.Key;
 import com.googlecode.objectify.annotation.Cache;
-import com.googlecode.objectify.annotation.Entity;
 import com.googlecode.objectify.annotation.Id;
 import com.googlecode.objectify.annotation.Unindex;
 import com.googlecode.objectify.test.util.TestBase;
@@ -12,8 +13,11 @@ import lombok.Data;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
 
 /**
  * Tests of persisting arrays
@@ -29,7 +33,7 @@ class ArrayTests extends TestBase {
 		factory().register(HasArrays.class);
 	}
 
-	@Entity
+	@com.googlecode.objectify.annotation.Entity
 	@Cache
 	@Data
 	private static class HasArrays {
@@ -46,6 +50,15 @@ class ArrayTests extends TestBase {
 
 		@Unindex
 		private Integer[] integers;
+
+		@Unindex
+		private short[] shorts;
+
+		@Unindex
+		private double[] doubles;
+
+		@Unindex
+		private float[] floats;
 	}
 
 	/** */
@@ -91,4 +104,62 @@ class ArrayTests extends TestBase {
 
 		assertThat(fetched.longs).isEqualTo(hasa.longs);
 	}
-}
\ No newline at end of file
+
+	/** */
+	@Test
+	void shortArraysWork() throws Exception {
+		final HasArrays hasa = new HasArrays();
+		hasa.shorts = new short[] { 5, 6 };
+
+		final HasArrays fetched = saveClearLoad(hasa);
+
+		assertThat(fetched.shorts).isEqualTo(hasa.shorts);
+	}
+
+	/** */
+	@Test
+	void doubleArraysWork() throws Exception {
+		final HasArrays hasa = new HasArrays();
+		hasa.doubles = new double[] { 5.5, 6.25 };
+
+		final HasArrays fetched = saveClearLoad(hasa);
+
+		assertThat(fetched.doubles).isEqualTo(hasa.doubles);
+	}
+
+	/** */
+	@Test
+	void floatArraysWork() throws Exception {
+		final HasArrays hasa = new HasArrays();
+		hasa.floats = new float[] { 5.5f, 6.25f };
+
+		final HasArrays fetched = saveClearLoad(hasa);
+
+		assertThat(fetched.floats).isEqualTo(hasa.floats);
+	}
+
+	/** */
+	@Test
+	void emptyPrimitiveArraysAreNotStored() throws Exception {
+		final HasArrays hasa = new HasArrays();
+		hasa.longs = new long[0];
+
+		final Entity entity = ofy().save().toEntity(hasa);
+
+		assertThat(entity.hasProperty("longs")).isFalse();
+	}
+
+	/** */
+	@Test
+	void primitiveArraysLoadFromOtherNumberTypes() throws Exception {
+		final Entity entity = new Entity(Key.getKind(HasArrays.class), 1L);
+		entity.setUnindexedProperty("longs", Arrays.asList(1L, 2.0, "3", null));
+		entity.setUnindexedProperty("doubles", Arrays.asList(1L, 2.5, "3.5"));
+
+		final HasArrays fetched = ofy().load().fromEntity(entity);
+
+		// Nulls can't go in a primitive array so they are skipped
+		assertThat(fetched.longs).isEqualTo(new long[] { 1, 2, 3 });
+		assertThat(fetched.doubles).isEqualTo(new double[] { 1, 2.5, 3.5 });
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Text;
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.PartialWriteException;
+import com.googlecode.objectify.impl.WriteBatches;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of saves and deletes which are too big for a single datastore call
+ */
+class BatchWriteTests extends TestBase {
+
+	/** More than two batches worth */
+	private static final int COUNT = WriteBatches.MAX_ENTITIES * 2 + 100;
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+	}
+
+	/** */
+	private List<Trivial> makeTrivials() {
+		final List<Trivial> trivs = new ArrayList<>(COUNT);
+		for (int i = 0; i < COUNT; i++)
+			trivs.add(new Trivial("foo" + i, i));
+
+		return trivs;
+	}
+
+	/** */
+	@Test
+	void largeSaveAssignsIdsInOrder() throws Exception {
+		final List<Trivial> trivs = makeTrivials();
+
+		final Map<Key<Trivial>, Trivial> saved = ofy().save().entities(trivs).now();
+		assertThat(saved.values()).containsExactlyElementsIn(trivs).inOrder();
+
+		for (final Map.Entry<Key<Trivial>, Trivial> entry: saved.entrySet())
+			assertThat(entry.getValue().getId()).isEqualTo(entry.getKey().getId());
+
+		ofy().clear();
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(COUNT);
+		assertThat(ofy().load().keys(saved.keySet()).values()).containsExactlyElementsIn(trivs).inOrder();
+	}
+
+	/** */
+	@Test
+	void largeDeleteRemovesEverything() throws Exception {
+		final Map<Key<Trivial>, Trivial> saved = ofy().save().entities(makeTrivials()).now();
+
+		ofy().delete().keys(saved.keySet()).now();
+
+		assertThat(ofy().load().keys(saved.keySet())).isEmpty();
+		ofy().clear();
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(0);
+	}
+
+	/** */
+	@Test
+	void splitsByCountAndSize() throws Exception {
+		final List<Entity> small = new ArrayList<>();
+		for (int i = 0; i < COUNT; i++)
+			small.add(new Entity("Thing", i + 1));
+
+		assertThat(WriteBatches.splitEntities(small).size()).isEqualTo(3);
+		assertThat(WriteBatches.splitEntities(small.subList(0, 10)).size()).isEqualTo(1);
+
+		final char[] chars = new char[900 * 1024];
+		Arrays.fill(chars, 'x');
+		final Text big = new Text(new String(chars));
+
+		final List<Entity> large = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			final Entity ent = new Entity("Thing", i + 1);
+			ent.setUnindexedProperty("text", big);
+			large.add(ent);
+		}
+
+		final List<List<Entity>> batches = WriteBatches.splitEntities(large);
+		assertThat(batches.size()).isEqualTo(3);
+		for (final List<Entity> batch: batches)
+			assertThat(batch.size()).isAtMost(5);
+	}
+
+	/** */
+	@Test
+	void failedBatchIsReportedSeparately() throws Exception {
+		final List<Trivial> trivs = new ArrayList<>();
+		for (int i = 0; i < WriteBatches.MAX_ENTITIES; i++)
+			trivs.add(new Trivial("foo" + i, i));
+
+		// Too big for the datastore, so its batch fails
+		final char[] chars = new char[2 * 1024 * 1024];
+		Arrays.fill(chars, 'x');
+		final Entity tooBig = new Entity("Thing", 1);
+		tooBig.setUnindexedProperty("text", new Text(new String(chars)));
+
+		final List<Object> things = new ArrayList<>(trivs);
+		things.add(tooBig);
+
+		final PartialWriteException ex = assertThrows(PartialWriteException.class, () -> ofy().save().entities(things).now());
+		assertThat(ex.getTotal()).isEqualTo(things.size());
+		assertThat(ex.getFailures()).hasSize(1);
+		assertThat(ex.getFailures().get(0).getFromIndex()).isEqualTo(WriteBatches.MAX_ENTITIES);
+		assertThat(ex.getFailures().get(0).getToIndex()).isEqualTo(things.size());
+
+		// The batch which was written got its ids
+		for (final Trivial triv: trivs)
+			assertThat(triv.getId()).isNotNull();
+
+		ofy().clear();
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(WriteBatches.MAX_ENTITIES);
+	}
+
+	/** */
+	@Test
+	void pipelinedSaveWritesEverythingAndAssignsIds() throws Exception {
+		final List<Trivial> trivs = makeTrivials();
+
+		final int saved = ofy().save().entitiesPipelined(trivs).now();
+		assertThat(saved).isEqualTo(COUNT);
+
+		for (final Trivial triv: trivs) {
+			assertThat(triv.getId()).isNotNull();
+			assertThat(ofy().isLoaded(Key.create(triv))).isFalse();
+		}
+
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(COUNT);
+		assertThat(ofy().load().entities(trivs).values()).containsExactlyElementsIn(trivs).inOrder();
+	}
+
+	/** */
+	@Test
+	void pipelinedSaveConsumesLazySequenceOnce() throws Exception {
+		final int[] produced = new int[1];
+		final Iterable<Trivial> lazy = () -> new Iterator<Trivial>() {
+			@Override
+			public boolean hasNext() {
+				return produced[0] < COUNT;
+			}
+
+			@Override
+			public Trivial next() {
+				produced[0]++;
+				return new Trivial("foo" + produced[0], produced[0]);
+			}
+		};
+
+		assertThat(ofy().save().entitiesPipelined(lazy, 1).now()).isEqualTo(COUNT);
+		assertThat(produced[0]).isEqualTo(COUNT);
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(COUNT);
+	}
+
+	/** */
+	@Test
+	void pipelinedSaveReportsWhatWasNeverSent() throws Exception {
+		final char[] chars = new char[2 * 1024 * 1024];
+		Arrays.fill(chars, 'x');
+		final Entity tooBig = new Entity("Thing", 1);
+		tooBig.setUnindexedProperty("text", new Text(new String(chars)));
+
+		final List<Object> things = new ArrayList<>();
+		for (int i = 0; i < WriteBatches.MAX_ENTITIES; i++)
+			things.add(new Trivial("foo" + i, i));
+		things.add(tooBig);
+		things.addAll(makeTrivials());
+
+		// The failure is noticed while dispatching the third batch, which is never sent and is reported along with the rest
+		final PartialWriteException ex = assertThrows(PartialWriteException.class, () -> ofy().save().entitiesPipelined(things, 1).now());
+		assertThat(ex.getTotal()).isEqualTo(things.size());
+		assertThat(ex.getFailures()).hasSize(2);
+		assertThat(ex.getFailures().get(0).getFromIndex()).isEqualTo(WriteBatches.MAX_ENTITIES);
+		assertThat(ex.getFailures().get(1).getFromIndex()).isEqualTo(ex.getFailures().get(0).getToIndex());
+		assertThat(ex.getFailures().get(1).getToIndex()).isEqualTo(things.size());
+
+		// The first batch got its ids, the tail was never sent
+		assertThat(((Trivial)things.get(0)).getId()).isNotNull();
+		assertThat(((Trivial)things.get(things.size() - 1)).getId()).isNull();
+	}
+
+	/** */
+	@Test
+	void pipelinedSaveKeepsDeferredSavesWhichWereNeverSent() throws Exception {
+		final char[] chars = new char[2 * 1024 * 1024];
+		Arrays.fill(chars, 'x');
+		final Entity tooBig = new Entity("Thing", 1);
+		tooBig.setUnindexedProperty("text", new Text(new String(chars)));
+
+		final Trivial deferred = new Trivial(12345L, "deferred", 1);
+
+		final List<Object> things = new ArrayList<>();
+		for (int i = 0; i < WriteBatches.MAX_ENTITIES; i++)
+			things.add(new Trivial("foo" + i, i));
+		things.add(tooBig);
+		things.addAll(makeTrivials());
+		things.add(deferred);
+
+		try (com.googlecode.objectify.util.Closeable root = com.googlecode.objectify.ObjectifyService.begin()) {
+			ofy().defer().save().entity(deferred);
+			assertThrows(PartialWriteException.class, () -> ofy().save().entitiesPipelined(things, 1).now());
+		}
+
+		// Written when the deferred operations were flushed at the end of the scope
+		ofy().clear();
+		assertThat(ofy().load().entity(deferred).now()).isNotNull();
+	}
+
+	/** */
+	@Test
+	void pipelinedSaveNeedsSomethingInFlight() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> ofy().save().entitiesPipelined(makeTrivials(), 0));
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.annotation.Cache;
+import com.googlecode.objectify.annotation.Entity;
+import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.test.util.TestBase;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+
+/**
+ * Tests of @Cache(transactionalReads=true). The trick is to change the datastore behind the cache's back,
+ * so we can tell where a value came from.
+ */
+class CachingTransactionalReadTests extends TestBase {
+
+	/** */
+	@Entity
+	@Cache(transactionalReads = true)
+	@Data
+	@NoArgsConstructor
+	private static class Reference {
+		@Id Long id;
+		String value;
+
+		Reference(long id, String value) {
+			this.id = id;
+			this.value = value;
+		}
+	}
+
+	/** */
+	@Entity
+	@Cache
+	@Data
+	@NoArgsConstructor
+	private static class Ordinary {
+		@Id Long id;
+		String value;
+
+		Ordinary(long id, String value) {
+			this.id = id;
+			this.value = value;
+		}
+	}
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Reference.class);
+		factory().register(Ordinary.class);
+	}
+
+	/** Saves the thing, loads it into the cache, then changes the datastore underneath */
+	private <T> Key<T> cacheThenChange(final T cached, final T changed) {
+		final Key<T> key = ofy().save().entity(cached).now();
+		ofy().clear();
+		ofy().load().key(key).now();
+		ofy().clear();
+
+		ds().put(null, ofy().save().toEntity(changed));
+		return key;
+	}
+
+	/** */
+	@Test
+	void optedInKindIsReadFromCache() throws Exception {
+		final Key<Reference> key = cacheThenChange(new Reference(1, "cached"), new Reference(1, "datastore"));
+
+		final Reference fetched = ofy().transact(() -> ofy().load().key(key).now());
+		assertThat(fetched.getValue()).isEqualTo("cached");
+	}
+
+	/** */
+	@Test
+	void ordinaryKindIsReadFromDatastore() throws Exception {
+		final Key<Ordinary> key = cacheThenChange(new Ordinary(1, "cached"), new Ordinary(1, "datastore"));
+
+		final Ordinary fetched = ofy().transact(() -> ofy().load().key(key).now());
+		assertThat(fetched.getValue()).isEqualTo("datastore");
+	}
+
+	/** */
+	@Test
+	void cacheMissReadsThroughTransaction() throws Exception {
+		final Key<Reference> cached = cacheThenChange(new Reference(1, "cached"), new Reference(1, "datastore"));
+		final Key<Reference> uncached = Key.create(Reference.class, 2L);
+		ds().put(null, ofy().save().toEntity(new Reference(2, "datastore")));
+
+		ofy().transact(() -> {
+			assertThat(ofy().load().key(cached).now().getValue()).isEqualTo("cached");
+			assertThat(ofy().load().key(uncached).now().getValue()).isEqualTo("datastore");
+		});
+	}
+
+	/** */
+	@Test
+	void keysWrittenInTheTransactionBypassCache() throws Exception {
+		final Key<Reference> key = cacheThenChange(new Reference(1, "cached"), new Reference(1, "datastore"));
+
+		ofy().transact(() -> {
+			ofy().save().entity(new Reference(1, "mine")).now();
+			ofy().clear();
+
+			// Transactional reads see the snapshot from before our own write
+			assertThat(ofy().load().key(key).now().getValue()).isEqualTo("datastore");
+		});
+	}
+}
@@ -5,6 +5,7 @@ package com.googlecode.objectify.test;
 
 import com.google.appengine.api.datastore.EntityNotFoundException;
 import com.googlecode.objectify.Key;
+import com.googlecode.objectify.Objectify;
 import com.googlecode.objectify.ObjectifyService;
 import com.googlecode.objectify.annotation.Entity;
 import com.googlecode.objectify.annotation.Id;
@@ -16,6 +17,9 @@ import lombok.Data;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
 import static com.googlecode.objectify.ObjectifyService.ofy;
@@ -161,4 +165,62 @@ class DeferTests extends TestBase {
 
 		assertThat(hos.getData()).isEqualTo("onsaved");
 	}
-}
\ No newline at end of file
+
+	/** */
+	@Test
+	void largeDeferredWorkloadIsFlushedInChunks() throws Exception {
+		final List<Trivial> trivs = new ArrayList<>();
+		for (long i = 1; i <= 1200; i++)
+			trivs.add(new Trivial(i, "foo", i));
+
+		try (final Closeable root = ObjectifyService.begin()) {
+			for (final Trivial triv: trivs)
+				ofy().defer().save().entity(triv);
+
+			for (final Trivial triv: trivs.subList(0, 600))
+				ofy().defer().delete().entity(triv);
+		}
+
+		try (final Closeable root = ObjectifyService.begin()) {
+			assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(600);
+		}
+	}
+
+	/** */
+	@Test
+	void deferredOperationsFlushEarlyAtThreshold() throws Exception {
+		try (final Closeable root = ObjectifyService.begin()) {
+			final Objectify early = ofy().deferredFlushThreshold(3);
+
+			early.defer().save().entity(new Trivial(1L, "foo", 1));
+			early.defer().save().entity(new Trivial(2L, "foo", 2));
+			assertThrows(EntityNotFoundException.class, () -> ds().get(null, Key.create(Trivial.class, 1L).getRaw()));
+
+			early.defer().save().entity(new Trivial(3L, "foo", 3));
+			early.flush();	// only waits; everything was already sent
+			assertThat(ds().get(null, Key.create(Trivial.class, 1L).getRaw())).isNotNull();
+
+			early.defer().save().entity(new Trivial(4L, "foo", 4));
+		}
+
+		assertThat(ds().get(null, Key.create(Trivial.class, 4L).getRaw())).isNotNull();
+	}
+
+	/** The delete must not be sent until the early flush with the save has landed */
+	@Test
+	void laterDeferredWritesOfTheSameKeyWinAcrossTheThreshold() throws Exception {
+		try (final Closeable root = ObjectifyService.begin()) {
+			final Objectify early = ofy().deferredFlushThreshold(2);
+
+			early.defer().save().entity(new Trivial(1L, "foo", 1));
+			early.defer().save().entity(new Trivial(2L, "foo", 2));	// early flush of both saves is now in flight
+
+			early.defer().delete().type(Trivial.class).id(1L);
+			early.defer().save().entity(new Trivial(2L, "bar", 2));
+			early.flush();
+
+			assertThrows(EntityNotFoundException.class, () -> ds().get(null, Key.create(Trivial.class, 1L).getRaw()));
+			assertThat(ds().get(null, Key.create(Trivial.class, 2L).getRaw()).getProperty("someString")).isEqualTo("bar");
+		}
+	}
+}
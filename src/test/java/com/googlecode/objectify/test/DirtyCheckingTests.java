@@ -0,0 +1,180 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.Objectify;
+import com.googlecode.objectify.impl.WriteStats;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+
+/**
+ * Tests of dirtyChecking(), which skips saves that would not change anything
+ */
+class DirtyCheckingTests extends TestBase {
+
+	/** */
+	private Key<Trivial> key1;
+	private Key<Trivial> key2;
+	private Key<Trivial> key3;
+
+	/** */
+	private WriteStats stats;
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+
+		final Map<Key<Trivial>, Trivial> saved = ofy().save().entities(new Trivial(1L, "foo1", 1), new Trivial(2L, "foo2", 2), new Trivial(3L, "foo3", 3)).now();
+		final ArrayList<Key<Trivial>> keys = new ArrayList<>(saved.keySet());
+		key1 = keys.get(0);
+		key2 = keys.get(1);
+		key3 = keys.get(2);
+
+		ofy().clear();
+		stats = factory().getWriteStats();
+		stats.reset();
+	}
+
+	/** */
+	@Test
+	void unchangedSaveIsSkipped() throws Exception {
+		final Objectify dirty = ofy().dirtyChecking(true);
+
+		final Trivial triv = dirty.load().key(key1).now();
+		final Key<Trivial> saved = dirty.save().entity(triv).now();
+
+		assertThat(saved).isEqualTo(key1);
+		assertThat(stats.getSkipped()).isEqualTo(1);
+		assertThat(stats.getWritten()).isEqualTo(0);
+	}
+
+	/** */
+	@Test
+	void changedSaveIsWritten() throws Exception {
+		final Objectify dirty = ofy().dirtyChecking(true);
+
+		final Trivial triv = dirty.load().key(key1).now();
+		triv.setSomeNumber(100);
+		dirty.save().entity(triv).now();
+
+		assertThat(stats.getSkipped()).isEqualTo(0);
+		assertThat(stats.getWritten()).isEqualTo(1);
+
+		// The snapshot now matches what was just saved
+		dirty.save().entity(triv).now();
+		assertThat(stats.getSkipped()).isEqualTo(1);
+
+		ofy().clear();
+		assertThat(ofy().load().key(key1).now().getSomeNumber()).isEqualTo(100);
+	}
+
+	/** */
+	@Test
+	void skippedSaveDoesNotTouchTheDatastore() throws Exception {
+		final Objectify dirty = ofy().dirtyChecking(true);
+		final Trivial triv = dirty.load().key(key1).now();
+
+		// Change the datastore behind the session's back
+		final Trivial other = new Trivial(1L, "other", 50);
+		ds().put(null, ofy().save().toEntity(other));
+
+		dirty.save().entity(triv).now();
+
+		assertThat(ds().get(null, key1.getRaw()).getProperty("someString")).isEqualTo("other");
+	}
+
+	/** */
+	@Test
+	void batchesMixSkippedAndWrittenInOrder() throws Exception {
+		final Objectify dirty = ofy().dirtyChecking(true);
+		final Map<Key<Trivial>, Trivial> loaded = dirty.load().keys(key1, key2, key3);
+
+		loaded.get(key2).setSomeString("changed");
+
+		final Map<Key<Trivial>, Trivial> saved = dirty.save().entities(loaded.get(key1), loaded.get(key2), loaded.get(key3)).now();
+		assertThat(saved.keySet()).containsExactly(key1, key2, key3).inOrder();
+		assertThat(stats.getWritten()).isEqualTo(1);
+		assertThat(stats.getSkipped()).isEqualTo(2);
+
+		ofy().clear();
+		assertThat(ofy().load().key(key2).now().getSomeString()).isEqualTo("changed");
+	}
+
+	/** */
+	@Test
+	void unchangedQueryResultsAreSkipped() throws Exception {
+		final Objectify dirty = ofy().dirtyChecking(true);
+
+		final List<Trivial> normal = dirty.load().type(Trivial.class).hybrid(false).list();
+		dirty.save().entities(normal).now();
+		assertThat(stats.getSkipped()).isEqualTo(normal.size());
+		assertThat(stats.getWritten()).isEqualTo(0);
+
+		dirty.clear();
+
+		final List<Trivial> hybrid = dirty.load().type(Trivial.class).hybrid(true).list();
+		hybrid.get(0).setSomeString("changed");
+		dirty.save().entities(hybrid).now();
+		assertThat(stats.getSkipped()).isEqualTo(normal.size() + hybrid.size() - 1);
+		assertThat(stats.getWritten()).isEqualTo(1);
+	}
+
+	/** */
+	@Test
+	void withoutDirtyCheckingEverythingIsWritten() throws Exception {
+		final Trivial triv = ofy().load().key(key1).now();
+		ofy().save().entity(triv).now();
+
+		assertThat(stats.getWritten()).isEqualTo(1);
+		assertThat(stats.getSkipped()).isEqualTo(0);
+	}
+
+	/** */
+	@Test
+	void deleteForgetsSnapshot() throws Exception {
+		final Objectify dirty = ofy().dirtyChecking(true);
+		final Trivial triv = dirty.load().key(key1).now();
+
+		dirty.delete().entity(triv).now();
+		dirty.save().entity(triv).now();
+
+		assertThat(stats.getWritten()).isEqualTo(1);
+
+		ofy().clear();
+		assertThat(ofy().load().key(key1).now()).isEqualTo(triv);
+	}
+
+	/** */
+	@Test
+	void savesSplitIntoBatchesAreSnapshotted() throws Exception {
+		final Objectify dirty = ofy().dirtyChecking(true);
+
+		final List<Trivial> trivs = new ArrayList<>();
+		for (int i = 0; i < 600; i++)
+			trivs.add(new Trivial("foo" + i, i));
+
+		final Map<Key<Trivial>, Trivial> saved = dirty.save().entities(trivs).now();
+		assertThat(saved.values()).containsExactlyElementsIn(trivs).inOrder();
+		for (final Map.Entry<Key<Trivial>, Trivial> entry: saved.entrySet())
+			assertThat(entry.getValue().getId()).isEqualTo(entry.getKey().getId());
+
+		stats.reset();
+		dirty.save().entities(trivs).now();
+
+		assertThat(stats.getSkipped()).isEqualTo(600);
+		assertThat(stats.getWritten()).isEqualTo(0);
+	}
+}
@@ -6,6 +6,7 @@
 package com.googlecode.objectify.test;
 
 import com.google.appengine.api.datastore.EmbeddedEntity;
+import com.googlecode.objectify.SaveException;
 import com.googlecode.objectify.annotation.Entity;
 import com.googlecode.objectify.annotation.Id;
 import com.googlecode.objectify.annotation.Index;
@@ -23,6 +24,7 @@ import java.util.List;
 import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
 import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Just the registration part of polymorphic classes.  The 'A' just to alphabetize it before
@@ -260,4 +262,34 @@ class EmbeddedPolymorphismTests extends TestBase {
 		final Handler fetched = (Handler)ofy().load().value(key).now();
 		assertThat(fetched.animal).isInstanceOf(Platypus.class);
 	}
+
+	/** */
+	@Test
+	void alsoLoadSubclassNamesLeaveTheEntityAlone() throws Exception {
+		factory().register(Handler.class);
+		factory().register(Platypus.class);
+
+		final com.google.appengine.api.datastore.Entity handler = ofy().save().toEntity(new Handler());
+		final EmbeddedEntity animal = new EmbeddedEntity();
+		animal.setUnindexedProperty("^d", "FakeDuck");
+		handler.setUnindexedProperty("animal", animal);
+
+		final Handler fetched = ofy().load().fromEntity(handler);
+
+		assertThat(fetched.animal).isInstanceOf(Platypus.class);
+		assertThat(animal.getProperty("^d")).isEqualTo("FakeDuck");
+	}
+
+	/** */
+	@Test
+	void subclassesRegisteredAfterUseCanBeSaved() throws Exception {
+		factory().register(Handler.class);
+
+		assertThrows(SaveException.class, () -> ofy().save().toEntity(new Handler(new Platypus())));
+
+		factory().register(Platypus.class);
+
+		final com.google.appengine.api.datastore.Entity handler = ofy().save().toEntity(new Handler(new Platypus()));
+		assertThat(((EmbeddedEntity)handler.getProperty("animal")).getProperty("^d")).isEqualTo("Platypus");
+	}
 }
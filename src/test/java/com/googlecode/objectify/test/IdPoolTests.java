@@ -0,0 +1,152 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.google.appengine.api.NamespaceManager;
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.annotation.Entity;
+import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.Parent;
+import com.googlecode.objectify.impl.IdPool;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of the IdPool
+ */
+class IdPoolTests extends TestBase {
+
+	/** */
+	@Entity
+	@Data
+	@NoArgsConstructor
+	private static class Child {
+		@Parent Key<Trivial> parent;
+		@Id Long id;
+		String name;
+
+		Child(Key<Trivial> parent, String name) {
+			this.parent = parent;
+			this.name = name;
+		}
+	}
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+		factory().register(Child.class);
+	}
+
+	/** */
+	@Test
+	void idsAreUniqueAcrossRefills() throws Exception {
+		final IdPool pool = new IdPool(factory(), 10, 2);
+
+		final Set<Long> ids = new HashSet<>();
+		for (int i = 0; i < 55; i++)
+			assertThat(ids.add(pool.next(null, null, "Trivial"))).isTrue();
+	}
+
+	/** */
+	@Test
+	void savesUsePooledIds() throws Exception {
+		factory().setIdPool(new IdPool(factory(), 10, 2));
+
+		final Key<Trivial> allocated = factory().allocateId(Trivial.class);
+
+		final List<Trivial> trivs = new ArrayList<>();
+		for (int i = 0; i < 25; i++)
+			trivs.add(new Trivial("foo" + i, i));
+
+		final Map<Key<Trivial>, Trivial> saved = ofy().save().entities(trivs).now();
+
+		// Ids come out of the pool in order, continuing from the one allocated above
+		long expected = allocated.getId();
+		for (final Map.Entry<Key<Trivial>, Trivial> entry: saved.entrySet()) {
+			assertThat(entry.getValue().getId()).isEqualTo(entry.getKey().getId());
+			assertThat(entry.getKey().getId()).isGreaterThan(expected);
+			expected = entry.getKey().getId();
+		}
+
+		ofy().clear();
+		assertThat(ofy().load().keys(saved.keySet()).values()).containsExactlyElementsIn(trivs).inOrder();
+	}
+
+	/** */
+	@Test
+	void dependentKeysCanBeBuiltBeforeSaving() throws Exception {
+		factory().setIdPool(new IdPool(factory()));
+
+		final Key<Trivial> parentKey = factory().allocateId(Trivial.class);
+		final Key<Child> childKey = factory().allocateId(parentKey, Child.class);
+		assertThat(childKey.getParent()).isEqualTo(parentKey);
+
+		final Child child = new Child(parentKey, "kid");
+		ofy().save().entities(new Trivial(parentKey.getId(), "mom", 1), child).now();
+
+		assertThat(child.getId()).isNotNull();
+		ofy().clear();
+		assertThat(ofy().load().key(Key.create(child)).now()).isEqualTo(child);
+	}
+
+	/** */
+	@Test
+	void withoutPoolIdsAreGeneratedByThePut() throws Exception {
+		final Trivial triv = new Trivial("foo", 1);
+		ofy().save().entity(triv).now();
+
+		assertThat(triv.getId()).isNotNull();
+	}
+
+	/** */
+	@Test
+	void rootIdsAreAllocatedInTheirOwnNamespace() throws Exception {
+		final IdPool pool = new IdPool(factory(), 10, 2);
+
+		final long first = pool.next("a", null, "Trivial");
+
+		// Taking ids from the pool doesn't depend on the current namespace
+		final String oldNamespace = NamespaceManager.get();
+		NamespaceManager.set("a");
+		final long second;
+		try {
+			second = pool.next("b", null, "Trivial");
+			assertThat(NamespaceManager.get()).isEqualTo("a");
+		} finally {
+			NamespaceManager.set(oldNamespace);
+		}
+
+		// Namespace b got a range of its own instead of sharing the one allocated in namespace a
+		assertThat(second).isNotEqualTo(first + 1);
+		assertThat(pool.next("a", null, "Trivial")).isEqualTo(first + 1);
+
+		// Children are always in their parent's namespace
+		final Key<Trivial> parent = Key.create(Trivial.class, 1L);
+		final long child = pool.next("b", parent.getRaw(), "Child");
+		assertThat(pool.next(null, parent.getRaw(), "Child")).isEqualTo(child + 1);
+	}
+
+	/** */
+	@Test
+	void badSizesAreRejected() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> new IdPool(factory(), 0));
+		assertThrows(IllegalArgumentException.class, () -> new IdPool(factory(), 10, 10));
+	}
+}
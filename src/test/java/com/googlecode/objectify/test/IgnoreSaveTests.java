@@ -8,12 +8,23 @@ import com.googlecode.objectify.Key;
 import com.googlecode.objectify.annotation.Cache;
 import com.googlecode.objectify.annotation.Id;
 import com.googlecode.objectify.annotation.IgnoreSave;
+import com.googlecode.objectify.annotation.Index;
 import com.googlecode.objectify.condition.IfDefault;
+import com.googlecode.objectify.condition.IfEmpty;
+import com.googlecode.objectify.condition.IfFalse;
+import com.googlecode.objectify.condition.IfNull;
 import com.googlecode.objectify.condition.IfTrue;
+import com.googlecode.objectify.condition.IfZero;
+import com.googlecode.objectify.condition.PojoIf;
 import com.googlecode.objectify.test.util.TestBase;
 import lombok.Data;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
 import static com.googlecode.objectify.ObjectifyService.ofy;
@@ -156,4 +167,65 @@ class IgnoreSaveTests extends TestBase {
 		assert ent.getProperties().isEmpty();
 	}
 
+	/** Overrides the stock behavior, so it mustn't be treated as a plain IfNull */
+	private static class IfNotNullReally extends IfNull {
+		@Override
+		public boolean matchesValue(Object value) {
+			return value != null;
+		}
+	}
+
+	/** */
+	private static class IfNamed extends PojoIf<StockConditions> {
+		@Override
+		public boolean matchesPojo(StockConditions pojo) {
+			return pojo.name != null;
+		}
+	}
+
+	/** */
+	@com.googlecode.objectify.annotation.Entity
+	@Data
+	private static class StockConditions {
+		@Id Long id;
+		@IgnoreSave(IfNull.class) String name;
+		@IgnoreSave(IfEmpty.class) String emptyString = "";
+		@IgnoreSave(IfEmpty.class) List<String> emptyList = new ArrayList<>();
+		@IgnoreSave(IfEmpty.class) Map<String, String> emptyMap = new HashMap<>();
+		@IgnoreSave(IfEmpty.class) long[] emptyArray = new long[0];
+		@IgnoreSave(IfEmpty.class) Object emptyObject = "";
+		@IgnoreSave(IfZero.class) int zero;
+		@IgnoreSave(IfFalse.class) boolean falsy;
+		@IgnoreSave({ IfZero.class, IfNull.class }) Long either;
+		@IgnoreSave(IfNotNullReally.class) String notNull = TEST_VALUE;
+		@IgnoreSave(IfNamed.class) String unlessNamed = TEST_VALUE;
+		@Index(IfTrue.class) Boolean indexedIfTrue;
+	}
+
+	/** */
+	@Test
+	void stockConditionsWork() throws Exception {
+		factory().register(StockConditions.class);
+
+		final StockConditions thing = new StockConditions();
+		Entity ent = ofy().save().toEntity(thing);
+		assertThat(ent.getProperties().keySet()).containsExactly("unlessNamed", "indexedIfTrue");
+		assertThat(ent.isUnindexedProperty("indexedIfTrue")).isTrue();
+
+		thing.name = TEST_VALUE;
+		thing.emptyString = "a";
+		thing.emptyList.add("a");
+		thing.emptyMap.put("a", "b");
+		thing.emptyArray = new long[] { 1 };
+		thing.emptyObject = "a";
+		thing.zero = 1;
+		thing.falsy = true;
+		thing.either = 0L;
+		thing.notNull = null;
+		thing.indexedIfTrue = true;
+		ent = ofy().save().toEntity(thing);
+		assertThat(ent.getProperties().keySet()).containsExactly("name", "emptyString", "emptyList", "emptyMap", "emptyArray",
+				"emptyObject", "zero", "falsy", "notNull", "indexedIfTrue");
+		assertThat(ent.isUnindexedProperty("indexedIfTrue")).isFalse();
+	}
 }
\ No newline at end of file
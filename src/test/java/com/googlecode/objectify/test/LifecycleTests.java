@@ -7,6 +7,7 @@ import com.googlecode.objectify.annotation.Entity;
 import com.googlecode.objectify.annotation.Id;
 import com.googlecode.objectify.annotation.Load;
 import com.googlecode.objectify.annotation.OnLoad;
+import com.googlecode.objectify.annotation.OnLoadBatch;
 import com.googlecode.objectify.annotation.OnSave;
 import com.googlecode.objectify.annotation.Parent;
 import com.googlecode.objectify.test.entity.Trivial;
@@ -15,6 +16,10 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
 import static com.googlecode.objectify.ObjectifyService.ofy;
@@ -192,4 +197,84 @@ class LifecycleTests extends TestBase {
 		assertThat(fetched.onSaved).isTrue();
 		assertThat(fetched.onLoaded).isTrue();	// would fail without session clear
 	}
+
+	/** */
+	@Entity
+	@Data
+	private static class HasBatchLifecycle {
+		static final List<List<HasBatchLifecycle>> batches = new ArrayList<>();
+
+		@Id Long id;
+		boolean onLoaded;
+
+		@OnLoad void onLoad() { this.onLoaded = true; }
+
+		@OnLoadBatch static void onLoadBatch(List<HasBatchLifecycle> batch) {
+			for (HasBatchLifecycle thing: batch)
+				assertThat(thing.onLoaded).isTrue();
+
+			batches.add(new ArrayList<>(batch));
+		}
+	}
+
+	/** */
+	@Test
+	void batchLifecycleExecutesOncePerBatch() throws Exception {
+		factory().register(HasBatchLifecycle.class);
+		HasBatchLifecycle.batches.clear();
+
+		final List<HasBatchLifecycle> things = new ArrayList<>();
+		for (long id = 1; id <= 3; id++) {
+			final HasBatchLifecycle thing = new HasBatchLifecycle();
+			thing.id = id;
+			things.add(thing);
+		}
+		ofy().save().entities(things).now();
+		ofy().clear();
+
+		final Map<Long, HasBatchLifecycle> fetched = ofy().load().type(HasBatchLifecycle.class).ids(1L, 2L, 3L);
+		assertThat(fetched).hasSize(3);
+
+		assertThat(HasBatchLifecycle.batches).hasSize(1);
+		assertThat(HasBatchLifecycle.batches.get(0)).containsExactlyElementsIn(fetched.values());
+	}
+
+	/** */
+	@Entity
+	@Data
+	private static class HasNonStaticBatchLifecycle {
+		@Id Long id;
+		@OnLoadBatch void onLoadBatch(List<HasNonStaticBatchLifecycle> batch) {}
+	}
+
+	/** */
+	@Test
+	void batchLifecycleMethodsMustBeStatic() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> factory().register(HasNonStaticBatchLifecycle.class));
+	}
+
+	/** */
+	@Entity
+	@Data
+	private static class HasStaticLifecycle {
+		static int saves;
+		static int loads;
+
+		@Id Long id;
+		@OnSave static void onSave() { saves++; }
+		@OnLoad static void onLoad() { loads++; }
+	}
+
+	/** */
+	@Test
+	void staticLifecycleMethodsExecute() throws Exception {
+		factory().register(HasStaticLifecycle.class);
+		HasStaticLifecycle.saves = 0;
+		HasStaticLifecycle.loads = 0;
+
+		saveClearLoad(new HasStaticLifecycle());
+
+		assertThat(HasStaticLifecycle.saves).isEqualTo(1);
+		assertThat(HasStaticLifecycle.loads).isEqualTo(1);
+	}
 }
@@ -0,0 +1,166 @@
+package com.googlecode.objectify.test;
+
+import com.google.appengine.api.datastore.Blob;
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.SaveException;
+import com.googlecode.objectify.annotation.Cache;
+import com.googlecode.objectify.annotation.Entity;
+import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.Index;
+import com.googlecode.objectify.annotation.Packed;
+import com.googlecode.objectify.test.util.TestBase;
+import lombok.Data;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of the {@code @Packed} annotation
+ */
+class PackedTests extends TestBase {
+
+	/** */
+	@Entity
+	@Cache
+	@Data
+	private static class HasPacked {
+		@Id Long id;
+		@Packed long[] longs;
+		@Packed int[] ints;
+		@Packed Short[] shorts;
+		@Packed double[] doubles;
+		@Packed float[] floats;
+		@Packed List<Double> doubleList;
+		@Packed(delta = true) List<Long> timestamps = new ArrayList<>();
+		@Packed(delta = true, zip = true) long[] zipped;
+	}
+
+	/** */
+	@Entity
+	@Data
+	private static class HasIndexedPacked {
+		@Id Long id;
+		@Index @Packed long[] longs;
+	}
+
+	/** */
+	@Entity
+	@Data
+	private static class HasPackedStrings {
+		@Id Long id;
+		@Packed List<String> strings;
+	}
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(HasPacked.class);
+	}
+
+	/** */
+	@Test
+	void everythingRoundTrips() throws Exception {
+		final HasPacked hp = new HasPacked();
+		hp.longs = new long[] { Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE };
+		hp.ints = new int[] { Integer.MIN_VALUE, 5, Integer.MAX_VALUE };
+		hp.shorts = new Short[] { -3, 300 };
+		hp.doubles = new double[] { -1.5, 0, Math.PI, Double.NaN, Double.MAX_VALUE };
+		hp.floats = new float[] { 1.25f, -7f };
+		hp.doubleList = Arrays.asList(2.5, 3.5);
+		hp.timestamps.addAll(Arrays.asList(1500000000000L, 1500000000010L, 1500000000005L));
+		hp.zipped = new long[] { 100, 200, 300, 400 };
+
+		final HasPacked fetched = saveClearLoad(hp);
+
+		assertThat(fetched).isEqualTo(hp);
+	}
+
+	/** */
+	@Test
+	void storedAsSingleBlob() throws Exception {
+		final HasPacked hp = new HasPacked();
+		hp.longs = new long[] { 1, 2, 3 };
+
+		final com.google.appengine.api.datastore.Entity entity = ofy().save().toEntity(hp);
+
+		assertThat(entity.getProperty("longs")).isInstanceOf(Blob.class);
+		assertThat(entity.isUnindexedProperty("longs")).isTrue();
+	}
+
+	/** */
+	@Test
+	void deltaAndZipMakeSeriesSmaller() throws Exception {
+		final HasPacked hp = new HasPacked();
+		hp.longs = new long[10000];
+		hp.zipped = new long[10000];
+		for (int i = 0; i < 10000; i++) {
+			hp.longs[i] = 1500000000000L + i * 1000;
+			hp.zipped[i] = 1500000000000L + i * 1000;
+		}
+
+		final com.google.appengine.api.datastore.Entity entity = ofy().save().toEntity(hp);
+		final int plain = ((Blob)entity.getProperty("longs")).getBytes().length;
+		final int zipped = ((Blob)entity.getProperty("zipped")).getBytes().length;
+
+		assertThat(zipped).isLessThan(plain / 10);
+
+		final HasPacked fetched = ofy().load().fromEntity(entity);
+		assertThat(fetched.zipped).isEqualTo(hp.zipped);
+	}
+
+	/** */
+	@Test
+	void emptyAndNullAreNotStored() throws Exception {
+		final HasPacked hp = new HasPacked();
+		hp.longs = new long[0];
+
+		final com.google.appengine.api.datastore.Entity entity = ofy().save().toEntity(hp);
+
+		assertThat(entity.hasProperty("longs")).isFalse();
+		assertThat(entity.hasProperty("ints")).isFalse();
+		assertThat(entity.hasProperty("timestamps")).isFalse();
+	}
+
+	/** */
+	@Test
+	void oldListFormatCanBeRead() throws Exception {
+		final com.google.appengine.api.datastore.Entity entity = new com.google.appengine.api.datastore.Entity(Key.getKind(HasPacked.class), 1L);
+		entity.setUnindexedProperty("longs", Arrays.asList(1L, 2L, null, 3L));
+		entity.setUnindexedProperty("floats", Arrays.asList(1.5, 2L));
+		entity.setUnindexedProperty("timestamps", Arrays.asList(10L, 20L));
+		ds().put(null, entity);
+
+		final HasPacked fetched = ofy().load().type(HasPacked.class).id(1).now();
+
+		assertThat(fetched.longs).isEqualTo(new long[] { 1, 2, 3 });
+		assertThat(fetched.floats).isEqualTo(new float[] { 1.5f, 2f });
+		assertThat(fetched.timestamps).containsExactly(10L, 20L).inOrder();
+
+		// Rewritten in the packed format
+		assertThat(ofy().save().toEntity(fetched).getProperty("longs")).isInstanceOf(Blob.class);
+	}
+
+	/** */
+	@Test
+	void nullElementsAreRejected() throws Exception {
+		final HasPacked hp = new HasPacked();
+		hp.timestamps.add(null);
+
+		assertThrows(SaveException.class, () -> ofy().save().toEntity(hp));
+	}
+
+	/** */
+	@Test
+	void indexedOrNonNumericFieldsAreRejected() throws Exception {
+		assertThrows(IllegalStateException.class, () -> factory().register(HasIndexedPacked.class));
+		assertThrows(IllegalStateException.class, () -> factory().register(HasPackedStrings.class));
+	}
+}
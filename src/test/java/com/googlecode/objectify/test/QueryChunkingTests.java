@@ -18,6 +18,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -101,6 +103,42 @@ class QueryChunkingTests extends TestBase {
 		assertThat(rc.getOffset()).isEqualTo(0);
 	}
 
+	/** */
+	@Test
+	void keysComeInBatchesOfChunkSize() throws Exception {
+		final List<Integer> sizes = new ArrayList<>();
+		final List<Key<Trivial>> all = new ArrayList<>();
+
+		ofy().load().type(Trivial.class).chunk(BATCH_SIZE).keys().forEachBatch(batch -> {
+			sizes.add(batch.size());
+			all.addAll(batch);
+		});
+
+		assertThat(sizes).containsExactly(2, 2, 1).inOrder();
+		assertThat(all).containsExactlyElementsIn(values.keySet());
+	}
+
+	/** */
+	@Test
+	void rawKeysComeInBatches() throws Exception {
+		final List<com.google.appengine.api.datastore.Key> all = new ArrayList<>();
+
+		ofy().load().type(Trivial.class).chunk(BATCH_SIZE).keys().forEachRawBatch(all::addAll);
+
+		assertThat(all).hasSize(5);
+		assertThat(all.get(0).getId()).isEqualTo(10);
+		assertThat(all.get(4).getId()).isEqualTo(14);
+	}
+
+	/** */
+	@Test
+	void unlimitedChunkIsOneBatch() throws Exception {
+		final List<Integer> sizes = new ArrayList<>();
+		ofy().load().type(Trivial.class).chunkAll().keys().forEachBatch(batch -> sizes.add(batch.size()));
+
+		assertThat(sizes).containsExactly(5);
+	}
+
 	/**
 	 * Assert that fetching from the cursor gets a trivial with the specified id as the first item.
 	 */
@@ -0,0 +1,168 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.google.appengine.api.NamespaceManager;
+import com.google.apphosting.api.ApiProxy;
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.Result;
+import com.googlecode.objectify.impl.CountCache;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of async, bounded, and cached counts
+ */
+class QueryCountTests extends TestBase {
+
+	/** Environment attribute which holds ThreadManager.currentRequestThreadFactory() */
+	private static final String REQUEST_THREAD_FACTORY = "com.google.appengine.api.ThreadManager.REQUEST_THREAD_FACTORY";
+
+	/** */
+	private List<Key<Trivial>> keys;
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+
+		final List<Trivial> trivs = new ArrayList<>();
+		for (int i = 1; i <= 5; i++)
+			trivs.add(new Trivial((long)i, "foo" + i, i));
+
+		keys = new ArrayList<>(ofy().save().entities(trivs).now().keySet());
+	}
+
+	/** */
+	@Test
+	void countAsyncMatchesCount() throws Exception {
+		final Result<Integer> count = ofy().load().type(Trivial.class).countAsync();
+		assertThat(count.now()).isEqualTo(5);
+		assertThat(ofy().load().type(Trivial.class).filter("someString >", "foo2").countAsync().now()).isEqualTo(3);
+	}
+
+	/** */
+	@Test
+	void countAsyncObeysLimitAndOffset() throws Exception {
+		assertThat(ofy().load().type(Trivial.class).limit(2).countAsync().now()).isEqualTo(2);
+		assertThat(ofy().load().type(Trivial.class).offset(2).countAsync().now()).isEqualTo(3);
+	}
+
+	/** */
+	@Test
+	void boundedCountStopsAtBound() throws Exception {
+		assertThat(ofy().load().type(Trivial.class).countAsync(3).now()).isEqualTo(3);
+		assertThat(ofy().load().type(Trivial.class).countAsync(100).now()).isEqualTo(5);
+		assertThat(ofy().load().type(Trivial.class).limit(2).countAsync(3).now()).isEqualTo(2);
+	}
+
+	/** */
+	@Test
+	void boundMustBePositive() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> ofy().load().type(Trivial.class).countAsync(0));
+	}
+
+	/** */
+	@Test
+	void countCacheServesRepeatedCounts() throws Exception {
+		final CountCache countCache = new CountCache(60_000, 100);
+		factory().setCountCache(countCache);
+
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(5);
+
+		// Sneak a delete past the WriteEngine; the stale count shows the cache is being used
+		factory().setCountCache(null);
+		ofy().delete().key(keys.get(0)).now();
+		factory().setCountCache(countCache);
+
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(5);
+		assertThat(ofy().load().type(Trivial.class).countAsync().now()).isEqualTo(5);
+
+		// A different query is counted for real
+		assertThat(ofy().load().type(Trivial.class).limit(100).count()).isEqualTo(4);
+	}
+
+	/** */
+	@Test
+	void writesInvalidateCachedCounts() throws Exception {
+		factory().setCountCache(new CountCache(60_000, 100));
+
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(5);
+		assertThat(ofy().load().type(Trivial.class).countAsync(2).now()).isEqualTo(2);
+
+		ofy().delete().key(keys.get(0)).now();
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(4);
+
+		ofy().save().entity(new Trivial(10L, "bar", 10)).now();
+		assertThat(ofy().load().type(Trivial.class).countAsync().now()).isEqualTo(5);
+	}
+
+	/** */
+	@Test
+	void transactionalWritesInvalidateCountsOnlyWhenCommitted() throws Exception {
+		final CountCache countCache = new CountCache(60_000, 100);
+		factory().setCountCache(countCache);
+
+		final long before = countCache.generation("", "Trivial");
+
+		assertThrows(IllegalStateException.class, () -> ofy().transact(() -> {
+			ofy().save().entity(new Trivial(10L, "bar", 10)).now();
+			throw new IllegalStateException("roll back");
+		}));
+		assertThat(countCache.generation("", "Trivial")).isEqualTo(before);
+
+		ofy().transact(() -> {
+			ofy().delete().key(keys.get(0)).now();
+			assertThat(countCache.generation("", "Trivial")).isEqualTo(before);
+		});
+		assertThat(countCache.generation("", "Trivial")).isGreaterThan(before);
+	}
+
+	/** */
+	@Test
+	void cachedCountsAreNotSharedBetweenNamespaces() throws Exception {
+		factory().setCountCache(new CountCache(60_000, 100));
+
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(5);
+
+		final String oldNamespace = NamespaceManager.get();
+		NamespaceManager.set("other");
+		try {
+			assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(0);
+
+			ofy().save().entity(new Trivial(10L, "bar", 10)).now();
+			assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(1);
+		} finally {
+			NamespaceManager.set(oldNamespace);
+		}
+
+		// The write in the other namespace was counted there, and didn't disturb this one
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(5);
+	}
+
+	/** */
+	@Test
+	void countAsyncWorksWithoutRequestThreads() throws Exception {
+		// Like the remote API, which has no request thread factory
+		final Map<String, Object> attributes = ApiProxy.getCurrentEnvironment().getAttributes();
+		final Object threadFactory = attributes.remove(REQUEST_THREAD_FACTORY);
+		try {
+			assertThat(ofy().load().type(Trivial.class).countAsync().now()).isEqualTo(5);
+			assertThat(ofy().load().type(Trivial.class).countAsync(2).now()).isEqualTo(2);
+		} finally {
+			attributes.put(REQUEST_THREAD_FACTORY, threadFactory);
+		}
+	}
+}
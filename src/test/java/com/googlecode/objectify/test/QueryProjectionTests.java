@@ -9,14 +9,17 @@ import com.googlecode.objectify.annotation.Id;
 import com.googlecode.objectify.annotation.Index;
 import com.googlecode.objectify.test.entity.Trivial;
 import com.googlecode.objectify.test.util.TestBase;
+import com.googlecode.objectify.annotation.AlsoLoad;
 import lombok.Data;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
 import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Tests of basic query operations
@@ -123,4 +126,89 @@ class QueryProjectionTests extends TestBase {
 		assertThat(fetched.t).isTrue();
 		assertThat(fetched.f).isFalse();
 	}
-}
\ No newline at end of file
+
+	/** A projection class; not an entity */
+	@Data
+	private static class TrivialSummary {
+		@Id Long id;
+		@AlsoLoad("someString") String str;
+		long someNumber;
+	}
+
+	/** */
+	@Test
+	void projectIntoPlainClass() throws Exception {
+		factory().register(Trivial.class);
+
+		final Trivial triv = new Trivial(123L, "foo", 12);
+		final Key<Trivial> trivKey = ofy().save().entity(triv).now();
+		ofy().clear();
+
+		final List<TrivialSummary> projected = ofy().load().type(Trivial.class).project("someString").projectInto(TrivialSummary.class).list();
+		assertThat(projected).hasSize(1);
+
+		final TrivialSummary summary = projected.get(0);
+		assertThat(summary.id).isEqualTo(123L);
+		assertThat(summary.str).isEqualTo("foo");
+		assertThat(summary.someNumber).isEqualTo(0);	// not projected
+
+		assertThat(ofy().isLoaded(trivKey)).isFalse();
+	}
+
+	/** */
+	@Data
+	private static class NumberOnly {
+		int number;
+	}
+
+	/** */
+	@Test
+	void projectIntoRequiresProjection() throws Exception {
+		factory().register(HasIndexedNumber.class);
+
+		final HasIndexedNumber hin = new HasIndexedNumber();
+		hin.number = 5;
+		ofy().save().entity(hin).now();
+
+		assertThrows(IllegalStateException.class, () -> ofy().load().type(HasIndexedNumber.class).projectInto(NumberOnly.class));
+
+		final NumberOnly fetched = ofy().load().type(HasIndexedNumber.class).project("number").projectInto(NumberOnly.class).first().now();
+		assertThat(fetched.number).isEqualTo(5);
+	}
+
+	/** */
+	@Test
+	void projectIntoMap() throws Exception {
+		factory().register(Trivial.class);
+
+		ofy().save().entity(new Trivial(123L, "foo", 12)).now();
+		ofy().clear();
+
+		final Map<String, Object> fetched = ofy().load().type(Trivial.class).project("someString").projectIntoMap().first().now();
+		assertThat(fetched).containsExactly("someString", "foo");
+	}
+
+	/** */
+	@Test
+	void projectIntoMapOfBooleans() throws Exception {
+		factory().register(HasBool.class);
+
+		ofy().save().entity(new HasBool()).now();
+
+		final Map<String, Object> fetched = ofy().load().type(HasBool.class).project("t").projectIntoMap().first().now();
+		assertThat(fetched).containsExactly("t", true);
+	}
+
+	/** */
+	@Test
+	void projectIntoMapWithoutTypeInformation() throws Exception {
+		factory().register(HasIndexedNumber.class);
+
+		final HasIndexedNumber hin = new HasIndexedNumber();
+		hin.number = 5;
+		ofy().save().entity(hin).now();
+
+		final Map<String, Object> fetched = ofy().load().kind("HasIndexedNumber").project("number").projectIntoMap().first().now();
+		assertThat(fetched).containsExactly("number", 5L);
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.google.appengine.api.NamespaceManager;
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.annotation.Entity;
+import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.Parent;
+import com.googlecode.objectify.cmd.Query;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of splitting a query into key range shards
+ *
+ * @author Jeff Schnitzer <jeff@infohazard.org>
+ */
+class QuerySplitTests extends TestBase {
+
+	/** */
+	@Entity
+	@Data
+	@NoArgsConstructor
+	private static class Child {
+		@Parent Key<Trivial> parent;
+		@Id Long id;
+
+		Child(Key<Trivial> parent, long id) {
+			this.parent = parent;
+			this.id = id;
+		}
+	}
+
+	/** */
+	private List<Trivial> trivs;
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+		factory().register(Child.class);
+
+		trivs = new ArrayList<>();
+		for (int i = 1; i <= 20; i++)
+			trivs.add(new Trivial((long)i, (i % 2 == 0) ? "even" : "odd", i));
+
+		ofy().save().entities(trivs).now();
+	}
+
+	/** */
+	@Test
+	void shardsCoverEverythingInKeyOrder() throws Exception {
+		final List<Query<Trivial>> shards = ofy().load().type(Trivial.class).split(4);
+		assertThat(shards).hasSize(4);
+
+		final List<Trivial> all = new ArrayList<>();
+		for (final Query<Trivial> shard: shards) {
+			final List<Trivial> part = shard.list();
+			assertThat(part).isNotEmpty();
+			all.addAll(part);
+		}
+
+		assertThat(all).containsExactlyElementsIn(trivs).inOrder();
+	}
+
+	/** */
+	@Test
+	void shardsRespectFilters() throws Exception {
+		final List<Trivial> all = new ArrayList<>();
+		for (final Query<Trivial> shard: ofy().load().type(Trivial.class).filter("someString", "even").split(3))
+			all.addAll(shard.list());
+
+		assertThat(all).hasSize(10);
+		for (final Trivial triv: all)
+			assertThat(triv.getSomeString()).isEqualTo("even");
+	}
+
+	/** */
+	@Test
+	void oneShardIsTheWholeQuery() throws Exception {
+		final List<Query<Trivial>> shards = ofy().load().type(Trivial.class).split(1);
+		assertThat(shards).hasSize(1);
+		assertThat(shards.get(0).list()).containsExactlyElementsIn(trivs).inOrder();
+	}
+
+	/** */
+	@Test
+	void moreShardsThanEntities() throws Exception {
+		final List<Query<Trivial>> shards = ofy().load().type(Trivial.class).split(50);
+		assertThat(shards.size()).isAtMost(21);
+
+		int total = 0;
+		for (final Query<Trivial> shard: shards)
+			total += shard.count();
+
+		assertThat(total).isEqualTo(20);
+	}
+
+	/** */
+	@Test
+	void cannotSplitSortedOrLimitedQueries() throws Exception {
+		assertThrows(IllegalStateException.class, () -> ofy().load().type(Trivial.class).order("someString").split(2));
+		assertThrows(IllegalStateException.class, () -> ofy().load().type(Trivial.class).limit(5).split(2));
+	}
+
+	/** */
+	@Test
+	void cannotSplitQueriesWithInequalitiesOnOtherProperties() throws Exception {
+		assertThrows(IllegalStateException.class, () -> ofy().load().type(Trivial.class).filter("someNumber >", 5).split(2));
+		assertThrows(IllegalStateException.class, () -> ofy().load().type(Trivial.class).filter("someString !=", "odd").split(2));
+
+		// Equality and key ranges are fine
+		assertThat(ofy().load().type(Trivial.class).filter("someString in", Arrays.asList("odd", "even")).split(2)).isNotEmpty();
+		assertThat(ofy().load().type(Trivial.class).filterKey(">", Key.create(Trivial.class, 10L)).split(2)).isNotEmpty();
+	}
+
+	/** Two families of children, interleaved in the key space */
+	private List<Child> saveChildren() {
+		final Key<Trivial> mom = Key.create(trivs.get(0));
+		final Key<Trivial> dad = Key.create(trivs.get(1));
+
+		final List<Child> moms = new ArrayList<>();
+		final List<Child> dads = new ArrayList<>();
+		for (long i = 1; i <= 20; i++) {
+			moms.add(new Child(mom, i));
+			dads.add(new Child(dad, i));
+		}
+
+		ofy().save().entities(moms).now();
+		ofy().save().entities(dads).now();
+
+		return dads;
+	}
+
+	/** */
+	private void assertShardsCover(final List<Query<Child>> shards, final List<Child> expected) {
+		assertThat(shards.size()).isGreaterThan(1);
+
+		final List<Child> all = new ArrayList<>();
+		for (final Query<Child> shard: shards) {
+			final List<Child> part = shard.list();
+			assertThat(part).isNotEmpty();
+			all.addAll(part);
+		}
+
+		assertThat(all).containsExactlyElementsIn(expected).inOrder();
+	}
+
+	/** */
+	@Test
+	void ancestorQueriesAreSplitWithinTheAncestor() throws Exception {
+		final List<Child> dads = saveChildren();
+
+		final List<Query<Child>> shards = ofy().load().type(Child.class).ancestor(trivs.get(1)).split(4);
+		assertShardsCover(shards, dads);
+	}
+
+	/** */
+	@Test
+	void ancestorQueriesCanBeSplitInsideTransactions() throws Exception {
+		final List<Child> dads = saveChildren();
+
+		ofy().transact(() -> {
+			final List<Query<Child>> shards = ofy().load().type(Child.class).ancestor(trivs.get(1)).split(4);
+			assertShardsCover(shards, dads);
+		});
+	}
+
+	/** */
+	@Test
+	void queriesAreSplitInTheirOwnNamespace() throws Exception {
+		final String oldNamespace = NamespaceManager.get();
+		NamespaceManager.set("other");
+		final List<Trivial> others = new ArrayList<>();
+		final Query<Trivial> query;
+		try {
+			for (long i = 1; i <= 10; i++)
+				others.add(new Trivial(i, "other", (int)i));
+			ofy().save().entities(others).now();
+
+			// A plain load().type() doesn't create its query until it is used
+			query = ofy().load().type(Trivial.class).filter("someString", "other");
+		} finally {
+			NamespaceManager.set(oldNamespace);
+		}
+
+		final List<Trivial> all = new ArrayList<>();
+		final List<Query<Trivial>> shards = query.split(3);
+		assertThat(shards.size()).isGreaterThan(1);
+		for (final Query<Trivial> shard: shards)
+			all.addAll(shard.list());
+
+		assertThat(all).containsExactlyElementsIn(others).inOrder();
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.Ref;
+import com.googlecode.objectify.annotation.Entity;
+import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.Load;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import lombok.Data;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+
+/**
+ * Tests of the lazy stream() query terminator
+ *
+ * @author Jeff Schnitzer <jeff@infohazard.org>
+ */
+class QueryStreamTests extends TestBase {
+
+	/** */
+	private List<Trivial> trivs;
+	private List<Key<Trivial>> keys;
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+
+		trivs = new ArrayList<>();
+		for (int i = 1; i <= 5; i++)
+			trivs.add(new Trivial((long)i, "foo" + i, i));
+
+		keys = new ArrayList<>(ofy().save().entities(trivs).now().keySet());
+		ofy().clear();
+	}
+
+	/** */
+	@Test
+	void streamProducesAllResultsInOrder() throws Exception {
+		final List<Trivial> streamed = ofy().load().type(Trivial.class).chunk(2).stream().collect(Collectors.toList());
+		assertThat(streamed).containsExactlyElementsIn(trivs).inOrder();
+	}
+
+	/** */
+	@Test
+	void streamWorksForHybridAndNormalQueries() throws Exception {
+		assertThat(ofy().load().type(Trivial.class).hybrid(true).chunk(2).stream().collect(Collectors.toList())).containsExactlyElementsIn(trivs).inOrder();
+		assertThat(ofy().load().type(Trivial.class).hybrid(false).chunk(2).stream().collect(Collectors.toList())).containsExactlyElementsIn(trivs).inOrder();
+	}
+
+	/** */
+	@Test
+	void keysStream() throws Exception {
+		final List<Key<Trivial>> streamed = ofy().load().type(Trivial.class).keys().stream().collect(Collectors.toList());
+		assertThat(streamed).containsExactlyElementsIn(keys).inOrder();
+	}
+
+	/** */
+	@Test
+	void streamReleasesConsumedChunksFromSession() throws Exception {
+		final List<Trivial> seen = ofy().load().type(Trivial.class).chunk(2).stream().collect(Collectors.toList());
+		assertThat(seen).hasSize(5);
+
+		// Including the final chunk, once the stream is exhausted
+		for (final Key<Trivial> key: keys)
+			assertThat(ofy().isLoaded(key)).isFalse();
+	}
+
+	/** */
+	@Test
+	void streamOnlyReleasesWhatItLoaded() throws Exception {
+		final Trivial before = ofy().load().key(keys.get(1)).now();
+
+		ofy().load().type(Trivial.class).chunk(2).stream().forEach(triv -> {});
+
+		assertThat(ofy().isLoaded(keys.get(0))).isFalse();
+		assertThat(ofy().isLoaded(keys.get(1))).isTrue();
+		assertThat(ofy().load().key(keys.get(1)).now()).isSameAs(before);
+	}
+
+	/** */
+	@Entity
+	@Data
+	private static class HasLoadedRef {
+		@Id Long id;
+		@Load Ref<Trivial> triv;
+	}
+
+	/** */
+	@Test
+	void streamReleasesWhatLoadPulledIn() throws Exception {
+		factory().register(HasLoadedRef.class);
+
+		final List<HasLoadedRef> refs = new ArrayList<>();
+		for (int i = 0; i < keys.size(); i++) {
+			final HasLoadedRef ref = new HasLoadedRef();
+			ref.id = (long)i + 1;
+			ref.triv = Ref.create(keys.get(i));
+			refs.add(ref);
+		}
+		ofy().save().entities(refs).now();
+		ofy().clear();
+
+		final List<HasLoadedRef> streamed = ofy().load().type(HasLoadedRef.class).chunk(2).stream().collect(Collectors.toList());
+		assertThat(streamed).hasSize(5);
+
+		for (final Key<Trivial> key: keys)
+			assertThat(ofy().isLoaded(key)).isFalse();
+
+		// Loading it again puts it back
+		assertThat(streamed.get(0).triv.get()).isEqualTo(trivs.get(0));
+	}
+
+	/** */
+	@Test
+	void iteratorDoesNotReleaseSession() throws Exception {
+		ofy().load().type(Trivial.class).chunk(2).list().size();
+
+		for (final Key<Trivial> key: keys)
+			assertThat(ofy().isLoaded(key)).isTrue();
+	}
+
+	/** */
+	@Test
+	void limitedStreamOnlyTakesWhatItNeeds() throws Exception {
+		final List<Trivial> two = ofy().load().type(Trivial.class).chunk(2).stream().limit(2).collect(Collectors.toList());
+		assertThat(two).containsExactly(trivs.get(0), trivs.get(1)).inOrder();
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.annotation.AlsoLoad;
+import com.googlecode.objectify.annotation.Entity;
+import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.IgnoreSave;
+import com.googlecode.objectify.annotation.Index;
+import com.googlecode.objectify.annotation.Subclass;
+import com.googlecode.objectify.condition.IfDefault;
+import com.googlecode.objectify.condition.IfNull;
+import com.googlecode.objectify.test.util.TestBase;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Rough timings of startup registration, one class at a time versus registerAll(). Each round uses a fresh
+ * factory, so nothing is cached between rounds except what the JVM itself keeps. Nothing is asserted about
+ * the timings, they are just logged. Tagged so they only run with the benchmark profile.
+ */
+@Tag("benchmark")
+@Slf4j
+class RegisterBenchmarkTests extends TestBase {
+
+	/** */
+	private static final int WARMUP = 100;
+	private static final int ROUNDS = 50;
+
+	/** */
+	private static class Address {
+		String street;
+		String city;
+		@IgnoreSave(IfNull.class) String postcode;
+		List<String> lines;
+	}
+
+	/** */
+	private static class Contact {
+		String name;
+		@Index String email;
+		Address address;
+		Map<String, String> extra;
+	}
+
+	/** */
+	@Entity
+	private static class Customer {
+		@Id Long id;
+		@Index String name;
+		Contact primary;
+		List<Contact> others;
+		@IgnoreSave(IfDefault.class) int visits;
+		Date created;
+	}
+
+	/** */
+	@Entity
+	private static class Order {
+		@Id Long id;
+		@Index Long customerId;
+		Address shipTo;
+		Address billTo;
+		long[] lineItems;
+		Set<String> tags;
+		@AlsoLoad("total") double amount;
+	}
+
+	/** */
+	@Entity
+	private static class Product {
+		@Id String sku;
+		@Index String title;
+		String description;
+		Map<String, Double> prices;
+		List<Address> warehouses;
+	}
+
+	/** */
+	@Entity
+	private static class Payment {
+		@Id Long id;
+		@Index Long orderId;
+		@Index Date when;
+		Contact payer;
+	}
+
+	/** */
+	@Subclass(index = true)
+	private static class CardPayment extends Payment {
+		String last4;
+		int expiryMonth;
+		int expiryYear;
+	}
+
+	/** */
+	@Subclass(index = true)
+	private static class TransferPayment extends Payment {
+		String iban;
+		Address bank;
+	}
+
+	/** */
+	@Entity
+	private static class Shipment {
+		@Id Long id;
+		@Index Long orderId;
+		Address from;
+		Address to;
+		List<Date> scans;
+	}
+
+	/** */
+	@Entity
+	private static class Review {
+		@Id Long id;
+		@Index String sku;
+		@Index int stars;
+		String text;
+		Contact author;
+	}
+
+	/** */
+	private static final List<Class<?>> CLASSES = Arrays.asList(
+			Customer.class, Order.class, Product.class, Payment.class, CardPayment.class, TransferPayment.class,
+			Shipment.class, Review.class);
+
+	/** Registers everything in fresh factories repeatedly, logging the average time */
+	private void time(final String name, final Consumer<ObjectifyFactory> registration) {
+		for (int i = 0; i < WARMUP; i++)
+			registration.accept(new ObjectifyFactory());
+
+		ObjectifyFactory fact = null;
+		long nanos = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			fact = new ObjectifyFactory();
+			final long start = System.nanoTime();
+			registration.accept(fact);
+			nanos += System.nanoTime() - start;
+		}
+
+		log.info("{} of {} classes: {} us", name, CLASSES.size(), nanos / ROUNDS / 1000);
+
+		assertThat(fact.getMetadata(Review.class)).isNotNull();
+	}
+
+	/** */
+	@Test
+	void registerOneAtATime() throws Exception {
+		time("register()", fact -> {
+			for (Class<?> clazz: CLASSES)
+				fact.register(clazz);
+		});
+	}
+
+	/** */
+	@Test
+	void registerAll() throws Exception {
+		time("registerAll()", fact -> fact.registerAll(CLASSES));
+	}
+}
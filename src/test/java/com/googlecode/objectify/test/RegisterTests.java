@@ -1,14 +1,25 @@
 package com.googlecode.objectify.test;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import org.junit.jupiter.api.Test;
 
 import com.googlecode.objectify.Key;
+import com.googlecode.objectify.ObjectifyFactory;
 import com.googlecode.objectify.annotation.Cache;
 import com.googlecode.objectify.annotation.Entity;
 import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.Subclass;
 import com.googlecode.objectify.test.util.TestBase;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
 import static com.googlecode.objectify.ObjectifyService.ofy;
@@ -94,4 +105,77 @@ class RegisterTests extends TestBase {
 		// New behavior
 		assertThat(ofy().load().key(k).now()).isNull();
 	}
+
+	@Entity
+	@Data
+	private static class Animal {
+		@Id Long id;
+		String name;
+	}
+
+	@Subclass
+	@Data
+	@EqualsAndHashCode(callSuper = true)
+	private static class Dog extends Animal {
+		int barks;
+	}
+
+	@Subclass
+	@Data
+	@EqualsAndHashCode(callSuper = true)
+	private static class Puppy extends Dog {
+		Normal favorite;
+	}
+
+	/** Subclasses come first on purpose */
+	private static final List<Class<?>> ALL = Arrays.asList(Puppy.class, Dog.class, Normal.class, NonPublicConstructor.class, Animal.class, HasEmbedded.class);
+
+	@Test
+	void registerAllIsTheSameAsRegister() throws Exception {
+		factory().registerAll(ALL);
+
+		assertThat(factory().getMetadata(Animal.class)).isNotNull();
+		assertThat(factory().getMetadata(Normal.class)).isNotNull();
+		assertThat(factory().getMetadata(HasEmbedded.class)).isNotNull();
+		assertThat(factory().getTranslators().getRoot(Puppy.class)).isSameAs(factory().getTranslators().getRoot(Puppy.class));
+
+		final Puppy puppy = new Puppy();
+		puppy.name = "rex";
+		puppy.barks = 3;
+		puppy.favorite = new Normal();
+		puppy.favorite.foo = "ball";
+
+		final Animal fetched = saveClearLoad((Animal)puppy);
+
+		assertThat(fetched).isEqualTo(puppy);
+	}
+
+	@Test
+	void registerAllRejectsUnannotatedClasses() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> factory().registerAll(Arrays.asList(Normal.class, BadStruct.class)));
+	}
+
+	@Test
+	void registeringFromManyThreadsIsSafe() throws Exception {
+		final ObjectifyFactory fact = new ObjectifyFactory();
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				final List<Class<?>> classes = new ArrayList<>(ALL);
+				Collections.rotate(classes, i);
+				futures.add(executor.submit(() -> fact.registerAll(classes)));
+			}
+
+			for (Future<?> future: futures)
+				future.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(fact.getTranslators().getRoot(Puppy.class)).isSameAs(fact.getTranslators().getRoot(Puppy.class));
+		assertThat(fact.getMetadata(Animal.class).getTranslator()).isSameAs(fact.getTranslators().getRoot(Animal.class));
+		assertThat(fact.getMetadata(Normal.class)).isNotNull();
+		assertThat(fact.getMetadata(HasEmbedded.class)).isNotNull();
+	}
 }
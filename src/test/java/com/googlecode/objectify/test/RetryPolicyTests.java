@@ -0,0 +1,149 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.google.common.collect.Range;
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.RetryPolicy;
+import com.googlecode.objectify.impl.ContentionStats;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import com.googlecode.objectify.util.ExponentialBackoff;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of retry policies and contention stats for transactions
+ */
+class RetryPolicyTests extends TestBase {
+
+	/** */
+	private ContentionStats stats;
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+
+		stats = factory().getContentionStats();
+		stats.reset();
+	}
+
+	/** */
+	@Test
+	void policyDecidesWhenToGiveUp() throws Exception {
+		final List<Integer> failuresSeen = new ArrayList<>();
+		final RetryPolicy policy = (failures, elapsedMillis) -> {
+			failuresSeen.add(failures);
+			return failures < 3 ? 0 : -1;
+		};
+
+		final AtomicInteger tries = new AtomicInteger();
+		assertThrows(ConcurrentModificationException.class, () -> ofy().transactNew(policy, () -> {
+			tries.incrementAndGet();
+			throw new ConcurrentModificationException();
+		}));
+
+		assertThat(tries.get()).isEqualTo(3);
+		assertThat(failuresSeen).containsExactly(1, 2, 3).inOrder();
+		assertThat(stats.getRetries()).isEqualTo(2);
+		assertThat(stats.getGaveUp()).isEqualTo(1);
+	}
+
+	/** */
+	@Test
+	void succeedsAfterRetries() throws Exception {
+		final AtomicInteger tries = new AtomicInteger();
+
+		final Key<Trivial> key = ofy().transactNew(new ExponentialBackoff(5, 1, 5, Long.MAX_VALUE), () -> {
+			final Key<Trivial> saved = ofy().save().entity(new Trivial(123L, "foo", 5)).now();
+			if (tries.incrementAndGet() < 3)
+				throw new ConcurrentModificationException();
+
+			return saved;
+		});
+
+		assertThat(tries.get()).isEqualTo(3);
+		assertThat(stats.getRetries()).isEqualTo(2);
+		assertThat(stats.getGaveUp()).isEqualTo(0);
+		assertThat(ofy().load().key(key).now()).isNotNull();
+	}
+
+	/** */
+	@Test
+	void limitTriesStillApplies() throws Exception {
+		final AtomicInteger tries = new AtomicInteger();
+
+		assertThrows(ConcurrentModificationException.class, () -> ofy().transactNew(2, () -> {
+			tries.incrementAndGet();
+			throw new ConcurrentModificationException();
+		}));
+
+		assertThat(tries.get()).isEqualTo(2);
+	}
+
+	/** */
+	@Test
+	void conflictsAreChargedToEntityGroupRoots() throws Exception {
+		final Key<Trivial> hot = Key.create(Trivial.class, 1L);
+		final Key<Trivial> child = Key.create(hot, Trivial.class, 2L);
+		final Key<Trivial> cold = Key.create(Trivial.class, 3L);
+
+		final RetryPolicy twice = (failures, elapsedMillis) -> failures < 2 ? 0 : -1;
+
+		assertThrows(ConcurrentModificationException.class, () -> ofy().transactNew(twice, () -> {
+			ofy().load().keys(hot, child);
+			throw new ConcurrentModificationException();
+		}));
+
+		assertThrows(ConcurrentModificationException.class, () -> ofy().transactNew(1, () -> {
+			ofy().load().keys(hot, cold);
+			throw new ConcurrentModificationException();
+		}));
+
+		assertThat(stats.getConflicts(hot)).isEqualTo(3);
+		assertThat(stats.getConflicts(cold)).isEqualTo(1);
+		assertThat(stats.getConflicts(child)).isEqualTo(0);
+		assertThat(stats.getHottest(1)).containsExactly(hot);
+		assertThat(stats.getHottest(5)).containsExactly(hot, cold).inOrder();
+	}
+
+	/** */
+	@Test
+	void conflictCountsAreBounded() throws Exception {
+		final ContentionStats bounded = new ContentionStats(10);
+
+		for (long i = 1; i <= 100; i++)
+			bounded.conflict(Collections.singleton(Key.create(Trivial.class, i)));
+
+		assertThat(bounded.getConflicts().size()).isAtMost(10);
+	}
+
+	/** */
+	@Test
+	void exponentialBackoffGrowsAndCaps() throws Exception {
+		final ExponentialBackoff backoff = new ExponentialBackoff(10, 10, 100, Long.MAX_VALUE);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(backoff.backoff(1, 0)).isIn(Range.closed(0L, 10L));
+			assertThat(backoff.backoff(3, 0)).isIn(Range.closed(0L, 40L));
+			assertThat(backoff.backoff(9, 0)).isIn(Range.closed(0L, 100L));
+		}
+
+		assertThat(backoff.backoff(10, 0)).isLessThan(0L);
+		assertThat(backoff.budgetMillis(50).backoff(1, 50)).isLessThan(0L);
+		assertThat(new ExponentialBackoff(Integer.MAX_VALUE, 10, 100, Long.MAX_VALUE).backoff(Integer.MAX_VALUE - 1, 0)).isAtMost(100L);
+	}
+}
@@ -1,20 +1,32 @@
 package com.googlecode.objectify.test;
 
 import com.googlecode.objectify.ObjectifyFactory;
+import com.googlecode.objectify.SaveException;
 import com.googlecode.objectify.annotation.Cache;
 import com.googlecode.objectify.annotation.Entity;
 import com.googlecode.objectify.annotation.Id;
 import com.googlecode.objectify.annotation.Serialize;
+import com.googlecode.objectify.serializer.CompactSerializer;
+import com.googlecode.objectify.serializer.Serializer;
 import com.googlecode.objectify.test.util.TestBase;
 import lombok.Data;
 import org.junit.jupiter.api.Test;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
 import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Tests of the {@code @Serialize} annotation
@@ -121,4 +133,107 @@ class SerializeTests extends TestBase {
 		final HasSerializeZip fetched = fact2.begin().load().type(HasSerializeZip.class).id(hs.id).now();
 		assertThat(fetched.numbers).isEqualTo(hs.numbers);
 	}
+
+	@Entity(name="HasSerialize")
+	@Cache
+	@Data
+	private static class HasSerializeCompact {
+		@Id Long id;
+		@Serialize(serializer=CompactSerializer.class) Map<Long, Long> numbers = new HashMap<>();
+	}
+
+	@Entity
+	@Data
+	private static class HasCompactThings {
+		@Id Long id;
+		@Serialize(serializer=CompactSerializer.class, zip=true) Map<String, Object> things = new HashMap<>();
+		@Serialize(serializer=CompactSerializer.class) Object other;
+	}
+
+	@Test
+	void compactSerializerHandlesPlainData() throws Exception {
+		factory().register(HasCompactThings.class);
+
+		final HasCompactThings hct = new HasCompactThings();
+		hct.things.put("negative", -5L);
+		hct.things.put("int", 7);
+		hct.things.put("text", "h\u00e9llo");
+		hct.things.put("when", new Date(1234567890L));
+		hct.things.put("nothing", null);
+		hct.things.put("list", Arrays.asList(1.5, true, 'c', (short)3, (byte)4, 2.5f));
+		hct.things.put("set", new LinkedHashSet<>(Arrays.asList("a", "b")));
+		hct.things.put("nested", new HashMap<>(hct.things));
+
+		final HasCompactThings fetched = saveClearLoad(hct);
+		assertThat(fetched.things).isEqualTo(hct.things);
+	}
+
+	@Test
+	void compactSerializerHandlesArrays() throws Exception {
+		factory().register(HasCompactThings.class);
+
+		final HasCompactThings hct = new HasCompactThings();
+		hct.other = new long[] { Long.MIN_VALUE, 0, Long.MAX_VALUE };
+
+		final HasCompactThings fetched = saveClearLoad(hct);
+		assertThat((long[])fetched.other).isEqualTo(hct.other);
+	}
+
+	@Test
+	void compactSerializerRejectsArbitraryObjects() throws Exception {
+		factory().register(HasCompactThings.class);
+
+		final HasCompactThings hct = new HasCompactThings();
+		hct.other = new StringBuilder("nope");
+
+		assertThrows(SaveException.class, () -> ofy().save().entity(hct).now());
+	}
+
+	@Test
+	void javaSerializedValuesCanBeReadAfterSwitchingSerializer() throws Exception {
+		factory().register(HasSerializeZip.class);
+
+		final HasSerializeZip hs = new HasSerializeZip();
+		hs.numbers.put(1L, 2L);
+		hs.numbers.put(3L, 4L);
+
+		ofy().save().entity(hs).now();
+
+		final ObjectifyFactory fact2 = new ObjectifyFactory();
+		fact2.register(HasSerializeCompact.class);
+
+		final HasSerializeCompact fetched = fact2.begin().load().type(HasSerializeCompact.class).id(hs.id).now();
+		assertThat(fetched.numbers).isEqualTo(hs.numbers);
+	}
+
+	/** Writes only strings */
+	private static class StringSerializer implements Serializer {
+		@Override
+		public void write(Object value, OutputStream out) throws IOException {
+			new DataOutputStream(out).writeUTF((String)value);
+		}
+
+		@Override
+		public Object read(InputStream in) throws IOException {
+			return new DataInputStream(in).readUTF();
+		}
+	}
+
+	@Entity
+	@Data
+	private static class HasCustomSerializer {
+		@Id Long id;
+		@Serialize(serializer=StringSerializer.class, zip=true) String text;
+	}
+
+	@Test
+	void customSerializersAreUsed() throws Exception {
+		factory().register(HasCustomSerializer.class);
+
+		final HasCustomSerializer hcs = new HasCustomSerializer();
+		hcs.text = "custom";
+
+		final HasCustomSerializer fetched = saveClearLoad(hcs);
+		assertThat(fetched.text).isEqualTo("custom");
+	}
 }
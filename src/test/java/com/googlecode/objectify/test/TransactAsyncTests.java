@@ -0,0 +1,170 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.Result;
+import com.googlecode.objectify.cache.PendingFutures;
+import com.googlecode.objectify.impl.TransactionImpl;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of transactAsync(), which issues the commit without waiting for it
+ */
+class TransactAsyncTests extends TestBase {
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+	}
+
+	/** */
+	@Test
+	void workIsCommitted() throws Exception {
+		final Trivial triv = new Trivial("foo", 5);
+
+		final Result<Key<Trivial>> result = ofy().transactAsync(() -> ofy().save().entity(triv).now());
+		final Key<Trivial> key = result.now();
+
+		assertThat(ofy().isLoaded(key)).isTrue();
+
+		ofy().clear();
+		assertThat(ofy().load().key(key).now()).isEqualTo(triv);
+	}
+
+	/** */
+	@Test
+	void deferredSavesAreFlushedBeforeCommit() throws Exception {
+		final Trivial triv = new Trivial(123L, "foo", 5);
+
+		ofy().transactAsync(() -> {
+			ofy().defer().save().entity(triv);
+			return null;
+		}).now();
+
+		ofy().clear();
+		assertThat(ofy().load().entity(triv).now()).isEqualTo(triv);
+	}
+
+	/** */
+	@Test
+	void commitListenersRunWhenCommitCompletes() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+
+		final Result<Void> result = ofy().transactAsync(() -> {
+			((TransactionImpl)ofy().getTransaction()).listenForCommit(count::incrementAndGet);
+			ofy().save().entity(new Trivial("foo", 5));
+			return null;
+		});
+
+		result.now();
+		assertThat(count.get()).isEqualTo(1);
+
+		// Only once, no matter how many times the result is asked for
+		result.now();
+		assertThat(count.get()).isEqualTo(1);
+	}
+
+	/** */
+	@Test
+	void joinsTransactionInProgress() throws Exception {
+		final Trivial triv = new Trivial("foo", 5);
+
+		final Key<Trivial> key = ofy().transact(() -> {
+			final Result<Key<Trivial>> inner = ofy().transactAsync(() -> ofy().save().entity(triv).now());
+			assertThat(ofy().getTransaction().isActive()).isTrue();
+			return inner.now();
+		});
+
+		ofy().clear();
+		assertThat(ofy().load().key(key).now()).isEqualTo(triv);
+	}
+
+	/** */
+	@Test
+	void failedWorkRollsBack() throws Exception {
+		final Trivial triv = new Trivial(123L, "foo", 5);
+
+		final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> ofy().transactAsync(() -> {
+			ofy().save().entity(triv).now();
+			throw new IllegalStateException("boom");
+		}));
+		assertThat(ex).hasMessageThat().isEqualTo("boom");
+
+		ofy().clear();
+		assertThat(ofy().load().entity(triv).now()).isNull();
+	}
+
+	/** */
+	@Test
+	void conflictIsRetriedWithoutAskingForTheResult() throws Exception {
+		final Trivial triv = new Trivial(123L, "foo", 5);
+		ofy().save().entity(triv).now();
+
+		final AtomicInteger attempts = new AtomicInteger();
+
+		ofy().transactAsync(() -> {
+			final Trivial loaded = ofy().load().entity(triv).now();
+
+			// Sneak a write past the first attempt so that its commit fails
+			if (attempts.incrementAndGet() == 1)
+				ofy().transactionless(() -> ofy().save().entity(new Trivial(123L, "sneaky", 1)).now());
+
+			loaded.setSomeString("bar");
+			ofy().save().entity(loaded);
+			return null;
+		});
+
+		// What the end of the request does
+		PendingFutures.completeAllPendingFutures();
+
+		assertThat(attempts.get()).isEqualTo(2);
+
+		ofy().clear();
+		assertThat(ofy().load().entity(triv).now().getSomeString()).isEqualTo("bar");
+	}
+
+	/** */
+	@Test
+	void retriesAreUpToTheRetryPolicy() throws Exception {
+		final Trivial triv = new Trivial(123L, "foo", 5);
+		ofy().save().entity(triv).now();
+
+		final List<Integer> asked = new ArrayList<>();
+		factory().setRetryPolicy((failures, elapsedMillis) -> {
+			asked.add(failures);
+			return -1;
+		});
+
+		final AtomicInteger attempts = new AtomicInteger();
+
+		final Result<Void> result = ofy().transactAsync(() -> {
+			final Trivial loaded = ofy().load().entity(triv).now();
+			attempts.incrementAndGet();
+			ofy().transactionless(() -> ofy().save().entity(new Trivial(123L, "sneaky", 1)).now());
+
+			loaded.setSomeString("bar");
+			ofy().save().entity(loaded);
+			return null;
+		});
+
+		assertThrows(ConcurrentModificationException.class, result::now);
+		assertThat(attempts.get()).isEqualTo(1);
+		assertThat(asked).containsExactly(1);
+	}
+}
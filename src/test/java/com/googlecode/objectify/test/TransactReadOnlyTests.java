@@ -0,0 +1,95 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of transactReadOnly()
+ */
+class TransactReadOnlyTests extends TestBase {
+
+	/** */
+	private Key<Trivial> key;
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+
+		key = ofy().save().entity(new Trivial(123L, "foo", 5)).now();
+		ofy().clear();
+	}
+
+	/** */
+	@Test
+	void readsInATransaction() throws Exception {
+		final Trivial fetched = ofy().transactReadOnly(() -> {
+			assertThat(ofy().getTransaction()).isNotNull();
+			return ofy().load().key(key).now();
+		});
+
+		assertThat(fetched.getSomeString()).isEqualTo("foo");
+	}
+
+	/** */
+	@Test
+	void loadedEntitiesEndUpInTheSession() throws Exception {
+		ofy().transactReadOnly(() -> {
+			ofy().load().key(key);	// Never asked for; completed when the transaction ends
+			return null;
+		});
+
+		assertThat(ofy().isLoaded(key)).isTrue();
+		assertThat(ofy().load().key(key).now().getSomeNumber()).isEqualTo(5);
+	}
+
+	/** */
+	@Test
+	void savesAreRejected() throws Exception {
+		assertThrows(IllegalStateException.class, () -> ofy().transactReadOnly(() -> ofy().save().entity(new Trivial(456L, "bar", 6))));
+		assertThrows(IllegalStateException.class, () -> ofy().transactReadOnly(() -> ofy().delete().key(key)));
+
+		assertThrows(IllegalStateException.class, () -> ofy().transactReadOnly(() -> {
+			ofy().defer().save().entity(new Trivial(456L, "bar", 6));
+			return null;
+		}));
+
+		assertThat(ofy().load().key(key).now()).isNotNull();
+		assertThat(ofy().load().key(Key.create(Trivial.class, 456L)).now()).isNull();
+	}
+
+	/** */
+	@Test
+	void joinsTransactionInProgress() throws Exception {
+		ofy().transact(() -> {
+			final Trivial fetched = ofy().transactReadOnly(() -> ofy().load().key(key).now());
+			fetched.setSomeNumber(6);
+
+			// Still allowed; the outer transaction is not read-only
+			ofy().save().entity(fetched);
+		});
+
+		ofy().clear();
+		assertThat(ofy().load().key(key).now().getSomeNumber()).isEqualTo(6);
+	}
+
+	/** */
+	@Test
+	void writesAreAllowedAgainAfterwards() throws Exception {
+		ofy().transactReadOnly(() -> ofy().load().key(key).now());
+
+		ofy().save().entity(new Trivial(456L, "bar", 6)).now();
+		assertThat(ofy().load().key(Key.create(Trivial.class, 456L)).now()).isNotNull();
+	}
+}
@@ -6,14 +6,20 @@ package com.googlecode.objectify.test;
 import com.google.appengine.api.datastore.EmbeddedEntity;
 import com.google.appengine.api.datastore.Entity;
 import com.googlecode.objectify.annotation.Id;
+import com.googlecode.objectify.annotation.Index;
 import com.googlecode.objectify.impl.Path;
 import com.googlecode.objectify.impl.translate.ClassTranslator;
 import com.googlecode.objectify.impl.translate.ClassTranslatorFactory;
 import com.googlecode.objectify.impl.translate.CreateContext;
 import com.googlecode.objectify.impl.translate.SaveContext;
+import com.googlecode.objectify.impl.translate.Translator;
+import com.googlecode.objectify.impl.translate.TypeKey;
 import com.googlecode.objectify.test.util.TestBase;
 import org.junit.jupiter.api.Test;
 
+import java.lang.annotation.Annotation;
+
+import static com.google.common.truth.Truth.assertThat;
 import static com.googlecode.objectify.ObjectifyService.factory;
 
 /**
@@ -72,4 +78,37 @@ public class TranslationTests extends TestBase
 		assert ent.getProperties().size() == 1;
 		assert ent.getProperty("foo").equals("bar");
 	}
-}
\ No newline at end of file
+
+	private static class Indexed {
+		@Index String one;
+		@Index String two;
+	}
+
+	/**
+	 */
+	@Test
+	void equalAnnotationsMakeEqualTypeKeys() throws Exception {
+		final Annotation[] one = Indexed.class.getDeclaredField("one").getAnnotations();
+		final Annotation[] two = Indexed.class.getDeclaredField("two").getAnnotations();
+
+		final TypeKey<String> key1 = new TypeKey<>(String.class, one);
+		final TypeKey<String> key2 = new TypeKey<>(String.class, two);
+
+		assertThat(key1).isEqualTo(key2);
+		assertThat(key1.hashCode()).isEqualTo(key2.hashCode());
+		assertThat(key1.getAnnotations()).isSameAs(key2.getAnnotations());
+
+		assertThat(new TypeKey<>(Integer.class, key1)).isNotEqualTo(key1);
+		assertThat(new TypeKey<>(String.class)).isNotEqualTo(key1);
+	}
+
+	/**
+	 */
+	@Test
+	void classLookupsShareTranslators() throws Exception {
+		final Translator<String, Object> byClass = factory().getTranslators().get(String.class);
+
+		assertThat(factory().getTranslators().<String, Object>get(String.class)).isSameAs(byClass);
+		assertThat(factory().getTranslators().<String, Object>get(new TypeKey<>(String.class), new CreateContext(factory()), Path.root())).isSameAs(byClass);
+	}
+}
@@ -10,6 +10,7 @@ import com.google.appengine.api.datastore.ShortBlob;
 import com.google.appengine.api.datastore.Text;
 import com.googlecode.objectify.Key;
 import com.googlecode.objectify.SaveException;
+import com.googlecode.objectify.annotation.AsText;
 import com.googlecode.objectify.annotation.Cache;
 import com.googlecode.objectify.annotation.Id;
 import com.googlecode.objectify.annotation.Index;
@@ -30,6 +31,10 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.TimeZone;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -200,6 +205,68 @@ class ValueTranslationTests extends TestBase {
 		assertThat(fetched).isEqualTo(has);
 	}
 	
+	/** Repeats the string to make something exactly bytes long in UTF-8 */
+	private static String repeat(final String str, final int bytes) {
+		final int each = str.getBytes(StandardCharsets.UTF_8).length;
+		final StringBuilder bld = new StringBuilder();
+		for (int i = 0; i < bytes / each; i++)
+			bld.append(str);
+		return bld.toString();
+	}
+
+	/**
+	 * Strings are converted exactly when their UTF-8 encoding won't fit
+	 */
+	@Test
+	void conversionDependsOnEncodedLength() throws Exception {
+		factory().register(HasString.class);
+
+		final int max = DataTypeUtils.MAX_STRING_PROPERTY_LENGTH;
+
+		for (final String str: new String[] { "a", "\u00e9", "\u2202", "\ud83d\ude00" }) {
+			final HasString fits = new HasString();
+			fits.string = repeat(str, max);
+			assertThat(ofy().save().toEntity(fits).getProperty("string")).isInstanceOf(String.class);
+
+			final HasString tooBig = new HasString();
+			tooBig.string = fits.string + str;
+			assertThat(ofy().save().toEntity(tooBig).getProperty("string")).isInstanceOf(Text.class);
+		}
+
+		// An unpaired surrogate is encoded as a single '?'
+		final HasString unpaired = new HasString();
+		unpaired.string = repeat("a", max - 1) + "\ud83d";
+		assertThat(ofy().save().toEntity(unpaired).getProperty("string")).isInstanceOf(String.class);
+	}
+
+	/** */
+	@com.googlecode.objectify.annotation.Entity
+	@Data
+	private static class HasAsText {
+		@Id Long id;
+		@AsText String text;
+		@AsText List<String> texts;
+	}
+
+	/**
+	 * Even short strings are stored as Text with @AsText
+	 */
+	@Test
+	void asTextIsAlwaysText() throws Exception {
+		factory().register(HasAsText.class);
+
+		final HasAsText has = new HasAsText();
+		has.text = "short";
+		has.texts = Arrays.asList("also", "short");
+
+		final Entity ent = ofy().save().toEntity(has);
+		assertThat(ent.getProperty("text")).isEqualTo(new Text("short"));
+		assertThat((Collection<?>)ent.getProperty("texts")).containsExactly(new Text("also"), new Text("short")).inOrder();
+
+		final HasAsText fetched = saveClearLoad(has);
+		assertThat(fetched).isEqualTo(has);
+	}
+
 	/** */
 	@com.googlecode.objectify.annotation.Entity
 	@Cache
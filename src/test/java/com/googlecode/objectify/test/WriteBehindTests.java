@@ -0,0 +1,111 @@
+/*
+ */
+
+package com.googlecode.objectify.test;
+
+import com.googlecode.objectify.Key;
+import com.googlecode.objectify.impl.WriteBehindBuffer;
+import com.googlecode.objectify.test.entity.Trivial;
+import com.googlecode.objectify.test.util.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlecode.objectify.ObjectifyService.factory;
+import static com.googlecode.objectify.ObjectifyService.ofy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of the write-behind buffer
+ */
+class WriteBehindTests extends TestBase {
+
+	/** */
+	@BeforeEach
+	void setUpExtra() {
+		factory().register(Trivial.class);
+	}
+
+	/** */
+	@Test
+	void savesOfTheSameKeyAreCoalesced() throws Exception {
+		final WriteBehindBuffer buffer = new WriteBehindBuffer(factory(), 60_000, 100);
+
+		for (int i = 1; i <= 10; i++)
+			buffer.save(new Trivial(123L, "foo", i));
+
+		assertThat(buffer.size()).isEqualTo(1);
+		assertThat(ofy().load().key(Key.create(Trivial.class, 123L)).now()).isNull();
+
+		buffer.flush();
+		assertThat(buffer.size()).isEqualTo(0);
+
+		ofy().clear();
+		assertThat(ofy().load().key(Key.create(Trivial.class, 123L)).now().getSomeNumber()).isEqualTo(10);
+	}
+
+	/** */
+	@Test
+	void deleteReplacesBufferedSave() throws Exception {
+		ofy().save().entity(new Trivial(123L, "foo", 1)).now();
+		ofy().clear();
+
+		final WriteBehindBuffer buffer = new WriteBehindBuffer(factory(), 60_000, 100);
+		buffer.save(new Trivial(123L, "foo", 2));
+		buffer.delete(Key.create(Trivial.class, 123L));
+		buffer.flush();
+
+		assertThat(ofy().load().key(Key.create(Trivial.class, 123L)).now()).isNull();
+	}
+
+	/** */
+	@Test
+	void fullBufferFlushes() throws Exception {
+		final WriteBehindBuffer buffer = new WriteBehindBuffer(factory(), 60_000, 3);
+
+		buffer.save(new Trivial(1L, "foo", 1));
+		buffer.save(new Trivial(2L, "foo", 2));
+		assertThat(buffer.size()).isEqualTo(2);
+
+		buffer.save(new Trivial(3L, "foo", 3));
+		assertThat(buffer.size()).isEqualTo(0);
+		assertThat(ofy().load().type(Trivial.class).count()).isEqualTo(3);
+	}
+
+	/** */
+	@Test
+	void flushIfDueWaitsForTheWindow() throws Exception {
+		final WriteBehindBuffer waiting = new WriteBehindBuffer(factory(), 60_000, 100);
+		waiting.save(new Trivial(1L, "foo", 1));
+		waiting.flushIfDue();
+		assertThat(waiting.size()).isEqualTo(1);
+
+		final WriteBehindBuffer brief = new WriteBehindBuffer(factory(), 20, 100);
+		brief.save(new Trivial(2L, "foo", 2));
+		Thread.sleep(30);
+		brief.flushIfDue();
+		assertThat(brief.size()).isEqualTo(0);
+	}
+
+	/** */
+	@Test
+	void laterChangesToTheBufferedPojoAreNotWritten() throws Exception {
+		final WriteBehindBuffer buffer = new WriteBehindBuffer(factory(), 60_000, 100);
+
+		final Trivial triv = new Trivial(123L, "foo", 1);
+		buffer.save(triv);
+		triv.setSomeString("changed");
+
+		buffer.flush();
+
+		ofy().clear();
+		assertThat(ofy().load().key(Key.create(Trivial.class, 123L)).now().getSomeString()).isEqualTo("foo");
+	}
+
+	/** */
+	@Test
+	void autogeneratedIdsAreRejected() throws Exception {
+		final WriteBehindBuffer buffer = new WriteBehindBuffer(factory(), 60_000, 100);
+		assertThrows(IllegalArgumentException.class, () -> buffer.save(new Trivial("foo", 1)));
+	}
+}